@@ -10,6 +10,37 @@ dependencies {
     testImplementation("org.junit.jupiter:junit-jupiter:5.10.2")
 }
 
+val cdsArchiveName = "import-analyzer.jsa"
+
 application {
     mainClass.set("com.example.importanalyzer.cli.AnalyzerCli")
+    // Picks up the archive written by trainCdsArchive; the JVM silently runs without it when absent or stale.
+    applicationDefaultJvmArgs = listOf("-XX:SharedArchiveFile=APP_HOME_PLACEHOLDER/lib/$cdsArchiveName")
+}
+
+tasks.startScripts {
+    doLast {
+        unixScript.writeText(unixScript.readText().replace("APP_HOME_PLACEHOLDER", "'\"\$APP_HOME\"'"))
+        windowsScript.writeText(windowsScript.readText().replace("APP_HOME_PLACEHOLDER", "%APP_HOME%"))
+    }
+}
+
+// Runs `summary` on the example project from the installed jars and records every class it loads into an
+// AppCDS archive next to them. The archive is only valid for the same JDK and jar paths, so it is trained
+// in place inside build/install/cli rather than packaged separately.
+val trainCdsArchive by tasks.registering(JavaExec::class) {
+    group = "distribution"
+    description = "Installs the CLI and trains an AppCDS archive for faster start-up."
+    dependsOn(tasks.installDist)
+
+    val libDir = layout.buildDirectory.dir("install/${project.name}/lib")
+    val archive = libDir.map { it.file(cdsArchiveName) }
+    // same jars in the same order as the start scripts, otherwise the JVM rejects the archive at run time
+    classpath = files(libDir.map { dir -> tasks.startScripts.get().classpath!!.files.map { dir.file(it.name) } })
+    mainClass.set(application.mainClass)
+    args("summary", "--project", rootProject.file("example").absolutePath)
+    outputs.file(archive)
+    doFirst {
+        jvmArgs("-XX:ArchiveClassesAtExit=${archive.get().asFile.absolutePath}")
+    }
 }
@@ -1,23 +1,48 @@
 package com.example.importanalyzer.cli;
 
+import com.example.importanalyzer.core.AnalysisEvent;
+import com.example.importanalyzer.core.AnalysisProfiler;
+import com.example.importanalyzer.core.AsyncImportAnalyzerService;
+import com.example.importanalyzer.core.DeadTypeReport;
+import com.example.importanalyzer.core.DeadTypeRoots;
+import com.example.importanalyzer.core.DependencyReport;
+import com.example.importanalyzer.core.FileFix;
+import com.example.importanalyzer.core.FixReport;
+import com.example.importanalyzer.core.ImpactIndex;
 import com.example.importanalyzer.core.ImportAnalyzer;
 import com.example.importanalyzer.core.ImportAnalyzerBuilder;
 import com.example.importanalyzer.core.ImportIssue;
+import com.example.importanalyzer.core.IssueBaseline;
+import com.example.importanalyzer.core.IssueSummary;
+import com.example.importanalyzer.core.SelectPolicy;
 import com.example.importanalyzer.report.ConsoleReportPrinter;
 import com.example.importanalyzer.report.JsonReportGenerator;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
 import picocli.CommandLine;
 
+import java.io.IOException;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.stream.LongStream;
 
 @CommandLine.Command(name = "import-analyzer", subcommands = {
         AnalyzerCli.AnalyzeCommand.class,
         AnalyzerCli.JsonCommand.class,
         AnalyzerCli.SummaryCommand.class,
-        AnalyzerCli.DebugCommand.class
+        AnalyzerCli.DebugCommand.class,
+        AnalyzerCli.FixCommand.class,
+        AnalyzerCli.CyclesCommand.class,
+        AnalyzerCli.ImpactCommand.class,
+        AnalyzerCli.DeadTypesCommand.class,
+        AnalyzerCli.BaselineCommand.class,
+        AnalyzerCli.ServeCommand.class
 })
 public class AnalyzerCli implements Runnable {
+    static final int DEFAULT_TOP_FILES = 10;
+
     @CommandLine.Spec
     CommandLine.Model.CommandSpec spec;
 
@@ -27,13 +52,22 @@ public class AnalyzerCli implements Runnable {
     }
 
     private static ImportAnalyzer build(Path project, boolean deps, Integer threads, Path cache, boolean reuse, boolean cacheEnabled) {
+        return builder(project, deps, threads, cache, reuse, cacheEnabled).build();
+    }
+
+    private static ImportAnalyzerBuilder builder(Path project, boolean deps, Integer threads, Path cache, boolean reuse, boolean cacheEnabled) {
         Path projectRoot = resolveProject(project);
         ImportAnalyzerBuilder builder = new ImportAnalyzerBuilder()
                 .projectRoot(projectRoot)
-                .sourceRoot(projectRoot.resolve("src/main/java"))
-                .testSourceRoot(projectRoot.resolve("src/test/java"))
+                .sourceRoot(sourceRoots(projectRoot).get(0))
+                .testSourceRoot(sourceRoots(projectRoot).get(1))
                 .includeDependencies(deps)
-                .cacheEnabled(cacheEnabled);
+                .cacheEnabled(cacheEnabled)
+                .analysisListener(event -> {
+                    if (event instanceof AnalysisEvent.CacheError error) {
+                        System.err.println("Warning: index cache skipped: " + error.cause().getMessage());
+                    }
+                });
         if (threads != null) {
             builder.threads(threads);
         }
@@ -41,7 +75,71 @@ public class AnalyzerCli implements Runnable {
             builder.indexCachePath(cache);
         }
         builder.reuseIndex(reuse);
-        return builder.build();
+        return builder;
+    }
+
+    private static List<Path> sourceRoots(Path projectRoot) {
+        return List.of(projectRoot.resolve("src/main/java"), projectRoot.resolve("src/test/java"));
+    }
+
+    /**
+     * Renders {@code issues} exactly as the matching in-process command prints them; {@code topFiles} is the
+     * {@code --top} of a summary breakdown.
+     */
+    static String render(String command, List<ImportIssue> issues, Path projectRoot, int topFiles) {
+        return switch (command) {
+            case "analyze" -> new ConsoleReportPrinter().render(issues) + System.lineSeparator();
+            case "json" -> new JsonReportGenerator(false).toJson(issues) + System.lineSeparator();
+            case "json-pretty" -> new JsonReportGenerator(true).toJson(issues) + System.lineSeparator();
+            case "summary", "summary-breakdown" -> {
+                IssueSummary summary = new IssueSummary(sourceRoots(projectRoot), topFiles);
+                issues.forEach(summary::accept);
+                yield renderSummary(summary, command.equals("summary-breakdown"));
+            }
+            default -> throw new IllegalArgumentException("Unknown command: " + command);
+        };
+    }
+
+    /**
+     * The total on the first line, then, with {@code breakdown}, one {@code key: count} line per issue type,
+     * source root and package, and the files with the most issues.
+     */
+    static String renderSummary(IssueSummary summary, boolean breakdown) {
+        StringBuilder out = new StringBuilder(String.format("Total issues: %d\n", summary.total()));
+        if (!breakdown) {
+            return out.toString();
+        }
+        out.append("By type:\n");
+        summary.byType().forEach((type, count) -> out.append(String.format("  %s: %d\n", type, count)));
+        out.append("By source root:\n");
+        summary.bySourceRoot().forEach((root, count) -> out.append(String.format("  %s: %d\n", root, count)));
+        out.append("By package:\n");
+        summary.byPackage().forEach((pkg, count) -> out.append(String.format("  %s: %d\n", pkg.isEmpty() ? "(default)" : pkg, count)));
+        out.append("Top files:\n");
+        summary.topFiles().forEach(file -> out.append(String.format("  %s: %d\n", file.file(), file.issues())));
+        return out.toString();
+    }
+
+    private static int forward(String command, Path project, boolean deps, int topFiles, ServerOptions options) {
+        Path projectRoot = resolveProject(project);
+        Path socket = options.socketFor(projectRoot);
+        try {
+            return AnalyzerClient.request(socket, new ServerProtocol.Request(command, projectRoot, deps, topFiles), System.out, System.err);
+        } catch (IOException e) {
+            System.err.printf("No analyzer server reachable at %s (%s); start one with 'serve --project %s'%n", socket, e.getMessage(), project);
+            return 1;
+        }
+    }
+
+    static class ServerOptions {
+        @CommandLine.Option(names = "--server", description = "Send the request to a running 'serve' instance instead of analyzing in-process")
+        boolean enabled;
+        @CommandLine.Option(names = "--socket", description = "Socket of the 'serve' instance (default: <project>/.import-analyzer.sock)")
+        Path socket;
+
+        Path socketFor(Path projectRoot) {
+            return socket != null ? socket : AnalyzerServer.defaultSocket(projectRoot);
+        }
     }
 
     private static Path resolveProject(Path provided) {
@@ -71,13 +169,34 @@ public class AnalyzerCli implements Runnable {
         boolean reuse;
         @CommandLine.Option(names = "--no-cache")
         boolean noCache;
+        @CommandLine.Option(names = "--baseline", description = "Only report issues missing from this file, written by 'baseline create'")
+        Path baseline;
+        @CommandLine.Mixin
+        ServerOptions server = new ServerOptions();
 
         @Override
         public Integer call() {
-            ImportAnalyzer analyzer = build(project, deps, threads, cache, reuse, !noCache);
-            List<ImportIssue> issues = analyzer.analyze();
-            String out = new ConsoleReportPrinter().render(issues);
-            System.out.println(out);
+            if (server.enabled) {
+                // the server answers from its own index, cache and thread settings
+                String local = baseline != null ? "--baseline" : threads != null ? "--threads" : cache != null ? "--index-cache"
+                        : reuse ? "--reuse-index" : noCache ? "--no-cache" : null;
+                if (local != null) {
+                    System.err.println(local + " cannot be combined with --server");
+                    return 1;
+                }
+                return forward("analyze", project, deps, DEFAULT_TOP_FILES, server);
+            }
+            ImportAnalyzerBuilder builder = builder(project, deps, threads, cache, reuse, !noCache);
+            if (baseline != null) {
+                try {
+                    builder.baseline(IssueBaseline.read(baseline));
+                } catch (IOException e) {
+                    System.err.printf("Cannot read baseline %s: %s%n", baseline, e.getMessage());
+                    return 1;
+                }
+            }
+            List<ImportIssue> issues = builder.build().analyze();
+            System.out.print(render("analyze", issues, resolveProject(project), DEFAULT_TOP_FILES));
             return 0;
         }
     }
@@ -90,12 +209,18 @@ public class AnalyzerCli implements Runnable {
         boolean deps;
         @CommandLine.Option(names = "--pretty")
         boolean pretty;
+        @CommandLine.Mixin
+        ServerOptions server = new ServerOptions();
 
         @Override
         public Integer call() {
+            String command = pretty ? "json-pretty" : "json";
+            if (server.enabled) {
+                return forward(command, project, deps, DEFAULT_TOP_FILES, server);
+            }
             ImportAnalyzer analyzer = build(project, deps, null, null, false, true);
             List<ImportIssue> issues = analyzer.analyze();
-            System.out.println(new JsonReportGenerator(pretty).toJson(issues));
+            System.out.print(render(command, issues, resolveProject(project), DEFAULT_TOP_FILES));
             return 0;
         }
     }
@@ -104,29 +229,252 @@ public class AnalyzerCli implements Runnable {
     static class SummaryCommand implements Callable<Integer> {
         @CommandLine.Option(names = "--project", required = true)
         Path project;
+        @CommandLine.Option(names = "--with-deps", defaultValue = "false", description = "Scan project dependencies (default: false)")
+        boolean deps;
+        @CommandLine.Option(names = "--breakdown", description = "Also count issues by type, source root and package, and list the worst files")
+        boolean breakdown;
+        @CommandLine.Option(names = "--top", defaultValue = "10", description = "Files listed by --breakdown (default: ${DEFAULT-VALUE})")
+        int top;
+        @CommandLine.Mixin
+        ServerOptions server = new ServerOptions();
 
         @Override
         public Integer call() {
-            ImportAnalyzer analyzer = build(project, false, null, null, false, true);
-            List<ImportIssue> issues = analyzer.analyze();
-            long count = issues.size();
-            System.out.printf("Total issues: %d\n", count);
+            if (server.enabled) {
+                return forward(breakdown ? "summary-breakdown" : "summary", project, deps, top, server);
+            }
+            // a one-off count never reuses the index, so skip cache IO (and loading Jackson for it)
+            ImportAnalyzer analyzer = build(project, deps, null, null, false, false);
+            IssueSummary summary = new IssueSummary(sourceRoots(resolveProject(project)), top);
+            analyzer.analyze(summary);
+            System.out.print(renderSummary(summary, breakdown));
             return 0;
         }
     }
 
-    @CommandLine.Command(name = "debug", description = "Print debug info")
+    @CommandLine.Command(name = "debug", description = "Profile an analysis: time, CPU and allocation per phase, slowest files, largest jars")
     static class DebugCommand implements Callable<Integer> {
         @CommandLine.Option(names = "--project", required = true)
         Path project;
         @CommandLine.Option(names = "--threads")
         Integer threads;
+        @CommandLine.Option(names = "--top", defaultValue = "10", description = "Entries per ranking (default: ${DEFAULT-VALUE})")
+        int top;
+        @CommandLine.Option(names = "--jfr", description = "Also write a JFR recording with one event per file parse and jar scan")
+        Path jfr;
 
         @Override
-        public Integer call() {
-            ImportAnalyzer analyzer = build(project, true, threads, null, false, true);
-            List<ImportIssue> issues = analyzer.analyze();
+        public Integer call() throws Exception {
+            AnalysisProfiler profiler = new AnalysisProfiler(top);
+            ImportAnalyzer analyzer = builder(project, true, threads, null, false, true).metricsListener(profiler).build();
+            List<ImportIssue> issues;
+            if (jfr != null) {
+                try (Recording recording = new Recording(Configuration.getConfiguration("profile"))) {
+                    recording.enable("com.example.importanalyzer.FileParse");
+                    recording.enable("com.example.importanalyzer.ArtifactScan");
+                    recording.start();
+                    issues = analyzer.analyze();
+                    recording.stop();
+                    recording.dump(jfr);
+                }
+            } else {
+                issues = analyzer.analyze();
+            }
             System.out.printf("Analyzed project %s with %d issues detected.%n", project, issues.size());
+            System.out.print(renderProfile(profiler));
+            if (jfr != null) {
+                System.out.printf("JFR recording written to %s%n", jfr);
+            }
+            return 0;
+        }
+    }
+
+    static String renderProfile(AnalysisProfiler profiler) {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("%-18s %10s %10s %12s%n", "Phase", "wall ms", "cpu ms", "allocated"));
+        profiler.phases().forEach((phase, profile) -> out.append(String.format("%-18s %10.1f %10.1f %12s%n",
+                phase, profile.wallNanos() / 1e6, profile.cpuNanos() / 1e6, bytes(profile.allocatedBytes()))));
+        out.append(String.format("Slowest files:%n"));
+        profiler.slowestFiles().forEach(file -> out.append(String.format("  %8.1f ms %10s  %s%n",
+                file.durationNanos() / 1e6, bytes(file.bytes()), file.file())));
+        out.append(String.format("Largest artifacts:%n"));
+        profiler.largestArtifacts().forEach(artifact -> out.append(String.format("  %10s %7d classes %8.1f ms  %s%n",
+                bytes(artifact.bytes()), artifact.classes(), artifact.durationNanos() / 1e6, artifact.artifact())));
+        out.append(String.format("Most ambiguous simple names:%n"));
+        profiler.ambiguousNames().forEach(name -> out.append(String.format("  %-30s %d candidates%n", name.simpleName(), name.candidates())));
+        return out.toString();
+    }
+
+    private static String bytes(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " B";
+        }
+        return bytes < 1024 * 1024 ? String.format("%.1f KB", bytes / 1024.0) : String.format("%.1f MB", bytes / (1024.0 * 1024));
+    }
+
+    @CommandLine.Command(name = "fix", description = "Rewrite import blocks to resolve detected issues")
+    static class FixCommand implements Callable<Integer> {
+        @CommandLine.Option(names = "--project", required = true)
+        Path project;
+        @CommandLine.Option(names = "--with-deps", defaultValue = "true", description = "Scan project dependencies (default: true)")
+        boolean deps;
+        @CommandLine.Option(names = "--threads")
+        Integer threads;
+        @CommandLine.Option(names = "--select", defaultValue = "PREFER_LOCAL",
+                description = "How to pick between several candidates: ${COMPLETION-CANDIDATES} (default: ${DEFAULT-VALUE})")
+        SelectPolicy select;
+        @CommandLine.Option(names = "--dry-run", description = "Print a diff instead of writing files")
+        boolean dryRun;
+
+        @Override
+        public Integer call() {
+            ImportAnalyzer analyzer = build(project, deps, threads, null, false, true);
+            FixReport report = analyzer.fix(select, dryRun);
+            for (FileFix fix : report.files()) {
+                if (dryRun && fix.changed()) {
+                    System.out.print(fix.diff());
+                }
+                fix.skipped().forEach(reason -> System.err.printf("%s: skipped %s%n", fix.file(), reason));
+            }
+            System.out.printf("%s %d files: %d imports added, %d removed, %d issues left%n",
+                    dryRun ? "Would fix" : "Fixed", report.changedFiles(), report.addedImports(), report.removedImports(), report.skippedIssues());
+            return 0;
+        }
+    }
+
+    @CommandLine.Command(name = "cycles", description = "Print the package and module dependency graphs and their cycles as JSON")
+    static class CyclesCommand implements Callable<Integer> {
+        @CommandLine.Option(names = "--project", required = true)
+        Path project;
+        @CommandLine.Option(names = "--with-deps", defaultValue = "true", description = "Scan project dependencies (default: true)")
+        boolean deps;
+        @CommandLine.Option(names = "--threads")
+        Integer threads;
+        @CommandLine.Option(names = "--pretty")
+        boolean pretty;
+
+        @Override
+        public Integer call() {
+            ImportAnalyzer analyzer = build(project, deps, threads, null, false, true);
+            DependencyReport report = analyzer.dependencies();
+            System.out.println(new JsonReportGenerator(pretty).toJson(report));
+            return report.packages().cycles().isEmpty() && report.modules().cycles().isEmpty() ? 0 : 1;
+        }
+    }
+
+    @CommandLine.Command(name = "impact", description = "List the source files that transitively depend on the given types")
+    static class ImpactCommand implements Callable<Integer> {
+        @CommandLine.Option(names = "--project", required = true)
+        Path project;
+        @CommandLine.Option(names = "--with-deps", defaultValue = "true", description = "Scan project dependencies (default: true)")
+        boolean deps;
+        @CommandLine.Option(names = "--threads")
+        Integer threads;
+        @CommandLine.Option(names = "--index-cache")
+        Path indexCache;
+        @CommandLine.Option(names = "--refresh", description = "Re-analyze instead of answering from the cached impact index")
+        boolean refresh;
+        @CommandLine.Parameters(arity = "1..*", paramLabel = "FQN", description = "Fully qualified names of the changed types")
+        List<String> types;
+
+        @Override
+        public Integer call() {
+            ImportAnalyzer analyzer = build(project, deps, threads, indexCache, false, true);
+            ImpactIndex index = analyzer.impactIndex(refresh);
+            index.affectedBy(types).forEach(System.out::println);
+            return 0;
+        }
+    }
+
+    @CommandLine.Command(name = "dead-types", description = "List main types that no other file references, per module")
+    static class DeadTypesCommand implements Callable<Integer> {
+        @CommandLine.Option(names = "--project", required = true)
+        Path project;
+        @CommandLine.Option(names = "--with-deps", defaultValue = "true", description = "Scan project dependencies (default: true)")
+        boolean deps;
+        @CommandLine.Option(names = "--threads")
+        Integer threads;
+        @CommandLine.Option(names = "--root-annotation", description = "Annotation marking entry points, e.g. SpringBootApplication (repeatable)")
+        List<String> rootAnnotations = List.of();
+        @CommandLine.Option(names = "--keep", description = "Fully qualified name of a type to always keep (repeatable)")
+        List<String> keep = List.of();
+        @CommandLine.Option(names = "--no-main-roots", description = "Do not treat types with a main method as roots")
+        boolean noMainRoots;
+        @CommandLine.Option(names = "--ignore-test-references", description = "Report types that only tests reference")
+        boolean ignoreTestReferences;
+
+        @Override
+        public Integer call() {
+            DeadTypeRoots roots = new DeadTypeRoots(!noMainRoots, Set.copyOf(rootAnnotations), !ignoreTestReferences, Set.copyOf(keep));
+            ImportAnalyzer analyzer = builder(project, deps, threads, null, false, true).deadTypeRoots(roots).build();
+            DeadTypeReport report = analyzer.deadTypes();
+            report.unreferenced().forEach((module, types) -> {
+                System.out.printf("%s (%d)%n", module, types.size());
+                types.forEach(type -> System.out.println("  " + type));
+            });
+            System.out.printf("%d of %d types unreferenced%n", report.count(), report.projectTypes());
+            return 0;
+        }
+    }
+
+    @CommandLine.Command(name = "baseline", description = "Record current issues so that 'analyze --baseline' reports only new ones",
+            subcommands = BaselineCommand.CreateCommand.class)
+    static class BaselineCommand implements Runnable {
+        @CommandLine.Spec
+        CommandLine.Model.CommandSpec spec;
+
+        @Override
+        public void run() {
+            spec.commandLine().usage(System.out);
+        }
+
+        @CommandLine.Command(name = "create", description = "Write the fingerprints of all current issues to a baseline file")
+        static class CreateCommand implements Callable<Integer> {
+            @CommandLine.Option(names = "--project", required = true)
+            Path project;
+            @CommandLine.Option(names = "--with-deps", defaultValue = "true", description = "Scan project dependencies (default: true)")
+            boolean deps;
+            @CommandLine.Option(names = "--threads")
+            Integer threads;
+            @CommandLine.Option(names = "--output", description = "Baseline file (default: <project>/.import-analyzer-baseline)")
+            Path output;
+
+            @Override
+            public Integer call() throws IOException {
+                Path projectRoot = resolveProject(project);
+                LongStream.Builder fingerprints = LongStream.builder();
+                build(project, deps, threads, null, false, true)
+                        .analyze(issue -> fingerprints.add(IssueBaseline.fingerprint(issue, projectRoot)));
+                IssueBaseline baseline = IssueBaseline.of(fingerprints.build().toArray());
+                Path target = output != null ? output : projectRoot.resolve(".import-analyzer-baseline");
+                baseline.write(target);
+                System.out.printf("Wrote %d issue fingerprints to %s%n", baseline.size(), target);
+                return 0;
+            }
+        }
+    }
+
+    @CommandLine.Command(name = "serve", description = "Keep the index warm and answer --server requests on a Unix domain socket")
+    static class ServeCommand implements Callable<Integer> {
+        @CommandLine.Option(names = "--project", required = true)
+        Path project;
+        @CommandLine.Option(names = "--with-deps", defaultValue = "true", description = "Scan project dependencies (default: true)")
+        boolean deps;
+        @CommandLine.Option(names = "--threads")
+        Integer threads;
+        @CommandLine.Option(names = "--socket", description = "Socket to listen on (default: <project>/.import-analyzer.sock)")
+        Path socket;
+
+        @Override
+        public Integer call() throws IOException {
+            Path projectRoot = resolveProject(project);
+            Path listenOn = socket != null ? socket : AnalyzerServer.defaultSocket(projectRoot);
+            AsyncImportAnalyzerService service = new AsyncImportAnalyzerService(builder(project, deps, threads, null, false, true).buildConfig());
+            try (AnalyzerServer server = new AnalyzerServer(service, projectRoot, deps, listenOn)) {
+                Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+                System.out.printf("Serving %s on %s%n", projectRoot, listenOn);
+                server.serve();
+            }
             return 0;
         }
     }
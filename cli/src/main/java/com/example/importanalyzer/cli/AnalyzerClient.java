@@ -0,0 +1,43 @@
+package com.example.importanalyzer.cli;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+
+/**
+ * Client side of {@link AnalyzerServer}: forwards one command and streams the answer to the given streams.
+ */
+final class AnalyzerClient {
+    private AnalyzerClient() {}
+
+    /**
+     * @return the exit code reported by the server
+     */
+    static int request(Path socket, ServerProtocol.Request request, PrintStream out, PrintStream err) throws IOException {
+        try (SocketChannel channel = SocketChannel.open(UnixDomainSocketAddress.of(socket))) {
+            DataOutputStream frames = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            ServerProtocol.writeRequest(frames, request);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+            while (true) {
+                byte kind = in.readByte();
+                if (kind == ServerProtocol.EXIT) {
+                    out.flush();
+                    return in.readInt();
+                } else if (kind == ServerProtocol.OUTPUT) {
+                    out.print(ServerProtocol.readText(in));
+                } else if (kind == ServerProtocol.ERROR) {
+                    err.println(ServerProtocol.readText(in));
+                } else {
+                    throw new IOException("Unexpected frame " + kind);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.importanalyzer.cli;
+
+import com.example.importanalyzer.core.ImportAnalyzerService;
+import com.example.importanalyzer.core.ImportIssue;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Keeps an {@link ImportAnalyzerService} warm for one project and answers {@code --server} requests on a
+ * Unix domain socket, so repeated CLI runs skip JVM start-up, dependency indexing and the full parse.
+ */
+final class AnalyzerServer implements AutoCloseable {
+    static final String SHUTDOWN = "shutdown";
+
+    private final ImportAnalyzerService service;
+    private final Path projectRoot;
+    private final boolean includeDependencies;
+    private final Path socket;
+    private final ServerSocketChannel channel;
+    private final ExecutorService connections = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "import-analyzer-server");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean running = true;
+
+    AnalyzerServer(ImportAnalyzerService service, Path projectRoot, boolean includeDependencies, Path socket) throws IOException {
+        this.service = service;
+        this.projectRoot = projectRoot;
+        this.includeDependencies = includeDependencies;
+        this.socket = socket;
+        if (isListening(socket)) {
+            throw new IOException("Another analyzer server is already listening on " + socket);
+        }
+        // only a socket left behind by a server that did not shut down cleanly gets here
+        Files.deleteIfExists(socket);
+        this.channel = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        channel.bind(UnixDomainSocketAddress.of(socket));
+        service.startScan();
+    }
+
+    static Path defaultSocket(Path projectRoot) {
+        return projectRoot.resolve(".import-analyzer.sock");
+    }
+
+    private static boolean isListening(Path socket) {
+        if (!Files.exists(socket)) {
+            return false;
+        }
+        try (SocketChannel probe = SocketChannel.open(UnixDomainSocketAddress.of(socket))) {
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Accepts connections until a shutdown request arrives or the server is closed.
+     */
+    void serve() {
+        while (running) {
+            SocketChannel client;
+            try {
+                client = channel.accept();
+            } catch (ClosedChannelException e) {
+                break;
+            } catch (IOException e) {
+                continue;
+            }
+            connections.execute(() -> handle(client));
+        }
+    }
+
+    private void handle(SocketChannel client) {
+        try (client;
+             DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(client)));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(client)))) {
+            try {
+                ServerProtocol.Request request = ServerProtocol.readRequest(in);
+                if (!projectRoot.equals(request.project())) {
+                    ServerProtocol.writeError(out, "Server is analyzing " + projectRoot + ", not " + request.project());
+                    ServerProtocol.writeExit(out, 2);
+                } else if (SHUTDOWN.equals(request.command())) {
+                    ServerProtocol.writeExit(out, 0);
+                    close();
+                } else if (request.includeDependencies() != includeDependencies) {
+                    ServerProtocol.writeError(out, "Server was started with --with-deps=" + includeDependencies
+                            + "; pass the same to '" + request.command() + "' or run it without --server");
+                    ServerProtocol.writeExit(out, 2);
+                } else {
+                    List<ImportIssue> issues = service.issues().join();
+                    ServerProtocol.writeOutput(out, AnalyzerCli.render(request.command(), issues, projectRoot, request.topFiles()));
+                    ServerProtocol.writeExit(out, 0);
+                }
+            } catch (RuntimeException e) {
+                // always end with an exit frame, or the client takes the dropped connection for a missing server
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                ServerProtocol.writeError(out, cause.getMessage() != null ? cause.getMessage() : cause.toString());
+                ServerProtocol.writeExit(out, 1);
+            }
+        } catch (IOException ignored) {
+            // the client went away; nothing left to answer
+        }
+    }
+
+    @Override
+    public void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+        }
+        connections.shutdown();
+        try {
+            Files.deleteIfExists(socket);
+        } catch (IOException ignored) {
+        }
+        service.close();
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.importanalyzer.cli;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+/**
+ * Wire format between {@code serve} and the {@code --server} client modes.
+ * <p>
+ * The client sends one request frame, {@code int length} followed by UTF-8
+ * {@code command '\n' includeDependencies '\n' topFiles '\n' project}; the server refuses a request whose dependency setting
+ * differs from its own rather than answering with a different index.
+ * The server answers with a stream of frames, each a kind byte followed by an {@code int}: for
+ * {@link #OUTPUT} and {@link #ERROR} the int is the length of the UTF-8 text that follows, for
+ * {@link #EXIT} it is the exit code and ends the response.
+ */
+final class ServerProtocol {
+    static final byte OUTPUT = 'O';
+    static final byte ERROR = 'E';
+    static final byte EXIT = 'X';
+    private static final int MAX_REQUEST = 64 * 1024;
+    static final int CHUNK = 16 * 1024;
+
+    private ServerProtocol() {}
+
+    /**
+     * {@code topFiles} is the {@code --top} of {@code summary --breakdown}; other commands ignore it.
+     */
+    record Request(String command, Path project, boolean includeDependencies, int topFiles) {
+        Request(String command, Path project, boolean includeDependencies) {
+            this(command, project, includeDependencies, AnalyzerCli.DEFAULT_TOP_FILES);
+        }
+    }
+
+    static void writeRequest(DataOutputStream out, Request request) throws IOException {
+        byte[] payload = (request.command() + "\n" + request.includeDependencies() + "\n" + request.topFiles() + "\n"
+                + request.project()).getBytes(StandardCharsets.UTF_8);
+        out.writeInt(payload.length);
+        out.write(payload);
+        out.flush();
+    }
+
+    static Request readRequest(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > MAX_REQUEST) {
+            throw new IOException("Malformed request frame of " + length + " bytes");
+        }
+        byte[] payload = in.readNBytes(length);
+        if (payload.length != length) {
+            throw new IOException("Truncated request frame");
+        }
+        String text = new String(payload, StandardCharsets.UTF_8);
+        String[] fields = text.split("\n", 4);
+        if (fields.length < 4) {
+            throw new IOException("Malformed request: " + text);
+        }
+        try {
+            return new Request(fields[0], Path.of(fields[3]), Boolean.parseBoolean(fields[1]), Integer.parseInt(fields[2]));
+        } catch (NumberFormatException e) {
+            throw new IOException("Malformed request: " + text);
+        }
+    }
+
+    /**
+     * Writes {@code text} as a sequence of output frames so large reports stream instead of being
+     * buffered whole on the client. Frames never end between the two halves of a surrogate pair, which
+     * would otherwise each be encoded as {@code ?}.
+     */
+    static void writeOutput(DataOutputStream out, String text) throws IOException {
+        int start = 0;
+        while (start < text.length()) {
+            int end = Math.min(text.length(), start + CHUNK);
+            if (end < text.length() && Character.isHighSurrogate(text.charAt(end - 1))) {
+                end--;
+            }
+            writeText(out, OUTPUT, text.substring(start, end));
+            start = end;
+        }
+    }
+
+    static void writeError(DataOutputStream out, String message) throws IOException {
+        writeText(out, ERROR, message);
+    }
+
+    static void writeExit(DataOutputStream out, int code) throws IOException {
+        out.writeByte(EXIT);
+        out.writeInt(code);
+        out.flush();
+    }
+
+    private static void writeText(DataOutputStream out, byte kind, String text) throws IOException {
+        byte[] payload = text.getBytes(StandardCharsets.UTF_8);
+        out.writeByte(kind);
+        out.writeInt(payload.length);
+        out.write(payload);
+        out.flush();
+    }
+
+    static String readText(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        byte[] payload = in.readNBytes(length);
+        if (payload.length != length) {
+            throw new IOException("Truncated response frame");
+        }
+        return new String(payload, StandardCharsets.UTF_8);
+    }
+}
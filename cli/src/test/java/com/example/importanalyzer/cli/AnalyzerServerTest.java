@@ -0,0 +1,93 @@
+package com.example.importanalyzer.cli;
+
+import com.example.importanalyzer.core.AsyncImportAnalyzerService;
+import com.example.importanalyzer.core.ImportAnalyzerBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnalyzerServerTest {
+    @Test
+    void answersWarmRequestsAndPicksUpEdits() throws Exception {
+        Path root = Files.createTempDirectory("server");
+        Path src = root.resolve("src/main/java/demo");
+        Files.createDirectories(src);
+        Path file = src.resolve("Sample.java");
+        Files.writeString(file, "package demo; import java.util.Set; public class Sample {}");
+
+        AsyncImportAnalyzerService service = new AsyncImportAnalyzerService(new ImportAnalyzerBuilder()
+                .projectRoot(root)
+                .sourceRoot(root.resolve("src/main/java"))
+                .includeDependencies(false)
+                .cacheEnabled(false)
+                .buildConfig());
+        Path socket = root.resolve("analyzer.sock");
+        AnalyzerServer server = new AnalyzerServer(service, root, false, socket);
+        Thread serving = new Thread(server::serve);
+        serving.start();
+        try {
+            assertEquals("Total issues: 1\n", request(socket, "summary", root));
+
+            Files.writeString(file, "package demo; import java.util.Set; public class Sample { Map<String, String> map; }");
+            Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 2000));
+            assertEquals("Total issues: 2\n", request(socket, "summary", root));
+            assertTrue(request(socket, "json", root).contains("Add import for java.util.Map"));
+            assertTrue(request(socket, "summary-breakdown", root).contains("Sample.java: 2"));
+            assertTrue(request(socket, new ServerProtocol.Request("summary-breakdown", root, false, 0)).endsWith("Top files:\n"));
+
+            ByteArrayOutputStream err = new ByteArrayOutputStream();
+            int exit = AnalyzerClient.request(socket, new ServerProtocol.Request("summary", root.resolve("other"), false),
+                    new PrintStream(new ByteArrayOutputStream()), new PrintStream(err));
+            assertEquals(2, exit);
+            assertTrue(err.toString().contains("Server is analyzing"));
+            assertEquals(2, AnalyzerClient.request(socket, new ServerProtocol.Request(AnalyzerServer.SHUTDOWN, root.resolve("other"), false),
+                    new PrintStream(new ByteArrayOutputStream()), new PrintStream(new ByteArrayOutputStream())));
+            ByteArrayOutputStream depsErr = new ByteArrayOutputStream();
+            assertEquals(2, AnalyzerClient.request(socket, new ServerProtocol.Request("json", root, true),
+                    new PrintStream(new ByteArrayOutputStream()), new PrintStream(depsErr)));
+            assertTrue(depsErr.toString().contains("--with-deps=false"), depsErr.toString());
+            assertThrows(IOException.class, () -> new AnalyzerServer(service, root, false, socket));
+            assertEquals("Total issues: 2\n", request(socket, "summary", root));
+        } finally {
+            AnalyzerClient.request(socket, new ServerProtocol.Request(AnalyzerServer.SHUTDOWN, root, false), System.out, System.err);
+            serving.join(10_000);
+        }
+        assertFalse(serving.isAlive());
+        assertFalse(Files.exists(socket));
+    }
+
+    @Test
+    void keepsSurrogatePairsWithinOneOutputFrame() throws Exception {
+        String text = "a".repeat(ServerProtocol.CHUNK - 1) + "\uD83D\uDE00" + "b".repeat(10);
+        ByteArrayOutputStream frames = new ByteArrayOutputStream();
+        ServerProtocol.writeOutput(new DataOutputStream(frames), text);
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(frames.toByteArray()));
+        StringBuilder received = new StringBuilder();
+        while (in.available() > 0) {
+            assertEquals(ServerProtocol.OUTPUT, in.readByte());
+            received.append(ServerProtocol.readText(in));
+        }
+        assertEquals(text, received.toString());
+    }
+
+    private static String request(Path socket, String command, Path project) throws Exception {
+        return request(socket, new ServerProtocol.Request(command, project, false));
+    }
+
+    private static String request(Path socket, ServerProtocol.Request request) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(0, AnalyzerClient.request(socket, request, new PrintStream(out), System.err));
+        return out.toString();
+    }
+}
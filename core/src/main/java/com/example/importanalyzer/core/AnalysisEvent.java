@@ -0,0 +1,41 @@
+package com.example.importanalyzer.core;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Lifecycle and progress notifications pushed to {@link AnalysisListener}s.
+ */
+public sealed interface AnalysisEvent permits AnalysisEvent.PhaseStarted, AnalysisEvent.PhaseCompleted, AnalysisEvent.Progress,
+        AnalysisEvent.Ready, AnalysisEvent.Failed, AnalysisEvent.CacheError {
+
+    record PhaseStarted(AnalysisPhase phase) implements AnalysisEvent {
+    }
+
+    record PhaseCompleted(AnalysisPhase phase, Duration duration) implements AnalysisEvent {
+    }
+
+    /**
+     * Throttled parse progress. {@code eta} is extrapolated from the files completed so far and is
+     * {@link Duration#ZERO} once every file is done.
+     */
+    record Progress(int filesDone, int totalFiles, long bytesRead, Duration eta) implements AnalysisEvent {
+    }
+
+    /**
+     * The class index is complete and per-file queries return final answers.
+     */
+    record Ready(int totalFiles, int indexSize) implements AnalysisEvent {
+    }
+
+    record Failed(Throwable cause) implements AnalysisEvent {
+    }
+
+    /**
+     * A cache file could not be read or written; the analysis continues without it. {@code cause} is a
+     * {@link CorruptCacheException} when the file exists but fails its integrity checks.
+     */
+    record CacheError(Path path, IOException cause) implements AnalysisEvent {
+    }
+}
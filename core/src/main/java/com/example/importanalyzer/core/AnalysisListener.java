@@ -0,0 +1,10 @@
+package com.example.importanalyzer.core;
+
+/**
+ * Receives {@link AnalysisEvent}s. Events may be delivered from worker threads; implementations should
+ * hand off expensive work rather than block the analysis.
+ */
+@FunctionalInterface
+public interface AnalysisListener {
+    void onEvent(AnalysisEvent event);
+}
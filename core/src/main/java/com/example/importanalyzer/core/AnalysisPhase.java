@@ -0,0 +1,14 @@
+package com.example.importanalyzer.core;
+
+/**
+ * Stages of an analysis run reported to {@link MetricsListener}s.
+ */
+public enum AnalysisPhase {
+    DISCOVERY,
+    PARSE,
+    SIBLING_INDEXING,
+    DEPENDENCY_SCAN,
+    JDK_SEEDING,
+    EVALUATION,
+    CACHE_IO
+}
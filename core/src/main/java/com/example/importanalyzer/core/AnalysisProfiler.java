@@ -0,0 +1,126 @@
+package com.example.importanalyzer.core;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * {@link MetricsListener} that turns on profiling and keeps what the {@code debug} command prints: wall time, CPU
+ * time and allocation per phase, the slowest files to parse, the largest artifacts scanned and the simple names
+ * with the most candidates. Rankings are kept in heaps bounded to {@code top} entries.
+ */
+public final class AnalysisProfiler implements MetricsListener {
+    private final int top;
+    private final Map<AnalysisPhase, PhaseProfile> phases = new EnumMap<>(AnalysisPhase.class);
+    private final PriorityQueue<FileTiming> slowestFiles = new PriorityQueue<>(Comparator.comparingLong(FileTiming::durationNanos));
+    private final PriorityQueue<ArtifactScan> largestArtifacts = new PriorityQueue<>(Comparator.comparingLong(ArtifactScan::bytes));
+    private volatile List<AmbiguousName> ambiguousNames = List.of();
+
+    public AnalysisProfiler(int top) {
+        if (top < 1) {
+            throw new IllegalArgumentException("top must be positive");
+        }
+        this.top = top;
+    }
+
+    @Override
+    public boolean profiling() {
+        return true;
+    }
+
+    @Override
+    public synchronized void phaseProfiled(AnalysisPhase phase, PhaseProfile profile) {
+        phases.merge(phase, profile, PhaseProfile::plus);
+    }
+
+    @Override
+    public void fileParsed(Path file, long bytes, long durationNanos) {
+        offer(slowestFiles, new FileTiming(file, bytes, durationNanos));
+    }
+
+    @Override
+    public void artifactScanned(Path artifact, long bytes, int classes, long durationNanos) {
+        offer(largestArtifacts, new ArtifactScan(artifact, bytes, classes, durationNanos));
+    }
+
+    @Override
+    public void indexBuilt(ClassIndex index) {
+        PriorityQueue<AmbiguousName> names = new PriorityQueue<>(Comparator.comparingInt(AmbiguousName::candidates)
+                .thenComparing(AmbiguousName::simpleName, Comparator.reverseOrder()));
+        index.asSimpleNameMap().forEach((simpleName, entries) -> {
+            if (entries.size() < 2) {
+                return;
+            }
+            Set<String> distinct = new HashSet<>();
+            entries.forEach(entry -> distinct.add(entry.fullyQualifiedName()));
+            if (distinct.size() > 1) {
+                names.add(new AmbiguousName(simpleName, distinct.size()));
+                if (names.size() > top) {
+                    names.poll();
+                }
+            }
+        });
+        List<AmbiguousName> ranked = new ArrayList<>(names);
+        ranked.sort(names.comparator().reversed());
+        ambiguousNames = List.copyOf(ranked);
+    }
+
+    public synchronized Map<AnalysisPhase, PhaseProfile> phases() {
+        return Collections.unmodifiableMap(new EnumMap<>(phases));
+    }
+
+    /**
+     * Slowest parses first.
+     */
+    public List<FileTiming> slowestFiles() {
+        return descending(slowestFiles);
+    }
+
+    /**
+     * Largest artifacts first; class directories count as zero bytes.
+     */
+    public List<ArtifactScan> largestArtifacts() {
+        return descending(largestArtifacts);
+    }
+
+    /**
+     * Simple names with the most distinct fully qualified candidates, most first.
+     */
+    public List<AmbiguousName> ambiguousNames() {
+        return ambiguousNames;
+    }
+
+    private <T> void offer(PriorityQueue<T> heap, T value) {
+        synchronized (heap) {
+            heap.add(value);
+            if (heap.size() > top) {
+                heap.poll();
+            }
+        }
+    }
+
+    private static <T> List<T> descending(PriorityQueue<T> heap) {
+        List<T> values;
+        synchronized (heap) {
+            values = new ArrayList<>(heap);
+        }
+        values.sort(heap.comparator().reversed());
+        return values;
+    }
+
+    public record FileTiming(Path file, long bytes, long durationNanos) {
+    }
+
+    public record ArtifactScan(Path artifact, long bytes, int classes, long durationNanos) {
+    }
+
+    public record AmbiguousName(String simpleName, int candidates) {
+    }
+}
@@ -0,0 +1,262 @@
+package com.example.importanalyzer.core;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import jdk.jfr.Event;
+
+/**
+ * Fans phase timings and counters out to the configured {@link MetricsListener}s and publishes the
+ * matching {@link AnalysisEvent}s, throttling progress ticks to the configured interval.
+ */
+final class AnalysisTracker {
+    private final List<MetricsListener> listeners;
+    private final List<AnalysisListener> subscribers = new CopyOnWriteArrayList<>();
+    private final long progressIntervalNanos;
+    private final AtomicInteger filesDone = new AtomicInteger();
+    private final LongAdder bytesRead = new LongAdder();
+    private final AtomicLong lastProgressNanos = new AtomicLong();
+    private volatile int totalFiles;
+    private volatile long progressStartNanos;
+    private final boolean profiling;
+    private final LongAdder workerCpuNanos = new LongAdder();
+    private final LongAdder workerAllocatedBytes = new LongAdder();
+    private volatile Thread phaseThread;
+
+    AnalysisTracker(List<MetricsListener> listeners) {
+        this(listeners, List.of(), Duration.ZERO);
+    }
+
+    AnalysisTracker(List<MetricsListener> listeners, Collection<AnalysisListener> subscribers, Duration progressInterval) {
+        this.listeners = List.copyOf(listeners);
+        this.subscribers.addAll(subscribers);
+        this.progressIntervalNanos = progressInterval.toNanos();
+        this.profiling = this.listeners.stream().anyMatch(MetricsListener::profiling);
+    }
+
+    void subscribe(AnalysisListener listener) {
+        subscribers.add(listener);
+    }
+
+    void unsubscribe(AnalysisListener listener) {
+        subscribers.remove(listener);
+    }
+
+    Phase phase(AnalysisPhase phase) {
+        publish(new AnalysisEvent.PhaseStarted(phase));
+        return new Phase(phase, System.nanoTime());
+    }
+
+    void count(MetricCounter counter, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        for (MetricsListener listener : listeners) {
+            listener.counterIncremented(counter, delta);
+        }
+    }
+
+    void gauge(MetricGauge gauge, long value) {
+        for (MetricsListener listener : listeners) {
+            listener.gaugeUpdated(gauge, value);
+        }
+    }
+
+    /**
+     * Resets progress tracking for a new batch of {@code total} files.
+     */
+    void startProgress(int total) {
+        totalFiles = total;
+        filesDone.set(0);
+        bytesRead.reset();
+        progressStartNanos = System.nanoTime();
+        lastProgressNanos.set(progressStartNanos);
+        gauge(MetricGauge.FILES_TOTAL, total);
+    }
+
+    /**
+     * Records a parsed file and emits a progress tick if the throttle interval elapsed or the batch is done.
+     */
+    void fileDone(long bytes) {
+        count(MetricCounter.FILES_PARSED, 1);
+        count(MetricCounter.BYTES_READ, bytes);
+        bytesRead.add(bytes);
+        int done = filesDone.incrementAndGet();
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        long now = System.nanoTime();
+        long last = lastProgressNanos.get();
+        boolean finished = done >= totalFiles;
+        if (finished || (now - last >= progressIntervalNanos && lastProgressNanos.compareAndSet(last, now))) {
+            publish(progress(done, now));
+        }
+    }
+
+    /**
+     * Starts timing a file parse on the current thread; finish with {@link #fileParsed}.
+     */
+    Work startParse() {
+        return new Work(new FileParseEvent());
+    }
+
+    /**
+     * Starts timing an artifact scan on the current thread; finish with {@link #artifactScanned}.
+     */
+    Work startScan() {
+        return new Work(new ArtifactScanEvent());
+    }
+
+    void fileParsed(Path file, long bytes, Work work) {
+        long elapsed = work.finish();
+        if (work.event instanceof FileParseEvent event && event.shouldCommit()) {
+            event.path = file.toString();
+            event.bytes = bytes;
+            event.commit();
+        }
+        if (profiling) {
+            for (MetricsListener listener : listeners) {
+                listener.fileParsed(file, bytes, elapsed);
+            }
+        }
+    }
+
+    void artifactScanned(Path artifact, int classes, Work work) {
+        long elapsed = work.finish();
+        boolean commit = work.event instanceof ArtifactScanEvent && work.event.shouldCommit();
+        if (!commit && !profiling) {
+            return;
+        }
+        long bytes = artifact.toFile().isFile() ? artifact.toFile().length() : 0;
+        if (commit) {
+            ArtifactScanEvent event = (ArtifactScanEvent) work.event;
+            event.path = artifact.toString();
+            event.bytes = bytes;
+            event.classes = classes;
+            event.commit();
+        }
+        if (profiling) {
+            for (MetricsListener listener : listeners) {
+                listener.artifactScanned(artifact, bytes, classes, elapsed);
+            }
+        }
+    }
+
+    void indexBuilt(ClassIndex index) {
+        if (profiling) {
+            for (MetricsListener listener : listeners) {
+                listener.indexBuilt(index);
+            }
+        }
+    }
+
+    void ready(int indexSize) {
+        publish(new AnalysisEvent.Ready(totalFiles, indexSize));
+    }
+
+    void cacheError(Path path, IOException cause) {
+        count(MetricCounter.INDEX_CACHE_ERRORS, 1);
+        publish(new AnalysisEvent.CacheError(path, cause));
+    }
+
+    void failed(Throwable cause) {
+        publish(new AnalysisEvent.Failed(cause));
+    }
+
+    private AnalysisEvent.Progress progress(int done, long now) {
+        int total = totalFiles;
+        Duration eta = Duration.ZERO;
+        if (done > 0 && done < total) {
+            long perFile = (now - progressStartNanos) / done;
+            eta = Duration.ofNanos(perFile * (total - done));
+        }
+        return new AnalysisEvent.Progress(done, total, bytesRead.sum(), eta);
+    }
+
+    private void publish(AnalysisEvent event) {
+        for (AnalysisListener subscriber : subscribers) {
+            try {
+                subscriber.onEvent(event);
+            } catch (RuntimeException ignored) {
+                // a misbehaving subscriber must not abort the scan
+            }
+        }
+    }
+
+    final class Phase implements AutoCloseable {
+        private final AnalysisPhase phase;
+        private final long startNanos;
+        private final Thread previousThread;
+        private final long startCpu;
+        private final long startAllocated;
+        private final long startWorkerCpu;
+        private final long startWorkerAllocated;
+
+        private Phase(AnalysisPhase phase, long startNanos) {
+            this.phase = phase;
+            this.startNanos = startNanos;
+            this.previousThread = phaseThread;
+            if (profiling) {
+                phaseThread = Thread.currentThread();
+                startCpu = ThreadCosts.cpuNanos();
+                startAllocated = ThreadCosts.allocatedBytes();
+                startWorkerCpu = workerCpuNanos.sum();
+                startWorkerAllocated = workerAllocatedBytes.sum();
+            } else {
+                startCpu = startAllocated = startWorkerCpu = startWorkerAllocated = 0;
+            }
+        }
+
+        @Override
+        public void close() {
+            long elapsed = System.nanoTime() - startNanos;
+            for (MetricsListener listener : listeners) {
+                listener.phaseCompleted(phase, elapsed);
+            }
+            if (profiling) {
+                PhaseProfile profile = new PhaseProfile(elapsed,
+                        ThreadCosts.cpuNanos() - startCpu + workerCpuNanos.sum() - startWorkerCpu,
+                        ThreadCosts.allocatedBytes() - startAllocated + workerAllocatedBytes.sum() - startWorkerAllocated);
+                phaseThread = previousThread;
+                for (MetricsListener listener : listeners) {
+                    listener.phaseProfiled(phase, profile);
+                }
+            }
+            publish(new AnalysisEvent.PhaseCompleted(phase, Duration.ofNanos(elapsed)));
+        }
+    }
+
+    /**
+     * One file parse or artifact scan in progress. Its thread's CPU time and allocation are added to the worker
+     * totals the enclosing phase reports, unless it runs on the phase's own thread, which the phase measures.
+     */
+    final class Work {
+        private final Event event;
+        private final long startNanos;
+        private final long startCpu;
+        private final long startAllocated;
+
+        private Work(Event event) {
+            this.event = event;
+            event.begin();
+            this.startNanos = System.nanoTime();
+            this.startCpu = profiling ? ThreadCosts.cpuNanos() : 0;
+            this.startAllocated = profiling ? ThreadCosts.allocatedBytes() : 0;
+        }
+
+        private long finish() {
+            event.end();
+            if (profiling && Thread.currentThread() != phaseThread) {
+                workerCpuNanos.add(ThreadCosts.cpuNanos() - startCpu);
+                workerAllocatedBytes.add(ThreadCosts.allocatedBytes() - startAllocated);
+            }
+            return System.nanoTime() - startNanos;
+        }
+    }
+}
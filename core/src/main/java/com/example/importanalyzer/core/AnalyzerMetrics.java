@@ -0,0 +1,201 @@
+package com.example.importanalyzer.core;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+/**
+ * In-memory {@link MetricsListener} that accumulates phase durations, counters and gauges. It doubles as
+ * the MXBean registered by {@link AsyncImportAnalyzerService} when JMX is enabled.
+ */
+public class AnalyzerMetrics implements MetricsListener, AnalyzerMetricsMXBean {
+    private final Map<AnalysisPhase, LongAdder> phaseNanos = new EnumMap<>(AnalysisPhase.class);
+    private final Map<MetricCounter, LongAdder> counters = new EnumMap<>(MetricCounter.class);
+    private final Map<MetricGauge, AtomicLong> gauges = new EnumMap<>(MetricGauge.class);
+    private volatile IntSupplier queueDepth = () -> 0;
+
+    public AnalyzerMetrics() {
+        for (AnalysisPhase phase : AnalysisPhase.values()) {
+            phaseNanos.put(phase, new LongAdder());
+        }
+        for (MetricCounter counter : MetricCounter.values()) {
+            counters.put(counter, new LongAdder());
+        }
+        for (MetricGauge gauge : MetricGauge.values()) {
+            gauges.put(gauge, new AtomicLong());
+        }
+    }
+
+    @Override
+    public void phaseCompleted(AnalysisPhase phase, long durationNanos) {
+        phaseNanos.get(phase).add(durationNanos);
+    }
+
+    @Override
+    public void counterIncremented(MetricCounter counter, long delta) {
+        counters.get(counter).add(delta);
+    }
+
+    @Override
+    public void gaugeUpdated(MetricGauge gauge, long value) {
+        gauges.get(gauge).set(value);
+    }
+
+    public long phaseNanos(AnalysisPhase phase) {
+        return phaseNanos.get(phase).sum();
+    }
+
+    public long counter(MetricCounter counter) {
+        return counters.get(counter).sum();
+    }
+
+    public long gauge(MetricGauge gauge) {
+        return gauges.get(gauge).get();
+    }
+
+    void queueDepth(IntSupplier supplier) {
+        this.queueDepth = supplier;
+    }
+
+    public ObjectName register(String name) {
+        try {
+            ObjectName objectName = new ObjectName("com.example.importanalyzer:type=AnalyzerMetrics,name=" + ObjectName.quote(name));
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+            server.registerMBean(this, objectName);
+            return objectName;
+        } catch (JMException e) {
+            throw new IllegalStateException("Unable to register metrics MBean " + name, e);
+        }
+    }
+
+    public static void unregister(ObjectName objectName) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+        } catch (JMException ignored) {
+        }
+    }
+
+    @Override
+    public long getDiscoveryMillis() {
+        return millis(AnalysisPhase.DISCOVERY);
+    }
+
+    @Override
+    public long getParseMillis() {
+        return millis(AnalysisPhase.PARSE);
+    }
+
+    @Override
+    public long getSiblingIndexingMillis() {
+        return millis(AnalysisPhase.SIBLING_INDEXING);
+    }
+
+    @Override
+    public long getDependencyScanMillis() {
+        return millis(AnalysisPhase.DEPENDENCY_SCAN);
+    }
+
+    @Override
+    public long getJdkSeedingMillis() {
+        return millis(AnalysisPhase.JDK_SEEDING);
+    }
+
+    @Override
+    public long getEvaluationMillis() {
+        return millis(AnalysisPhase.EVALUATION);
+    }
+
+    @Override
+    public long getCacheIoMillis() {
+        return millis(AnalysisPhase.CACHE_IO);
+    }
+
+    @Override
+    public long getFilesParsed() {
+        return counter(MetricCounter.FILES_PARSED);
+    }
+
+    @Override
+    public long getFilesTotal() {
+        return gauge(MetricGauge.FILES_TOTAL);
+    }
+
+    @Override
+    public long getBytesRead() {
+        return counter(MetricCounter.BYTES_READ);
+    }
+
+    @Override
+    public long getParseFailures() {
+        return counter(MetricCounter.PARSE_FAILURES);
+    }
+
+    @Override
+    public long getParseTimeouts() {
+        return counter(MetricCounter.PARSE_TIMEOUTS);
+    }
+
+    @Override
+    public long getQuarantineHits() {
+        return counter(MetricCounter.QUARANTINE_HITS);
+    }
+
+    @Override
+    public long getArtifactsScanned() {
+        return counter(MetricCounter.ARTIFACTS_SCANNED);
+    }
+
+    @Override
+    public long getIndexSize() {
+        return gauge(MetricGauge.INDEX_SIZE);
+    }
+
+    @Override
+    public double getFilesPerSecond() {
+        long nanos = phaseNanos(AnalysisPhase.PARSE);
+        return nanos == 0 ? 0.0 : getFilesParsed() / (nanos / 1_000_000_000.0);
+    }
+
+    @Override
+    public double getDeclarationCacheHitRate() {
+        return rate(MetricCounter.DECLARATION_CACHE_HITS, MetricCounter.DECLARATION_CACHE_MISSES);
+    }
+
+    @Override
+    public double getIndexCacheHitRate() {
+        return rate(MetricCounter.INDEX_CACHE_HITS, MetricCounter.INDEX_CACHE_MISSES);
+    }
+
+    @Override
+    public long getIndexCacheErrors() {
+        return counter(MetricCounter.INDEX_CACHE_ERRORS);
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return queueDepth.getAsInt();
+    }
+
+    private long millis(AnalysisPhase phase) {
+        return TimeUnit.NANOSECONDS.toMillis(phaseNanos(phase));
+    }
+
+    private double rate(MetricCounter hits, MetricCounter misses) {
+        long hit = counter(hits);
+        long total = hit + counter(misses);
+        return total == 0 ? 0.0 : (double) hit / total;
+    }
+}
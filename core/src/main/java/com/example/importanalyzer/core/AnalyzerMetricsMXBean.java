@@ -0,0 +1,46 @@
+package com.example.importanalyzer.core;
+
+/**
+ * JMX view of {@link AnalyzerMetrics}. Durations are cumulative milliseconds since the metrics were created.
+ */
+public interface AnalyzerMetricsMXBean {
+    long getDiscoveryMillis();
+
+    long getParseMillis();
+
+    long getSiblingIndexingMillis();
+
+    long getDependencyScanMillis();
+
+    long getJdkSeedingMillis();
+
+    long getEvaluationMillis();
+
+    long getCacheIoMillis();
+
+    long getFilesParsed();
+
+    long getFilesTotal();
+
+    long getBytesRead();
+
+    long getParseFailures();
+
+    long getParseTimeouts();
+
+    long getQuarantineHits();
+
+    long getArtifactsScanned();
+
+    long getIndexSize();
+
+    double getFilesPerSecond();
+
+    double getDeclarationCacheHitRate();
+
+    double getIndexCacheHitRate();
+
+    long getIndexCacheErrors();
+
+    int getQueueDepth();
+}
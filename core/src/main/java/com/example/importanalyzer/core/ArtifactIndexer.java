@@ -0,0 +1,140 @@
+package com.example.importanalyzer.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.module.InvalidModuleDescriptorException;
+import java.lang.module.ModuleDescriptor;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipFile;
+
+/**
+ * Adds the importable classes of a dependency jar or class directory to an index. Each class file's header
+ * decides whether and under which name it is indexed, so private, package-private, synthetic, anonymous and
+ * local classes never reach the index and public nested types appear as {@code Outer.Inner}.
+ * <p>
+ * Multi-release jars are read as the target release sees them, so {@code META-INF/versions} copies never show up
+ * as separate classes. Modular artifacts only contribute the packages their {@code module-info} exports to
+ * everyone; jars without a descriptor are indexed in full.
+ */
+final class ArtifactIndexer {
+    private static final String MODULE_INFO = "module-info.class";
+
+    private ArtifactIndexer() {}
+
+    /**
+     * @return the number of classes added to {@code index}
+     */
+    static int scan(ClassIndex index, Path artifact, int release) {
+        return Files.isDirectory(artifact) ? scanDirectory(index, artifact) : scanJar(index, artifact, release);
+    }
+
+    private static int scanJar(ClassIndex index, Path jar, int release) {
+        try (JarFile jarFile = new JarFile(jar.toFile(), false, ZipFile.OPEN_READ, Runtime.Version.parse(Integer.toString(release)))) {
+            JarEntry descriptor = jarFile.getJarEntry(MODULE_INFO);
+            Set<String> exported = null;
+            if (descriptor != null) {
+                try (InputStream in = jarFile.getInputStream(descriptor)) {
+                    exported = exportedPackages(in);
+                }
+            }
+            Set<String> packages = exported;
+            // versionedStream resolves each class to its newest copy not above the release and hides META-INF/versions
+            List<ClassFileHeader.Importable> classes = jarFile.versionedStream()
+                    .filter(e -> !e.isDirectory() && e.getName().endsWith(".class") && !e.getName().startsWith("META-INF/"))
+                    .filter(e -> packages == null || packages.contains(packageOf(e.getName())))
+                    .map(entry -> {
+                        try (InputStream in = jarFile.getInputStream(entry)) {
+                            return ClassFileHeader.read(in);
+                        } catch (IOException ignored) {
+                            return null;
+                        }
+                    })
+                    .filter(Objects::nonNull)
+                    .toList();
+            return add(index, classes, jar);
+        } catch (IOException ignored) {
+            return 0;
+        }
+    }
+
+    private static int scanDirectory(ClassIndex index, Path directory) {
+        Set<String> exported = null;
+        Path descriptor = directory.resolve(MODULE_INFO);
+        if (Files.isRegularFile(descriptor)) {
+            try (InputStream in = Files.newInputStream(descriptor)) {
+                exported = exportedPackages(in);
+            } catch (IOException ignored) {
+            }
+        }
+        Set<String> packages = exported;
+        try (Stream<Path> files = Files.walk(directory)) {
+            List<ClassFileHeader.Importable> classes = files.filter(path -> path.toString().endsWith(".class"))
+                    .filter(path -> packages == null || packages.contains(packageOf(directory.relativize(path).toString().replace('\\', '/'))))
+                    .map(path -> {
+                        try (InputStream in = Files.newInputStream(path)) {
+                            return ClassFileHeader.read(in);
+                        } catch (IOException ignored) {
+                            return null;
+                        }
+                    })
+                    .filter(Objects::nonNull)
+                    .toList();
+            return add(index, classes, directory);
+        } catch (IOException ignored) {
+            return 0;
+        }
+    }
+
+    /**
+     * Packages exported without a {@code to} clause, or {@code null} (index everything) when the descriptor
+     * cannot be read.
+     */
+    private static Set<String> exportedPackages(InputStream in) throws IOException {
+        try {
+            return ModuleDescriptor.read(in).exports().stream()
+                    .filter(exports -> !exports.isQualified())
+                    .map(ModuleDescriptor.Exports::source)
+                    .collect(Collectors.toUnmodifiableSet());
+        } catch (InvalidModuleDescriptorException e) {
+            return null;
+        }
+    }
+
+    private static String packageOf(String entryName) {
+        int slash = entryName.lastIndexOf('/');
+        return slash < 0 ? "" : entryName.substring(0, slash).replace('/', '.');
+    }
+
+    /**
+     * Adds {@code classes}, dropping nested classes whose top-level class is not public: their own flags only say
+     * they are public members, not that the class enclosing them can be reached.
+     */
+    private static int add(ClassIndex index, List<ClassFileHeader.Importable> classes, Path location) {
+        Set<String> publicTopLevel = new HashSet<>();
+        for (ClassFileHeader.Importable type : classes) {
+            if (type.isTopLevel()) {
+                publicTopLevel.add(type.binaryName());
+            }
+        }
+        int added = 0;
+        for (ClassFileHeader.Importable type : classes) {
+            if (!publicTopLevel.contains(type.topLevel())) {
+                continue;
+            }
+            String fqn = type.canonicalName();
+            index.addEntry(new ClassIndexEntry(fqn, fqn.substring(fqn.lastIndexOf('.') + 1), ClassOrigin.DEPENDENCY_JAR, location,
+                    type.packageName()));
+            added++;
+        }
+        return added;
+    }
+}
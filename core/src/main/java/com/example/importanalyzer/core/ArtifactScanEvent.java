@@ -0,0 +1,27 @@
+package com.example.importanalyzer.core;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one dependency jar or class directory indexed; recorded only while a recording enables it.
+ */
+@Name("com.example.importanalyzer.ArtifactScan")
+@Label("Artifact Scan")
+@Category({"Import Analyzer"})
+@StackTrace(false)
+final class ArtifactScanEvent extends Event {
+    @Label("Path")
+    String path;
+
+    @Label("Size")
+    @DataAmount
+    long bytes;
+
+    @Label("Indexed Classes")
+    int classes;
+}
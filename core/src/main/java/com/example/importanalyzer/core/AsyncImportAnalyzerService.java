@@ -1,21 +1,34 @@
 package com.example.importanalyzer.core;
 
+import javax.management.ObjectName;
+import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.stream.Collectors;
 
 /**
  * Default implementation of {@link ImportAnalyzerService} that performs background scanning and can
@@ -23,79 +36,386 @@ import java.util.stream.Collectors;
  */
 public class AsyncImportAnalyzerService implements ImportAnalyzerService {
     private final ImportAnalyzerConfig config;
-    private final ExecutorService executor;
-    private final Map<Path, SourceFileResult> analyzedFiles = new ConcurrentHashMap<>();
-    private final ClassIndex classIndex = new ClassIndex();
-    private final AtomicInteger scannedCount = new AtomicInteger();
+    private final SharedIndexSegments sharedSegments;
+    private final ThreadPoolExecutor executor;
+    private final AnalyzerMetrics metrics = new AnalyzerMetrics();
+    private final AnalysisTracker tracker;
+    private final ObjectName mbeanName;
+    private volatile Map<Path, SourceFileResult> analyzedFiles = Map.of();
+    private volatile Map<Path, Long> fileTimes = Map.of();
+    private volatile ClassIndex classIndex = new ClassIndex();
+    private volatile PopularityTable popularity = PopularityTable.EMPTY;
+    private volatile ThreadPoolExecutor workerPool;
+    private volatile CompletableFuture<ScanResult> ready = new CompletableFuture<>();
     private volatile CompletableFuture<Void> scanFuture;
+    private volatile CompletableFuture<ScanState> scanState = new CompletableFuture<>();
+    private volatile AtomicBoolean cancelled = new AtomicBoolean();
+    private volatile AtomicInteger scannedCount = new AtomicInteger();
+    private volatile boolean closed;
     private volatile int totalFiles;
 
     public AsyncImportAnalyzerService(ImportAnalyzerConfig config) {
+        this(config, null);
+    }
+
+    /**
+     * A service whose jar and JDK indexes come from {@code sharedSegments} instead of being built privately;
+     * see {@link WorkspaceHost}. {@code null} keeps everything private.
+     */
+    public AsyncImportAnalyzerService(ImportAnalyzerConfig config, SharedIndexSegments sharedSegments) {
         this.config = config;
-        this.executor = Executors.newFixedThreadPool(config.threads(), this::daemonThread);
+        this.sharedSegments = sharedSegments;
+        this.executor = (ThreadPoolExecutor) Executors.newFixedThreadPool(config.threads(), this::daemonThread);
+        List<MetricsListener> listeners = new ArrayList<>(config.metricsListeners());
+        listeners.add(metrics);
+        this.tracker = new AnalysisTracker(listeners, config.analysisListeners(), config.progressInterval());
+        metrics.queueDepth(this::queueDepth);
+        this.mbeanName = config.jmxEnabled()
+                ? metrics.register(config.projectRoot() + "@" + Integer.toHexString(System.identityHashCode(this)))
+                : null;
+    }
+
+    /**
+     * Live metrics for this service; the same instance is exposed over JMX when enabled in the config.
+     */
+    public AnalyzerMetrics metrics() {
+        return metrics;
     }
 
     @Override
-    public void startScan() {
+    public synchronized void startScan() {
+        if (closed) {
+            throw new IllegalStateException("Service is closed");
+        }
         if (scanFuture != null) {
             return;
         }
-        scanFuture = CompletableFuture.runAsync(this::runScan, executor);
+        if (ready.isDone()) {
+            ready = new CompletableFuture<>();
+        }
+        CompletableFuture<ScanResult> scanReady = ready;
+        AtomicBoolean scanCancelled = new AtomicBoolean();
+        cancelled = scanCancelled;
+        AtomicInteger scanned = new AtomicInteger();
+        scannedCount = scanned;
+        CompletableFuture<ScanState> state = new CompletableFuture<>();
+        scanState = state;
+        scanFuture = CompletableFuture.runAsync(() -> runScan(scanCancelled, scanned, state), executor);
+        scanFuture.whenComplete((ignored, error) -> {
+            if (!state.isDone()) {
+                state.completeExceptionally(error != null ? error : new CancellationException("Scan finished"));
+            }
+            if (error != null) {
+                tracker.failed(error);
+                scanReady.completeExceptionally(error);
+            } else {
+                tracker.ready(classIndex.size());
+                scanReady.complete(status());
+            }
+        });
+    }
+
+    @Override
+    public Subscription subscribe(AnalysisListener listener) {
+        tracker.subscribe(listener);
+        return () -> tracker.unsubscribe(listener);
+    }
+
+    @Override
+    public CompletableFuture<ScanResult> awaitReady(Duration timeout) {
+        startScan();
+        return ready.copy().orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized boolean cancelScan() {
+        CompletableFuture<Void> running = scanFuture;
+        if (running == null) {
+            return false;
+        }
+        scanFuture = null;
+        if (running.isDone()) {
+            return false;
+        }
+        cancelled.set(true);
+        // the cancelled scan still fails the future its callers hold; a restart must not inherit it
+        ready = new CompletableFuture<>();
+        ThreadPoolExecutor pool = workerPool;
+        if (pool != null) {
+            workerPool = null;
+            pool.shutdownNow().forEach(task -> ((Future<?>) task).cancel(false));
+        }
+        return true;
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        cancelScan();
+        executor.shutdownNow();
+        synchronized (this) {
+            releaseSegments(classIndex);
+            classIndex = new ClassIndex();
+        }
+        if (mbeanName != null) {
+            AnalyzerMetrics.unregister(mbeanName);
+        }
+    }
+
+    @Override
+    public CompletableFuture<List<ImportIssue>> issues() {
+        startScan();
+        return ready.copy().thenApplyAsync(ignored -> evaluateAll(), executor);
     }
 
     @Override
     public ScanResult status() {
-        boolean running = scanFuture != null && !scanFuture.isDone();
-        return new ScanResult(null, ImportAction.UNKNOWN, -1, List.of(), ImportSource.UNKNOWN, running, scannedCount.get(), totalFiles);
+        CompletableFuture<Void> running = scanFuture;
+        boolean inProgress = running != null && !running.isDone();
+        return new ScanResult(null, ImportAction.UNKNOWN, -1, List.of(), ImportSource.UNKNOWN, inProgress, scannedCount.get(), totalFiles);
     }
 
     @Override
     public CompletableFuture<ScanResult> scan(Path file) {
         startScan();
-        if (scanFuture == null) {
-            return CompletableFuture.completedFuture(new ScanResult(file, ImportAction.UNKNOWN, -1, List.of(), ImportSource.UNKNOWN, true, scannedCount.get(), totalFiles));
+        CompletableFuture<Void> running = scanFuture;
+        if (running == null) {
+            return CompletableFuture.completedFuture(progressOnly(file));
         }
-        if (!scanFuture.isDone()) {
-            return CompletableFuture.completedFuture(new ScanResult(file, ImportAction.UNKNOWN, -1, List.of(), ImportSource.UNKNOWN, true, scannedCount.get(), totalFiles));
+        if (running.isDone()) {
+            return running.thenApplyAsync(ignored -> buildResult(file), executor);
         }
-        return scanFuture.thenApplyAsync(ignored -> buildResult(file), executor);
+        // answered on the parse worker that finishes the last needed file; the service executor may be busy
+        // running the scan itself
+        return scanState.thenCompose(state -> state.prioritize(file)
+                        .thenApply(result -> result == null ? progressOnly(file) : answer(file, result, state.index, false, state.dependenciesIndexed)))
+                .exceptionally(error -> progressOnly(file));
     }
 
-    private void runScan() {
-        Set<Path> files = collectJavaFiles(config.sourceRoots());
-        files.addAll(collectJavaFiles(config.testSourceRoots()));
-        totalFiles = files.size();
+    private ScanResult progressOnly(Path file) {
+        return new ScanResult(file, ImportAction.UNKNOWN, -1, List.of(), ImportSource.UNKNOWN, true, scannedCount.get(), totalFiles);
+    }
 
-        ExecutorService workerPool = Executors.newFixedThreadPool(Math.max(1, config.threads()), this::daemonThread);
+    /**
+     * Builds a fresh index and result map off to the side and publishes them only once the scan
+     * completes, so a cancelled or failed scan never leaves a half-populated {@link ClassIndex} behind.
+     * Files are parsed from a priority queue so that {@link #scan(Path)} can pull a file and the packages it
+     * needs ahead of the rest.
+     */
+    private void runScan(AtomicBoolean scanCancelled, AtomicInteger scanned, CompletableFuture<ScanState> stateReady) {
+        Set<Path> files;
+        try (AnalysisTracker.Phase ignored = tracker.phase(AnalysisPhase.DISCOVERY)) {
+            files = collectJavaFiles(config.sourceRoots());
+            files.addAll(collectJavaFiles(config.testSourceRoots()));
+        }
+        synchronized (this) {
+            ensureNotCancelled(scanCancelled);
+            totalFiles = files.size();
+        }
+        tracker.startProgress(files.size());
+
+        ClassIndex staging = sharedSegments == null ? new ClassIndex() : new LayeredClassIndex();
         try {
-            List<Future<SourceFileResult>> tasks = workerPool.invokeAll(
-                    files.stream().map(path -> (java.util.concurrent.Callable<SourceFileResult>) () -> SourceFileAnalyzer.analyze(path)).toList());
-            for (Future<SourceFileResult> future : tasks) {
-                try {
-                    SourceFileResult result = future.get();
-                    registerDeclarations(classIndex, result, config.sourceRoots(), config.testSourceRoots());
-                    analyzedFiles.put(result.file(), result);
-                    scannedCount.incrementAndGet();
-                } catch (Exception e) {
-                    throw new RuntimeException("Failed to analyze source", e);
-                }
+            indexInto(staging, files, scanCancelled, scanned, stateReady);
+        } catch (RuntimeException | Error e) {
+            releaseSegments(staging);
+            throw e;
+        }
+    }
+
+    private void indexInto(ClassIndex staging, Set<Path> files, AtomicBoolean scanCancelled, AtomicInteger scanned,
+                           CompletableFuture<ScanState> stateReady) {
+        // the JDK seed is tiny; adding it first lets mid-scan answers resolve JDK imports
+        try (AnalysisTracker.Phase ignored = tracker.phase(AnalysisPhase.JDK_SEEDING)) {
+            if (staging instanceof LayeredClassIndex layered) {
+                layered.addSegment(sharedSegments.acquireJdk(this::seedJdk));
+            } else {
+                seedJdk(staging);
+            }
+        }
+        Map<Path, SourceFileResult> results = new ConcurrentHashMap<>();
+        Map<Path, Long> times = new ConcurrentHashMap<>();
+        ParseQuarantine quarantine = SourceParser.quarantineFor(config, tracker);
+        SourceParser parser = new SourceParser(tracker, quarantine, config.errorPolicy(), config.parseTimeout());
+        int threads = Math.max(1, config.threads());
+        PriorityBlockingQueue<Runnable> queue = new PriorityBlockingQueue<>();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, queue, this::daemonThread);
+        attachPool(pool, scanCancelled);
+        ScanState state = new ScanState(staging, queue, filesByPackage(files));
+        try (AnalysisTracker.Phase ignored = tracker.phase(AnalysisPhase.PARSE)) {
+            List<ParseTask> tasks = new ArrayList<>(files.size());
+            for (Path path : files) {
+                times.put(path, lastModified(path));
+                ParseTask task = new ParseTask(tasks.size(), () -> {
+                    SourceFileResult result = parser.parse(path);
+                    if (result != null) {
+                        registerDeclarations(staging, result, config.sourceRoots(), config.testSourceRoots());
+                        results.put(result.file(), result);
+                    }
+                    scanned.incrementAndGet();
+                    return result;
+                });
+                tasks.add(task);
+                state.tasks.put(path, task);
+            }
+            stateReady.complete(state);
+            try {
+                tasks.forEach(pool::execute);
+            } catch (RejectedExecutionException e) {
+                // cancelScan shut the pool down mid-submission
+                ensureNotCancelled(scanCancelled);
+                throw e;
+            }
+            for (ParseTask task : tasks) {
+                ensureNotCancelled(scanCancelled);
+                task.get();
             }
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
+            throw new CancellationException("Scan interrupted");
+        } catch (ExecutionException e) {
+            ensureNotCancelled(scanCancelled);
+            throw new RuntimeException("Failed to analyze source", e.getCause());
         } finally {
-            workerPool.shutdown();
+            detachPool(pool);
         }
 
         if (config.includeDependencies()) {
-            new DependencyResolver().findDependencyArtifacts(config.projectRoot()).forEach(path -> {
-                if (Files.isDirectory(path)) {
-                    scanClassDirectory(classIndex, path);
-                } else {
-                    scanJar(classIndex, path);
+            try (AnalysisTracker.Phase ignored = tracker.phase(AnalysisPhase.DEPENDENCY_SCAN)) {
+                Set<Path> artifacts = new DependencyResolver().findDependencyArtifacts(config.projectRoot());
+                tracker.count(MetricCounter.ARTIFACTS_SCANNED, artifacts.size());
+                for (Path path : artifacts) {
+                    ensureNotCancelled(scanCancelled);
+                    if (staging instanceof LayeredClassIndex layered && Files.isRegularFile(path)) {
+                        layered.addSegment(sharedSegments.acquire(path, config.javaRelease()));
+                    } else {
+                        AnalysisTracker.Work work = tracker.startScan();
+                        tracker.artifactScanned(path, ArtifactIndexer.scan(staging, path, config.javaRelease()), work);
+                    }
                 }
-            });
+            }
+        }
+        state.dependenciesIndexed = true;
+        synchronized (this) {
+            ensureNotCancelled(scanCancelled);
+            releaseSegments(classIndex);
+            classIndex = staging;
+            analyzedFiles = results;
+            fileTimes = times;
+            popularity = PopularityTable.build(results.values(), staging);
+        }
+        SourceParser.save(quarantine, tracker);
+        tracker.gauge(MetricGauge.INDEX_SIZE, staging.size());
+        tracker.indexBuilt(staging);
+    }
+
+    private List<ImportIssue> evaluateAll() {
+        refresh();
+        ImportAnalyzer analyzer = new ImportAnalyzer(config).withPopularity(popularity);
+        ClassIndex index = classIndex;
+        List<SourceFileResult> results = new ArrayList<>(analyzedFiles.values());
+        results.sort(Comparator.comparing(SourceFileResult::file));
+        List<ImportIssue> issues = new ArrayList<>();
+        try (AnalysisTracker.Phase ignored = tracker.phase(AnalysisPhase.EVALUATION)) {
+            for (SourceFileResult result : results) {
+                issues.addAll(analyzer.evaluateForFile(result, index));
+            }
+        }
+        return issues;
+    }
+
+    /**
+     * Re-parses sources whose modification time changed since they were last parsed and drops deleted
+     * ones, patching the published index in place instead of rescanning the project.
+     */
+    private synchronized void refresh() {
+        Map<Path, SourceFileResult> results = analyzedFiles;
+        Map<Path, Long> times = fileTimes;
+        ClassIndex index = classIndex;
+        Set<Path> files = collectJavaFiles(config.sourceRoots());
+        files.addAll(collectJavaFiles(config.testSourceRoots()));
+
+        for (Path gone : new ArrayList<>(times.keySet())) {
+            if (!files.contains(gone)) {
+                index.removeByLocation(gone);
+                results.remove(gone);
+                times.remove(gone);
+            }
+        }
+        SourceParser parser = null;
+        boolean changed = false;
+        for (Path file : files) {
+            long modified = lastModified(file);
+            Long known = times.get(file);
+            if (known != null && known == modified) {
+                continue;
+            }
+            if (parser == null) {
+                parser = new SourceParser(tracker, SourceParser.quarantineFor(config, tracker), config.errorPolicy(), config.parseTimeout());
+            }
+            SourceFileResult result;
+            try {
+                result = parser.parse(file);
+            } catch (IOException e) {
+                result = null;
+            }
+            changed = true;
+            index.removeByLocation(file);
+            times.put(file, modified);
+            if (result != null) {
+                registerDeclarations(index, result, config.sourceRoots(), config.testSourceRoots());
+                results.put(file, result);
+            } else {
+                results.remove(file);
+            }
+        }
+        totalFiles = times.size();
+        if (changed) {
+            popularity = PopularityTable.build(results.values(), index);
+        }
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Publishes a scan's parse pool for {@link #cancelScan()}; a scan cancelled before it got here must not
+     * replace the pool of the scan that restarted after it.
+     */
+    private synchronized void attachPool(ThreadPoolExecutor pool, AtomicBoolean scanCancelled) {
+        if (scanCancelled.get() || closed) {
+            pool.shutdownNow();
         }
-        seedJdk(classIndex);
+        ensureNotCancelled(scanCancelled);
+        workerPool = pool;
+    }
+
+    private synchronized void detachPool(ThreadPoolExecutor pool) {
+        pool.shutdownNow();
+        if (workerPool == pool) {
+            workerPool = null;
+        }
+    }
+
+    private void ensureNotCancelled(AtomicBoolean scanCancelled) {
+        if (scanCancelled.get() || closed) {
+            throw new CancellationException("Scan cancelled");
+        }
+    }
+
+    private int queueDepth() {
+        ThreadPoolExecutor pool = workerPool;
+        return executor.getQueue().size() + (pool == null ? 0 : pool.getQueue().size());
     }
 
     private ScanResult buildResult(Path file) {
@@ -103,19 +423,37 @@ public class AsyncImportAnalyzerService implements ImportAnalyzerService {
         if (result == null) {
             return new ScanResult(file, ImportAction.UNKNOWN, -1, List.of(), ImportSource.UNKNOWN, false, scannedCount.get(), totalFiles);
         }
-        List<ImportIssue> issues = new ImportAnalyzer(config).evaluateForFile(result, classIndex);
+        return answer(file, result, classIndex, true, true);
+    }
+
+    /**
+     * Turns the first issue of {@code result} into an action. Before dependencies are indexed a missing FQN may
+     * simply not be indexed yet, so unresolved and wrong-package imports are left out of partial answers.
+     */
+    private ScanResult answer(Path file, SourceFileResult result, ClassIndex index, boolean complete, boolean dependenciesIndexed) {
+        ImportAnalyzer analyzer = new ImportAnalyzer(config).withPopularity(popularity);
+        List<ImportIssue> issues;
+        try (AnalysisTracker.Phase ignored = tracker.phase(AnalysisPhase.EVALUATION)) {
+            issues = analyzer.evaluateForFile(result, index);
+        }
+        if (!dependenciesIndexed && config.includeDependencies()) {
+            issues = issues.stream()
+                    .filter(issue -> !(issue instanceof UnresolvedImportIssue) && !(issue instanceof WrongPackageIssue))
+                    .toList();
+        }
         if (issues.isEmpty()) {
-            return new ScanResult(file, ImportAction.UNKNOWN, -1, List.of(), ImportSource.UNKNOWN, false, scannedCount.get(), totalFiles);
+            return new ScanResult(file, ImportAction.UNKNOWN, -1, List.of(), ImportSource.UNKNOWN, !complete, scannedCount.get(), totalFiles, complete);
         }
         ImportIssue primary = issues.get(0);
-        ImportAction action = toAction(primary);
-        return new ScanResult(file, action, primary.line(), candidatesFor(primary), sourceFor(primary, action), false, scannedCount.get(), totalFiles);
+        ImportAction action = toAction(primary, index);
+        return new ScanResult(file, action, primary.line(), candidatesFor(primary, analyzer, result.packageName(), index),
+                sourceFor(primary, action, index), !complete, scannedCount.get(), totalFiles, complete);
     }
 
-    private ImportAction toAction(ImportIssue issue) {
+    private ImportAction toAction(ImportIssue issue, ClassIndex index) {
         if (issue instanceof MissingImportIssue) {
             MissingImportIssue missing = (MissingImportIssue) issue;
-            List<ClassIndexEntry> candidates = classIndex.bySimpleName(missing.symbol());
+            List<ClassIndexEntry> candidates = index.bySimpleName(missing.symbol());
             if (candidates.size() == 1) {
                 return ImportAction.ADD;
             } else if (candidates.size() > 1) {
@@ -131,36 +469,33 @@ public class AsyncImportAnalyzerService implements ImportAnalyzerService {
         return ImportAction.UNKNOWN;
     }
 
-    private List<String> candidatesFor(ImportIssue issue) {
+    private List<String> candidatesFor(ImportIssue issue, ImportAnalyzer analyzer, String packageName, ClassIndex index) {
         if (issue instanceof MissingImportIssue) {
             MissingImportIssue missing = (MissingImportIssue) issue;
-            return classIndex.bySimpleName(missing.symbol()).stream()
-                    .map(ClassIndexEntry::fullyQualifiedName)
-                    .collect(Collectors.toList());
+            return analyzer.rankedNames(index, missing.symbol(), packageName);
         }
         if (issue instanceof AmbiguousImportIssue) {
             AmbiguousImportIssue ambiguous = (AmbiguousImportIssue) issue;
-            return classIndex.bySimpleName(ambiguous.symbol()).stream()
-                    .map(ClassIndexEntry::fullyQualifiedName)
-                    .collect(Collectors.toList());
+            return analyzer.rankedNames(index, ambiguous.symbol(), packageName);
         }
         if (issue instanceof WrongPackageIssue) {
             WrongPackageIssue wrong = (WrongPackageIssue) issue;
             String simple = simpleName(wrong.symbol());
-            return classIndex.bySimpleName(simple).stream()
-                    .map(ClassIndexEntry::fullyQualifiedName)
-                    .collect(Collectors.toList());
+            return analyzer.rankedNames(index, simple, packageName);
+        }
+        if (issue instanceof UnresolvedImportIssue) {
+            return issue.candidates();
         }
         return List.of();
     }
 
-    private ImportSource sourceFor(ImportIssue issue, ImportAction action) {
+    private ImportSource sourceFor(ImportIssue issue, ImportAction action, ClassIndex index) {
         if (action != ImportAction.ADD) {
             return ImportSource.UNKNOWN;
         }
         if (issue instanceof MissingImportIssue) {
             MissingImportIssue missing = (MissingImportIssue) issue;
-            List<ClassIndexEntry> candidates = classIndex.bySimpleName(missing.symbol());
+            List<ClassIndexEntry> candidates = index.bySimpleName(missing.symbol());
             if (candidates.size() == 1) {
                 return mapOrigin(candidates.get(0).origin());
             }
@@ -168,7 +503,7 @@ public class AsyncImportAnalyzerService implements ImportAnalyzerService {
         if (issue instanceof WrongPackageIssue) {
             WrongPackageIssue wrong = (WrongPackageIssue) issue;
             String simple = simpleName(wrong.symbol());
-            List<ClassIndexEntry> candidates = classIndex.bySimpleName(simple);
+            List<ClassIndexEntry> candidates = index.bySimpleName(simple);
             if (candidates.size() == 1) {
                 return mapOrigin(candidates.get(0).origin());
             }
@@ -218,44 +553,24 @@ public class AsyncImportAnalyzerService implements ImportAnalyzerService {
         return ClassOrigin.PROJECT_MAIN;
     }
 
-    private void scanJar(ClassIndex index, Path jar) {
-        try (java.util.jar.JarFile jarFile = new java.util.jar.JarFile(jar.toFile())) {
-            jarFile.stream()
-                    .filter(e -> e.getName().endsWith(".class") && !e.isDirectory())
-                    .forEach(entry -> addJarEntry(index, entry, jar));
-        } catch (IOException ignored) {
-        }
-    }
-
-    private void scanClassDirectory(ClassIndex index, Path directory) {
-        try {
-            Files.walk(directory)
-                    .filter(path -> path.toString().endsWith(".class"))
-                    .forEach(path -> {
-                        String relative = directory.relativize(path).toString();
-                        if (relative.contains("$")) {
-                            relative = relative.substring(0, relative.indexOf('$')) + ".class";
-                        }
-                        if (relative.endsWith(".class")) {
-                            String fqn = relative.substring(0, relative.length() - 6)
-                                    .replace('/', '.')
-                                    .replace('\\', '.');
-                            if (!fqn.contains("module-info")) {
-                                index.addEntry(new ClassIndexEntry(fqn, simpleName(fqn), ClassOrigin.DEPENDENCY_JAR, directory));
-                            }
-                        }
-                    });
-        } catch (IOException ignored) {
-        }
-    }
-
-    private void addJarEntry(ClassIndex index, java.util.jar.JarEntry entry, Path jar) {
-        String name = entry.getName().replace('/', '.').replace(".class", "");
-        if (name.contains("$")) {
-            name = name.substring(0, name.indexOf('$'));
+    /**
+     * Groups the discovered files by the package their directory implies under its source root; a requested
+     * file's dependencies are found by package before anything in them has been parsed.
+     */
+    private Map<String, List<Path>> filesByPackage(Set<Path> files) {
+        List<Path> roots = new ArrayList<>(config.sourceRoots());
+        roots.addAll(config.testSourceRoots());
+        Map<String, List<Path>> byPackage = new HashMap<>();
+        for (Path file : files) {
+            for (Path root : roots) {
+                if (file.startsWith(root)) {
+                    String pkg = root.relativize(file.getParent()).toString().replace(File.separatorChar, '.');
+                    byPackage.computeIfAbsent(pkg, k -> new ArrayList<>()).add(file);
+                    break;
+                }
+            }
         }
-        String simple = simpleName(name);
-        index.addEntry(new ClassIndexEntry(name, simple, ClassOrigin.DEPENDENCY_JAR, jar));
+        return byPackage;
     }
 
     private Thread daemonThread(Runnable runnable) {
@@ -270,6 +585,12 @@ public class AsyncImportAnalyzerService implements ImportAnalyzerService {
         return idx >= 0 ? fqn.substring(idx + 1) : fqn;
     }
 
+    private void releaseSegments(ClassIndex index) {
+        if (index instanceof LayeredClassIndex layered) {
+            layered.segments().forEach(sharedSegments::release);
+        }
+    }
+
     private void seedJdk(ClassIndex index) {
         List<String> jdk = List.of(
                 "java.lang.String",
@@ -283,4 +604,113 @@ public class AsyncImportAnalyzerService implements ImportAnalyzerService {
         );
         jdk.forEach(fqn -> index.addEntry(new ClassIndexEntry(fqn, simpleName(fqn), ClassOrigin.JDK, Path.of("<jdk>"))));
     }
+
+    /**
+     * The parse queue and staging index of the running scan, as far as {@link #scan(Path)} needs them.
+     */
+    private static final class ScanState {
+        private final ClassIndex index;
+        private final PriorityBlockingQueue<Runnable> queue;
+        private final Map<String, List<Path>> filesByPackage;
+        private final Map<Path, ParseTask> tasks = new ConcurrentHashMap<>();
+        private volatile boolean dependenciesIndexed;
+
+        private ScanState(ClassIndex index, PriorityBlockingQueue<Runnable> queue, Map<String, List<Path>> filesByPackage) {
+            this.index = index;
+            this.queue = queue;
+            this.filesByPackage = filesByPackage;
+        }
+
+        /**
+         * Moves {@code file} to the front of the queue, then its own package and the packages it imports; the
+         * future completes with the file's result once all of them are indexed, or with {@code null} when the
+         * file is not part of this scan.
+         */
+        CompletableFuture<SourceFileResult> prioritize(Path file) {
+            ParseTask task = tasks.get(file);
+            if (task == null) {
+                return CompletableFuture.completedFuture(null);
+            }
+            boost(task);
+            return task.completion().thenCompose(result -> {
+                if (result == null) {
+                    return CompletableFuture.completedFuture(null);
+                }
+                Set<String> packages = new HashSet<>();
+                packages.add(result.packageName());
+                result.imports().keySet().forEach(name -> addOwningPackage(name, packages));
+                result.staticImports().keySet().forEach(name -> addOwningPackage(name, packages));
+                result.wildcardImports().keySet().forEach(name -> addOwningPackage(name + ".*", packages));
+                result.staticWildcardImports().keySet().forEach(name -> addOwningPackage(name, packages));
+                List<CompletableFuture<SourceFileResult>> needed = new ArrayList<>();
+                for (String pkg : packages) {
+                    for (Path dependency : filesByPackage.getOrDefault(pkg, List.of())) {
+                        ParseTask dependencyTask = tasks.get(dependency);
+                        boost(dependencyTask);
+                        needed.add(dependencyTask.completion());
+                    }
+                }
+                return CompletableFuture.allOf(needed.toArray(CompletableFuture[]::new)).thenApply(ignored -> result);
+            });
+        }
+
+        /**
+         * Adds the longest proper prefix of {@code name} that is a project package; nested and static member
+         * imports have more than one trailing segment that is not a package.
+         */
+        private void addOwningPackage(String name, Set<String> packages) {
+            for (int dot = name.lastIndexOf('.'); dot > 0; dot = name.lastIndexOf('.', dot - 1)) {
+                String candidate = name.substring(0, dot);
+                if (filesByPackage.containsKey(candidate)) {
+                    packages.add(candidate);
+                    return;
+                }
+            }
+        }
+
+        private void boost(ParseTask task) {
+            if (task.priority == 0) {
+                task.priority = 1;
+                // re-insert so the heap sees the new priority; a task no longer queued is running or done
+                if (queue.remove(task)) {
+                    queue.offer(task);
+                }
+            }
+        }
+    }
+
+    /**
+     * A queued parse: boosted tasks first, then discovery order. Completion is mirrored into a
+     * {@link CompletableFuture} so requests can wait on it without holding a thread.
+     */
+    private static final class ParseTask extends FutureTask<SourceFileResult> implements Comparable<ParseTask> {
+        private final int sequence;
+        private final CompletableFuture<SourceFileResult> completion = new CompletableFuture<>();
+        private volatile int priority;
+
+        private ParseTask(int sequence, Callable<SourceFileResult> parse) {
+            super(parse);
+            this.sequence = sequence;
+        }
+
+        CompletableFuture<SourceFileResult> completion() {
+            return completion;
+        }
+
+        @Override
+        protected void done() {
+            try {
+                completion.complete(get());
+            } catch (ExecutionException e) {
+                completion.completeExceptionally(e.getCause());
+            } catch (CancellationException | InterruptedException e) {
+                completion.completeExceptionally(e);
+            }
+        }
+
+        @Override
+        public int compareTo(ParseTask other) {
+            return priority != other.priority ? Integer.compare(other.priority, priority) : Integer.compare(sequence, other.sequence);
+        }
+    }
 }
@@ -0,0 +1,123 @@
+package com.example.importanalyzer.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+/**
+ * A single cache file shared by concurrent analyzer processes. Writers serialize on a {@link FileLock} over a
+ * {@code .lock} sibling, write a complete temp file next to the target and rename it into place, so readers
+ * never take a lock and always see either the previous or the new file. Each file starts with a magic number,
+ * the caller's format version, the payload length and a CRC32C of the payload; a mismatch is reported as a
+ * {@link CorruptCacheException} instead of being mistaken for an empty cache.
+ */
+public final class CacheStore {
+    private static final int MAGIC = 0x49414353;
+    private static final int HEADER_BYTES = 16;
+    // FileLock is held per JVM, not per thread; threads of one process queue on this lock first
+    private static final Map<Path, ReentrantLock> LOCAL_LOCKS = new ConcurrentHashMap<>();
+
+    private final Path path;
+    private final int version;
+
+    public CacheStore(Path path, int version) {
+        this.path = path.toAbsolutePath().normalize();
+        this.version = version;
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    /**
+     * Returns the payload, or {@code null} when there is no file or it was written with another format version.
+     */
+    public byte[] read() throws IOException {
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(path);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        if (bytes.length < HEADER_BYTES) {
+            throw new CorruptCacheException(path, "truncated header");
+        }
+        ByteBuffer header = ByteBuffer.wrap(bytes, 0, HEADER_BYTES);
+        if (header.getInt() != MAGIC) {
+            throw new CorruptCacheException(path, "not a cache file");
+        }
+        if (header.getInt() != version) {
+            return null;
+        }
+        int length = header.getInt();
+        int checksum = header.getInt();
+        if (length != bytes.length - HEADER_BYTES) {
+            throw new CorruptCacheException(path, "expected " + length + " payload bytes, found " + (bytes.length - HEADER_BYTES));
+        }
+        if (checksum(bytes, HEADER_BYTES, length) != checksum) {
+            throw new CorruptCacheException(path, "checksum mismatch");
+        }
+        byte[] payload = new byte[length];
+        System.arraycopy(bytes, HEADER_BYTES, payload, 0, length);
+        return payload;
+    }
+
+    public void write(byte[] payload) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+                .putInt(MAGIC).putInt(version).putInt(payload.length).putInt(checksum(payload, 0, payload.length));
+        publish(path, header.array(), payload);
+    }
+
+    /**
+     * Atomically replaces {@code target} with the concatenation of {@code chunks} under the writer lock.
+     */
+    private static void publish(Path target, byte[]... chunks) throws IOException {
+        Path file = target.toAbsolutePath().normalize();
+        Path parent = file.getParent();
+        Files.createDirectories(parent);
+        ReentrantLock local = LOCAL_LOCKS.computeIfAbsent(file, ignored -> new ReentrantLock());
+        local.lock();
+        try (FileChannel lockChannel = FileChannel.open(parent.resolve(file.getFileName() + ".lock"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileLock ignored = lockChannel.lock()) {
+            Path temp = Files.createTempFile(parent, "." + file.getFileName(), ".tmp");
+            try {
+                try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                    for (byte[] chunk : chunks) {
+                        ByteBuffer buffer = ByteBuffer.wrap(chunk);
+                        while (buffer.hasRemaining()) {
+                            out.write(buffer);
+                        }
+                    }
+                    out.force(false);
+                }
+                try {
+                    Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } finally {
+            local.unlock();
+        }
+    }
+
+    private static int checksum(byte[] bytes, int offset, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(bytes, offset, length);
+        return (int) crc.getValue();
+    }
+}
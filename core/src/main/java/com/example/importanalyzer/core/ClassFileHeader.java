@@ -0,0 +1,145 @@
+package com.example.importanalyzer.core;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Minimal class-file reader for indexing: walks the constant pool, reads the access flags and this-class, skips
+ * fields and methods, and reads the {@code InnerClasses} attribute. That is enough to tell whether a class can
+ * appear in an import and under which canonical name, without loading or fully parsing it.
+ */
+final class ClassFileHeader {
+    private static final int MAGIC = 0xCAFEBABE;
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_SYNTHETIC = 0x1000;
+    private static final int ACC_MODULE = 0x8000;
+
+    private ClassFileHeader() {}
+
+    /**
+     * Reads the class in {@code in}, or returns {@code null} when it cannot be imported: not public, synthetic,
+     * anonymous, local, nested in a non-public member type, or a module or package descriptor. A nested class also
+     * needs a public top-level class, which only that class's own file can tell; see {@link Importable#topLevel()}.
+     */
+    static Importable read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a class file");
+        }
+        data.readUnsignedShort();
+        data.readUnsignedShort();
+
+        int poolSize = data.readUnsignedShort();
+        String[] utf8 = new String[poolSize];
+        int[] classNames = new int[poolSize];
+        for (int i = 1; i < poolSize; i++) {
+            int tag = data.readUnsignedByte();
+            switch (tag) {
+                case 1 -> utf8[i] = data.readUTF();
+                case 7 -> classNames[i] = data.readUnsignedShort();
+                case 8, 16, 19, 20 -> data.readUnsignedShort();
+                case 15 -> data.skipNBytes(3);
+                case 3, 4, 9, 10, 11, 12, 17, 18 -> data.readInt();
+                case 5, 6 -> {
+                    data.readLong();
+                    i++;
+                }
+                default -> throw new IOException("Unknown constant pool tag " + tag);
+            }
+        }
+
+        int access = data.readUnsignedShort();
+        String binaryName = utf8[classNames[data.readUnsignedShort()]];
+        if ((access & (ACC_MODULE | ACC_SYNTHETIC)) != 0 || binaryName.endsWith("package-info")) {
+            return null;
+        }
+        data.readUnsignedShort();
+        data.skipNBytes(2 * data.readUnsignedShort());
+        skipMembers(data);
+        skipMembers(data);
+
+        // every nested class the pool mentions; by the spec this includes each enclosing class of this one
+        Map<String, Nested> nested = new HashMap<>();
+        int attributes = data.readUnsignedShort();
+        for (int a = 0; a < attributes; a++) {
+            String name = utf8[data.readUnsignedShort()];
+            int length = data.readInt();
+            if (!"InnerClasses".equals(name)) {
+                data.skipNBytes(length);
+                continue;
+            }
+            int count = data.readUnsignedShort();
+            for (int c = 0; c < count; c++) {
+                int inner = data.readUnsignedShort();
+                int outer = data.readUnsignedShort();
+                int simple = data.readUnsignedShort();
+                int flags = data.readUnsignedShort();
+                nested.put(utf8[classNames[inner]], new Nested(outer == 0 ? null : utf8[classNames[outer]], simple == 0 ? null : utf8[simple], flags));
+            }
+        }
+
+        if (!nested.containsKey(binaryName)) {
+            return (access & ACC_PUBLIC) != 0 ? new Importable(binaryName, binaryName.replace('/', '.'), binaryName) : null;
+        }
+        String canonicalName = canonicalName(binaryName, nested, nested.size());
+        if (canonicalName == null) {
+            return null;
+        }
+        // canonicalName succeeded, so the chain of enclosing classes ends at one that is not nested
+        String topLevel = binaryName;
+        while (nested.containsKey(topLevel)) {
+            topLevel = nested.get(topLevel).outer();
+        }
+        return new Importable(binaryName, canonicalName, topLevel);
+    }
+
+    private static String canonicalName(String binaryName, Map<String, Nested> nested, int depth) {
+        Nested info = nested.get(binaryName);
+        if (info == null) {
+            return binaryName.replace('/', '.');
+        }
+        if (depth == 0 || info.outer() == null || info.simpleName() == null
+                || (info.flags() & ACC_PUBLIC) == 0 || (info.flags() & ACC_SYNTHETIC) != 0) {
+            return null;
+        }
+        String outerName = canonicalName(info.outer(), nested, depth - 1);
+        return outerName == null ? null : outerName + "." + info.simpleName();
+    }
+
+    private static void skipMembers(DataInputStream data) throws IOException {
+        int count = data.readUnsignedShort();
+        for (int m = 0; m < count; m++) {
+            data.skipNBytes(6);
+            int attributes = data.readUnsignedShort();
+            for (int a = 0; a < attributes; a++) {
+                data.skipNBytes(2);
+                data.skipNBytes(data.readInt());
+            }
+        }
+    }
+
+    private record Nested(String outer, String simpleName, int flags) {
+    }
+
+    /**
+     * @param binaryName internal name of the class, {@code a/b/Outer$Inner}
+     * @param canonicalName name used in imports, {@code a.b.Outer.Inner}
+     * @param topLevel internal name of the outermost enclosing class; the class itself when it is not nested
+     */
+    record Importable(String binaryName, String canonicalName, String topLevel) {
+        boolean isTopLevel() {
+            return binaryName.equals(topLevel);
+        }
+
+        /**
+         * The package, taken from the binary name: unlike the canonical name, its last {@code /} always ends it.
+         */
+        String packageName() {
+            int slash = binaryName.lastIndexOf('/');
+            return slash < 0 ? "" : binaryName.substring(0, slash).replace('/', '.');
+        }
+    }
+}
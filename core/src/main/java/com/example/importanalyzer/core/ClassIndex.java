@@ -7,23 +7,93 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class ClassIndex {
     private final Map<String, List<ClassIndexEntry>> bySimpleName = new ConcurrentHashMap<>();
     private final Map<String, ClassIndexEntry> byFqn = new ConcurrentHashMap<>();
     private final Map<String, List<ClassIndexEntry>> byPackage = new ConcurrentHashMap<>();
+    // bumped after every change; a suggester is only kept if no change happened while it was built
+    private final AtomicLong modifications = new AtomicLong();
+    private volatile NameSuggester fqnSuggester;
+    private volatile NameSuggester simpleNameSuggester;
 
     public void addEntry(ClassIndexEntry entry) {
         byFqn.put(entry.fullyQualifiedName(), entry);
         bySimpleName.computeIfAbsent(entry.simpleName(), k -> Collections.synchronizedList(new ArrayList<>())).add(entry);
-        String pkg = packageName(entry.fullyQualifiedName());
-        byPackage.computeIfAbsent(pkg, k -> Collections.synchronizedList(new ArrayList<>())).add(entry);
+        byPackage.computeIfAbsent(entry.packageName(), k -> Collections.synchronizedList(new ArrayList<>())).add(entry);
+        invalidateSuggesters();
+    }
+
+    /**
+     * Drops every entry declared at {@code location}, so a re-parsed source can be registered again.
+     */
+    public void removeByLocation(Path location) {
+        byFqn.values().removeIf(entry -> location.equals(entry.location()));
+        removeFrom(bySimpleName, location);
+        removeFrom(byPackage, location);
+        invalidateSuggesters();
+    }
+
+    private static void removeFrom(Map<String, List<ClassIndexEntry>> lists, Path location) {
+        lists.values().removeIf(list -> {
+            synchronized (list) {
+                list.removeIf(entry -> location.equals(entry.location()));
+                return list.isEmpty();
+            }
+        });
     }
 
     public ClassIndexEntry getByFqn(String fqn) {
         return byFqn.get(fqn);
     }
 
+    /**
+     * Known FQNs within a few edits of {@code fqn}, closest first. The approximate-match index is built on the
+     * first query after the index last changed.
+     */
+    public List<String> similarFqns(String fqn, int limit) {
+        NameSuggester suggester = fqnSuggester;
+        if (suggester == null) {
+            long version = modifications.get();
+            suggester = new NameSuggester(byFqn.keySet());
+            if (modifications.get() == version) {
+                fqnSuggester = suggester;
+                // a change that slipped in between the check and the write may have been cleared already
+                if (modifications.get() != version) {
+                    fqnSuggester = null;
+                }
+            }
+        }
+        return suggester.suggest(fqn, NameSuggester.maxDistanceFor(fqn), limit);
+    }
+
+    public List<String> similarSimpleNames(String simpleName, int limit) {
+        NameSuggester suggester = simpleNameSuggester;
+        if (suggester == null) {
+            long version = modifications.get();
+            suggester = new NameSuggester(bySimpleName.keySet());
+            if (modifications.get() == version) {
+                simpleNameSuggester = suggester;
+                if (modifications.get() != version) {
+                    simpleNameSuggester = null;
+                }
+            }
+        }
+        return suggester.suggest(simpleName, NameSuggester.maxDistanceFor(simpleName), limit);
+    }
+
+    /**
+     * Called after every change, so that a suggester built from a view that may have missed it is never kept.
+     */
+    private void invalidateSuggesters() {
+        modifications.incrementAndGet();
+        if (fqnSuggester != null || simpleNameSuggester != null) {
+            fqnSuggester = null;
+            simpleNameSuggester = null;
+        }
+    }
+
     public List<ClassIndexEntry> bySimpleName(String simpleName) {
         return bySimpleName.getOrDefault(simpleName, List.of());
     }
@@ -40,11 +110,6 @@ public class ClassIndex {
         return byFqn.size();
     }
 
-    private String packageName(String fqn) {
-        int idx = fqn.lastIndexOf('.');
-        return idx >= 0 ? fqn.substring(0, idx) : "";
-    }
-
     public Map<String, ClassIndexEntry> asFqnMap() {
         return Collections.unmodifiableMap(byFqn);
     }
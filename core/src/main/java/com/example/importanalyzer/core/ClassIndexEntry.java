@@ -2,5 +2,22 @@ package com.example.importanalyzer.core;
 
 import java.nio.file.Path;
 
-public record ClassIndexEntry(String fullyQualifiedName, String simpleName, ClassOrigin origin, Path location) {
+/**
+ * An importable type. The package is kept apart from the name because nested types are indexed under their
+ * canonical name ({@code a.b.Outer.Inner}), where the last dot does not end the package.
+ */
+public record ClassIndexEntry(String fullyQualifiedName, String simpleName, ClassOrigin origin, Path location, String packageName) {
+    public ClassIndexEntry {
+        if (packageName == null) {
+            int idx = fullyQualifiedName.lastIndexOf('.');
+            packageName = idx >= 0 ? fullyQualifiedName.substring(0, idx) : "";
+        }
+    }
+
+    /**
+     * An entry for a top-level type, whose package is everything before the last dot of its name.
+     */
+    public ClassIndexEntry(String fullyQualifiedName, String simpleName, ClassOrigin origin, Path location) {
+        this(fullyQualifiedName, simpleName, origin, location, null);
+    }
 }
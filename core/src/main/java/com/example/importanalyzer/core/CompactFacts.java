@@ -0,0 +1,238 @@
+package com.example.importanalyzer.core;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Immutable, array-backed forms of the per-file facts in {@link SourceFileResult}. Names are interned, so an
+ * identifier used by thousands of files is stored once, and kept in sorted arrays searched by bisection; line
+ * numbers sit in a parallel {@code int[]}. A fact map costs a few arrays instead of a hash table of boxed
+ * entries, while callers keep the plain {@link Map} and {@link Set} views they query.
+ */
+final class CompactFacts {
+    private CompactFacts() {}
+
+    static Map<String, Integer> lines(Map<String, Integer> source) {
+        if (source == null || source.isEmpty()) {
+            return Map.of();
+        }
+        if (source instanceof LineMap) {
+            return source;
+        }
+        String[] names = sortedNames(source.keySet());
+        int[] lines = new int[names.length];
+        for (int i = 0; i < names.length; i++) {
+            lines[i] = source.get(names[i]);
+        }
+        return new LineMap(names, lines);
+    }
+
+    static Set<String> names(Set<String> source) {
+        if (source == null || source.isEmpty()) {
+            return Set.of();
+        }
+        if (source instanceof NameSet) {
+            return source;
+        }
+        return new NameSet(sortedNames(source));
+    }
+
+    static Map<String, Set<String>> groups(Map<String, Set<String>> source) {
+        if (source == null || source.isEmpty()) {
+            return Map.of();
+        }
+        if (source instanceof GroupMap) {
+            return source;
+        }
+        String[] keys = sortedNames(source.keySet());
+        Set<?>[] values = new Set<?>[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            values[i] = names(source.get(keys[i]));
+        }
+        return new GroupMap(keys, values);
+    }
+
+    static String intern(String name) {
+        return name == null ? null : name.intern();
+    }
+
+    private static String[] sortedNames(Set<String> source) {
+        String[] names = new String[source.size()];
+        int i = 0;
+        for (String name : source) {
+            names[i++] = name.intern();
+        }
+        Arrays.sort(names);
+        return names;
+    }
+
+    private static int indexOf(String[] sorted, Object key) {
+        return key instanceof String name ? Arrays.binarySearch(sorted, name) : -1;
+    }
+
+    private static final class NameSet extends AbstractSet<String> {
+        private final String[] names;
+
+        NameSet(String[] names) {
+            this.names = names;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return indexOf(names, o) >= 0;
+        }
+
+        @Override
+        public Iterator<String> iterator() {
+            return new ArrayIterator<>(names.length) {
+                @Override
+                String at(int index) {
+                    return names[index];
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return names.length;
+        }
+    }
+
+    private static final class LineMap extends AbstractMap<String, Integer> {
+        private final String[] names;
+        private final int[] lines;
+
+        LineMap(String[] names, int[] lines) {
+            this.names = names;
+            this.lines = lines;
+        }
+
+        @Override
+        public Integer get(Object key) {
+            int index = indexOf(names, key);
+            return index < 0 ? null : lines[index];
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return indexOf(names, key) >= 0;
+        }
+
+        @Override
+        public int size() {
+            return names.length;
+        }
+
+        @Override
+        public Set<String> keySet() {
+            return new NameSet(names);
+        }
+
+        @Override
+        public Set<Entry<String, Integer>> entrySet() {
+            return new EntryView<>(names.length) {
+                @Override
+                Entry<String, Integer> at(int index) {
+                    return new SimpleImmutableEntry<>(names[index], lines[index]);
+                }
+            };
+        }
+    }
+
+    private static final class GroupMap extends AbstractMap<String, Set<String>> {
+        private final String[] keys;
+        private final Set<?>[] values;
+
+        GroupMap(String[] keys, Set<?>[] values) {
+            this.keys = keys;
+            this.values = values;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Set<String> get(Object key) {
+            int index = indexOf(keys, key);
+            return index < 0 ? null : (Set<String>) values[index];
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return indexOf(keys, key) >= 0;
+        }
+
+        @Override
+        public int size() {
+            return keys.length;
+        }
+
+        @Override
+        public Set<String> keySet() {
+            return new NameSet(keys);
+        }
+
+        @Override
+        public Set<Entry<String, Set<String>>> entrySet() {
+            return new EntryView<>(keys.length) {
+                @Override
+                @SuppressWarnings("unchecked")
+                Entry<String, Set<String>> at(int index) {
+                    return new SimpleImmutableEntry<>(keys[index], (Set<String>) values[index]);
+                }
+            };
+        }
+    }
+
+    private abstract static class EntryView<E> extends AbstractSet<E> {
+        private final int size;
+
+        EntryView(int size) {
+            this.size = size;
+        }
+
+        abstract E at(int index);
+
+        @Override
+        public Iterator<E> iterator() {
+            return new ArrayIterator<>(size) {
+                @Override
+                E at(int index) {
+                    return EntryView.this.at(index);
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    private abstract static class ArrayIterator<E> implements Iterator<E> {
+        private final int size;
+        private int next;
+
+        ArrayIterator(int size) {
+            this.size = size;
+        }
+
+        abstract E at(int index);
+
+        @Override
+        public boolean hasNext() {
+            return next < size;
+        }
+
+        @Override
+        public E next() {
+            if (next >= size) {
+                throw new NoSuchElementException();
+            }
+            return at(next++);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.importanalyzer.core;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+final class ContentHash {
+    private static final ThreadLocal<MessageDigest> DIGEST = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private ContentHash() {}
+
+    static String of(byte[] content) {
+        MessageDigest digest = DIGEST.get();
+        digest.reset();
+        return HexFormat.of().formatHex(digest.digest(content));
+    }
+
+    /**
+     * Hashes the remaining bytes of {@code content}, consuming them.
+     */
+    static String of(ByteBuffer content) {
+        MessageDigest digest = DIGEST.get();
+        digest.reset();
+        digest.update(content);
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.importanalyzer.core;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * A cache file exists but its header or checksum does not match its content.
+ */
+public class CorruptCacheException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    // Path is not serializable; the message still names the file after a round trip
+    private final transient Path path;
+
+    public CorruptCacheException(Path path, String reason) {
+        super(path + ": " + reason);
+        this.path = path;
+    }
+
+    public Path path() {
+        return path;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.importanalyzer.core;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Marks referenced project types in a {@link BitSet} over the sorted FQNs of the analyzed main sources,
+ * using the resolved edges and entry-point facts collected during the single parse.
+ */
+final class DeadTypeDetector {
+    private final DeadTypeRoots roots;
+    private final Set<String> rootAnnotations;
+    private final List<Path> sourceRoots;
+    private final Predicate<Path> isTestSource;
+
+    DeadTypeDetector(DeadTypeRoots roots, List<Path> sourceRoots, Predicate<Path> isTestSource) {
+        this.roots = roots;
+        this.rootAnnotations = roots.annotations().stream()
+                .map(name -> name.substring(name.lastIndexOf('.') + 1))
+                .collect(Collectors.toSet());
+        this.sourceRoots = sourceRoots;
+        this.isTestSource = isTestSource;
+    }
+
+    DeadTypeReport detect(ClassIndex index, List<SourceFileResult> parsed, DependencyGraph dependencies) {
+        // candidates are only types of the analyzed sources: sibling modules are indexed but not parsed
+        ClassIndexEntry[] candidates = index.asFqnMap().values().stream()
+                .filter(entry -> entry.origin() == ClassOrigin.PROJECT_MAIN && isAnalyzedSource(entry.location()))
+                .sorted((a, b) -> a.fullyQualifiedName().compareTo(b.fullyQualifiedName()))
+                .toArray(ClassIndexEntry[]::new);
+        String[] fqns = Arrays.stream(candidates).map(ClassIndexEntry::fullyQualifiedName).toArray(String[]::new);
+
+        BitSet live = new BitSet(fqns.length);
+        int rootCount = 0;
+        for (SourceFileResult result : parsed) {
+            if (!roots.testReferences() && isTestSource.test(result.file())) {
+                continue;
+            }
+            for (String fqn : dependencies.dependenciesOf(result.file())) {
+                int id = Arrays.binarySearch(fqns, fqn);
+                if (id >= 0) {
+                    live.set(id);
+                }
+            }
+        }
+        for (SourceFileResult result : parsed) {
+            for (String simple : result.declaredTypes()) {
+                String fqn = result.packageName().isEmpty() ? simple : result.packageName() + "." + simple;
+                int id = Arrays.binarySearch(fqns, fqn);
+                if (id >= 0 && isRoot(result, simple, fqn)) {
+                    live.set(id);
+                    rootCount++;
+                }
+            }
+        }
+
+        Map<String, List<String>> unreferenced = new HashMap<>();
+        for (int id = live.nextClearBit(0); id < fqns.length; id = live.nextClearBit(id + 1)) {
+            unreferenced.computeIfAbsent(dependencies.moduleOf(candidates[id].location()), module -> new ArrayList<>()).add(fqns[id]);
+        }
+        return new DeadTypeReport(fqns.length, rootCount, unreferenced);
+    }
+
+    private boolean isRoot(SourceFileResult result, String simple, String fqn) {
+        if (roots.types().contains(fqn)) {
+            return true;
+        }
+        if (roots.mainMethods() && result.mainTypes().contains(simple)) {
+            return true;
+        }
+        Set<String> annotations = result.typeAnnotations().getOrDefault(simple, Set.of());
+        return annotations.stream().anyMatch(rootAnnotations::contains);
+    }
+
+    private boolean isAnalyzedSource(Path location) {
+        return sourceRoots.stream().anyMatch(location::startsWith);
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.importanalyzer.core;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Project main types that no other file references and that are not roots, grouped by module.
+ */
+public record DeadTypeReport(int projectTypes, int roots, Map<String, List<String>> unreferenced) {
+    public DeadTypeReport {
+        unreferenced = Collections.unmodifiableMap(new TreeMap<>(unreferenced));
+    }
+
+    public int count() {
+        return unreferenced.values().stream().mapToInt(List::size).sum();
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.importanalyzer.core;
+
+import java.util.Set;
+
+/**
+ * What keeps a {@link ClassOrigin#PROJECT_MAIN} type alive for dead-type detection besides being referenced
+ * from another file.
+ *
+ * @param mainMethods    types declaring {@code static void main(String[])}
+ * @param annotations    simple or qualified names of annotations that mark entry points when present on the type
+ *                       or one of its methods
+ * @param testReferences whether references from test sources count
+ * @param types          fully qualified names that are always kept
+ */
+public record DeadTypeRoots(boolean mainMethods, Set<String> annotations, boolean testReferences, Set<String> types) {
+    public DeadTypeRoots {
+        annotations = Set.copyOf(annotations);
+        types = Set.copyOf(types);
+    }
+
+    public static DeadTypeRoots defaults() {
+        return new DeadTypeRoots(true, Set.of(), true, Set.of());
+    }
+}
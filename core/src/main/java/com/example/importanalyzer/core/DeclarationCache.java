@@ -0,0 +1,66 @@
+package com.example.importanalyzer.core;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Declaration-only view of dependency-side sources, keyed by content hash so unchanged files are
+ * never tokenized twice.
+ */
+public class DeclarationCache {
+    private final Map<String, SourceDeclarations> byHash = new ConcurrentHashMap<>();
+    private final Set<String> touched = ConcurrentHashMap.newKeySet();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder lookups = new LongAdder();
+
+    public DeclarationCache() {
+    }
+
+    public DeclarationCache(Map<String, SourceDeclarations> seed) {
+        if (seed != null) {
+            byHash.putAll(seed);
+        }
+    }
+
+    public SourceDeclarations declarationsFor(Path file) throws IOException {
+        SourceText content = SourceText.read(file);
+        String hash = content.hash();
+        touched.add(hash);
+        lookups.increment();
+        return byHash.computeIfAbsent(hash, key -> {
+            misses.increment();
+            return DeclarationExtractor.extract(content.toString());
+        });
+    }
+
+    public long hits() {
+        return lookups.sum() - misses.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public int size() {
+        return byHash.size();
+    }
+
+    /**
+     * Returns the entries used since this cache was created, dropping hashes of files that no longer exist.
+     */
+    public Map<String, SourceDeclarations> snapshot() {
+        Map<String, SourceDeclarations> live = new HashMap<>();
+        touched.forEach(hash -> {
+            SourceDeclarations declarations = byHash.get(hash);
+            if (declarations != null) {
+                live.put(hash, declarations);
+            }
+        });
+        return live;
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.importanalyzer.core;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Lexical extraction of the package and the top-level and member type declarations of a source file.
+ * Method bodies, initializers and anonymous class bodies are skipped without being tokenized, so the
+ * cost is a single pass over the characters of the file.
+ */
+public final class DeclarationExtractor {
+    private static final int TYPE_BODY = 0;
+    private static final int BLOCK = 1;
+
+    private DeclarationExtractor() {}
+
+    public static SourceDeclarations extract(CharSequence source) {
+        return new Scanner(source).run();
+    }
+
+    private static final class Scanner {
+        private final CharSequence src;
+        private final int length;
+        private final Deque<Integer> braces = new ArrayDeque<>();
+        private final Set<String> declared = new HashSet<>();
+        private int pos;
+        private String packageName = "";
+        private char previous;
+        private String pendingKeyword;
+        private String recordCandidate;
+        private boolean typeHeader;
+        private int blockDepth;
+
+        Scanner(CharSequence src) {
+            this.src = src;
+            this.length = src.length();
+        }
+
+        SourceDeclarations run() {
+            while (pos < length) {
+                char c = src.charAt(pos);
+                if (Character.isWhitespace(c)) {
+                    pos++;
+                } else if (c == '/' && peek(1) == '/') {
+                    skipLineComment();
+                } else if (c == '/' && peek(1) == '*') {
+                    skipBlockComment();
+                } else if (c == '"') {
+                    skipString();
+                    token('"');
+                } else if (c == '\'') {
+                    skipCharLiteral();
+                    token('\'');
+                } else if (c == '{') {
+                    pos++;
+                    openBrace();
+                } else if (c == '}') {
+                    pos++;
+                    closeBrace();
+                } else if (blockDepth > 0) {
+                    pos++;
+                } else if (Character.isJavaIdentifierStart(c)) {
+                    identifier(readIdentifier());
+                } else {
+                    pos++;
+                    token(c);
+                }
+            }
+            return new SourceDeclarations(packageName, declared);
+        }
+
+        private void openBrace() {
+            if (blockDepth == 0 && typeHeader) {
+                braces.push(TYPE_BODY);
+            } else {
+                braces.push(BLOCK);
+                blockDepth++;
+            }
+            typeHeader = false;
+            pendingKeyword = null;
+            recordCandidate = null;
+            previous = '{';
+        }
+
+        private void closeBrace() {
+            if (!braces.isEmpty() && braces.pop() == BLOCK) {
+                blockDepth--;
+            }
+            previous = '}';
+        }
+
+        private void token(char c) {
+            if (recordCandidate != null && (c == '(' || c == '<')) {
+                declare(recordCandidate);
+            }
+            recordCandidate = null;
+            pendingKeyword = null;
+            previous = c;
+        }
+
+        private void identifier(String word) {
+            recordCandidate = null;
+            if (pendingKeyword != null) {
+                String keyword = pendingKeyword;
+                pendingKeyword = null;
+                if ("record".equals(keyword)) {
+                    recordCandidate = word;
+                } else {
+                    declare(word);
+                }
+                previous = 'a';
+                return;
+            }
+            switch (word) {
+                case "package" -> {
+                    if (braces.isEmpty() && declared.isEmpty()) {
+                        packageName = readQualifiedName();
+                    }
+                }
+                case "class", "interface", "enum", "record" -> {
+                    if (previous != '.') {
+                        pendingKeyword = word;
+                    }
+                }
+                default -> {
+                }
+            }
+            previous = 'a';
+        }
+
+        private void declare(String name) {
+            declared.add(name);
+            typeHeader = true;
+        }
+
+        private String readQualifiedName() {
+            StringBuilder name = new StringBuilder();
+            while (pos < length) {
+                char c = src.charAt(pos);
+                if (c == ';') {
+                    break;
+                }
+                if (c == '/' && peek(1) == '/') {
+                    skipLineComment();
+                } else if (c == '/' && peek(1) == '*') {
+                    skipBlockComment();
+                } else {
+                    if (c == '.' || Character.isJavaIdentifierPart(c)) {
+                        name.append(c);
+                    }
+                    pos++;
+                }
+            }
+            return name.toString();
+        }
+
+        private String readIdentifier() {
+            int start = pos;
+            pos++;
+            while (pos < length && Character.isJavaIdentifierPart(src.charAt(pos))) {
+                pos++;
+            }
+            return src.subSequence(start, pos).toString();
+        }
+
+        private char peek(int offset) {
+            int idx = pos + offset;
+            return idx < length ? src.charAt(idx) : '\0';
+        }
+
+        private void skipLineComment() {
+            while (pos < length && src.charAt(pos) != '\n') {
+                pos++;
+            }
+        }
+
+        private void skipBlockComment() {
+            pos += 2;
+            while (pos < length && !(src.charAt(pos) == '*' && peek(1) == '/')) {
+                pos++;
+            }
+            pos += 2;
+        }
+
+        private void skipString() {
+            if (peek(1) == '"' && peek(2) == '"') {
+                pos += 3;
+                while (pos < length && !(src.charAt(pos) == '"' && peek(1) == '"' && peek(2) == '"')) {
+                    pos += src.charAt(pos) == '\\' ? 2 : 1;
+                }
+                pos += 3;
+                return;
+            }
+            pos++;
+            while (pos < length) {
+                char c = src.charAt(pos);
+                if (c == '\\') {
+                    pos += 2;
+                } else {
+                    pos++;
+                    if (c == '"' || c == '\n') {
+                        return;
+                    }
+                }
+            }
+        }
+
+        private void skipCharLiteral() {
+            pos++;
+            while (pos < length) {
+                char c = src.charAt(pos);
+                if (c == '\\') {
+                    pos += 2;
+                } else {
+                    pos++;
+                    if (c == '\'' || c == '\n') {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+}
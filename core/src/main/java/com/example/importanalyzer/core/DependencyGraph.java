@@ -0,0 +1,130 @@
+package com.example.importanalyzer.core;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Resolved file &rarr; FQN edges recorded while issues are evaluated, each FQN mapped back to the index
+ * entry that declares it. Package and module graphs are derived on demand by aggregating the file edges in
+ * parallel into packed {@code long} edge arrays, which keeps millions of edges free of boxing.
+ */
+public class DependencyGraph {
+    private final Function<Path, String> moduleOf;
+    private final Map<Path, Set<String>> fileEdges = new ConcurrentHashMap<>();
+    private final Map<Path, String> filePackages = new ConcurrentHashMap<>();
+    private final Map<String, ClassIndexEntry> targets = new ConcurrentHashMap<>();
+
+    /**
+     * @param moduleOf maps a source file or artifact location to the name of the module it belongs to
+     */
+    public DependencyGraph(Function<Path, String> moduleOf) {
+        this.moduleOf = moduleOf;
+    }
+
+    public void record(SourceFileResult from, ClassIndexEntry target) {
+        if (from.file().equals(target.location())) {
+            return;
+        }
+        filePackages.putIfAbsent(from.file(), from.packageName());
+        fileEdges.computeIfAbsent(from.file(), f -> ConcurrentHashMap.newKeySet()).add(target.fullyQualifiedName());
+        targets.putIfAbsent(target.fullyQualifiedName(), target);
+    }
+
+    public Set<String> dependenciesOf(Path file) {
+        return fileEdges.getOrDefault(file, Set.of());
+    }
+
+    /**
+     * Returns the index entry (and so the declaring file or artifact) for a recorded dependency.
+     */
+    public ClassIndexEntry declaration(String fqn) {
+        return targets.get(fqn);
+    }
+
+    public String moduleOf(Path location) {
+        return moduleOf.apply(location);
+    }
+
+    public Map<Path, Set<String>> fileEdges() {
+        return fileEdges;
+    }
+
+    public DependencyReport report() {
+        long edges = fileEdges.values().stream().mapToLong(Set::size).sum();
+        Level packages = aggregate(filePackages::get, fqn -> targets.get(fqn).packageName());
+        Level modules = aggregate(moduleOf, fqn -> moduleOf.apply(targets.get(fqn).location()));
+        return new DependencyReport(fileEdges.size(), edges, packages.toReport(), modules.toReport());
+    }
+
+    private Level aggregate(Function<Path, String> sourceNode, Function<String, String> targetNode) {
+        Map<String, Integer> ids = new ConcurrentHashMap<>();
+        AtomicInteger next = new AtomicInteger();
+        Function<String, Integer> intern = name -> ids.computeIfAbsent(name, n -> next.getAndIncrement());
+        long[] packed = fileEdges.entrySet().parallelStream()
+                .flatMapToLong(entry -> {
+                    long from = intern.apply(sourceNode.apply(entry.getKey()));
+                    return entry.getValue().stream()
+                            .mapToLong(fqn -> intern.apply(targetNode.apply(fqn)))
+                            .filter(to -> to != from)
+                            .map(to -> from << 32 | to);
+                })
+                .toArray();
+        Arrays.parallelSort(packed);
+        packed = Arrays.copyOf(packed, dedupe(packed));
+
+        String[] names = new String[ids.size()];
+        ids.forEach((name, id) -> names[id] = name);
+        int[] offsets = new int[names.length + 1];
+        int[] targetIds = new int[packed.length];
+        for (int i = 0; i < packed.length; i++) {
+            offsets[(int) (packed[i] >>> 32) + 1]++;
+            targetIds[i] = (int) packed[i];
+        }
+        for (int v = 0; v < names.length; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        return new Level(names, offsets, targetIds);
+    }
+
+    private static int dedupe(long[] sorted) {
+        int write = 0;
+        for (int read = 0; read < sorted.length; read++) {
+            if (write == 0 || sorted[read] != sorted[write - 1]) {
+                sorted[write++] = sorted[read];
+            }
+        }
+        return write;
+    }
+
+    private record Level(String[] names, int[] offsets, int[] targets) {
+        DependencyReport.Level toReport() {
+            Map<String, List<String>> dependencies = new HashMap<>();
+            for (int v = 0; v < names.length; v++) {
+                if (offsets[v] == offsets[v + 1]) {
+                    continue;
+                }
+                List<String> out = new ArrayList<>(offsets[v + 1] - offsets[v]);
+                for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                    out.add(names[targets[e]]);
+                }
+                out.sort(Comparator.naturalOrder());
+                dependencies.put(names[v], out);
+            }
+            List<List<String>> cycles = new ArrayList<>();
+            for (int[] component : StronglyConnectedComponents.find(names.length, offsets, targets)) {
+                cycles.add(Arrays.stream(component).mapToObj(id -> names[id]).sorted().toList());
+            }
+            cycles.sort(Comparator.comparingInt((List<String> cycle) -> -cycle.size()).thenComparing(cycle -> cycle.get(0)));
+            return new DependencyReport.Level(names.length, targets.length, dependencies, cycles);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.importanalyzer.core;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Summary of the resolved dependency graph: file-level totals plus the package- and module-level graphs
+ * with their cycles (strongly connected components of more than one node), largest first.
+ */
+public record DependencyReport(int files, long fileEdges, Level packages, Level modules) {
+
+    public record Level(int nodes, long edges, Map<String, List<String>> dependencies, List<List<String>> cycles) {
+        public Level {
+            dependencies = Collections.unmodifiableMap(new TreeMap<>(dependencies));
+            cycles = List.copyOf(cycles);
+        }
+    }
+}
@@ -1,13 +1,5 @@
 package com.example.importanalyzer.core;
 
-import org.gradle.tooling.GradleConnector;
-import org.gradle.tooling.ProjectConnection;
-import org.gradle.tooling.model.idea.IdeaDependency;
-import org.gradle.tooling.model.idea.IdeaModule;
-import org.gradle.tooling.model.idea.IdeaProject;
-import org.gradle.tooling.model.idea.IdeaSingleEntryLibraryDependency;
-
-import java.io.File;
 import java.io.IOException;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
@@ -15,12 +7,33 @@ import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.HashSet;
-import java.util.Optional;
 import java.util.Set;
 
 public class DependencyResolver {
+    private final Path mavenRepository;
+
+    public DependencyResolver() {
+        this(defaultMavenRepository());
+    }
+
+    /**
+     * @param mavenRepository local Maven repository that {@code pom.xml} dependencies are resolved from
+     */
+    public DependencyResolver(Path mavenRepository) {
+        this.mavenRepository = mavenRepository;
+    }
+
+    static Path defaultMavenRepository() {
+        String configured = System.getProperty("maven.repo.local");
+        return configured != null ? Path.of(configured) : Path.of(System.getProperty("user.home"), ".m2", "repository");
+    }
+
     public Set<Path> findDependencyArtifacts(Path projectRoot) {
         Set<Path> jars = new HashSet<>();
+        if (Files.exists(projectRoot.resolve("pom.xml"))) {
+            // separate class so the XML stack is only loaded for Maven builds
+            jars.addAll(MavenPomResolver.resolve(projectRoot, mavenRepository));
+        }
         Path gradleRoot = findGradleRoot(projectRoot);
         jars.addAll(resolveGradleDependencies(gradleRoot));
         jars.addAll(projectBuildOutputs(gradleRoot));
@@ -80,49 +93,14 @@ public class DependencyResolver {
     }
 
     private Set<Path> resolveGradleDependencies(Path projectRoot) {
-        Set<Path> artifacts = new HashSet<>();
         boolean gradleProject = Files.exists(projectRoot.resolve("build.gradle"))
                 || Files.exists(projectRoot.resolve("build.gradle.kts"));
         if (!gradleProject) {
-            return artifacts;
+            return Set.of();
         }
 
-        ProjectConnection connection = null;
-        try {
-            connection = GradleConnector.newConnector()
-                    .forProjectDirectory(projectRoot.toFile())
-                    .connect();
-            IdeaProject project = connection.getModel(IdeaProject.class);
-            for (IdeaModule module : project.getModules()) {
-                Optional.ofNullable(module.getCompilerOutput())
-                        .ifPresent(output -> {
-                            File mainDir = output.getOutputDir();
-                            if (mainDir != null && mainDir.exists()) {
-                                artifacts.add(mainDir.toPath());
-                            }
-                            File testDir = output.getTestOutputDir();
-                            if (testDir != null && testDir.exists()) {
-                                artifacts.add(testDir.toPath());
-                            }
-                        });
-
-                for (IdeaDependency dependency : module.getDependencies()) {
-                    if (dependency instanceof IdeaSingleEntryLibraryDependency lib) {
-                        File file = lib.getFile();
-                        if (file != null && file.exists()) {
-                            artifacts.add(file.toPath());
-                        }
-                    }
-                }
-            }
-        } catch (Exception ignored) {
-            // Fallback: rely on local build outputs and libs folder only.
-        } finally {
-            if (connection != null) {
-                connection.close();
-            }
-        }
-        return artifacts;
+        // separate class so the Tooling API is only loaded for Gradle builds
+        return GradleToolingResolver.resolve(projectRoot);
     }
 
     private void scanDirectory(Path dir, Set<Path> jars) {
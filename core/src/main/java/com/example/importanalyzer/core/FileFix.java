@@ -0,0 +1,17 @@
+package com.example.importanalyzer.core;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Outcome of fixing a single file. {@code skipped} lists the issues that were left for a human, and
+ * {@code diff} holds the unified diff of the import block when the fix ran as a dry run.
+ */
+public record FileFix(Path file, boolean changed, List<String> added, List<String> removed, List<String> skipped, String diff) {
+    public FileFix {
+        added = List.copyOf(added);
+        removed = List.copyOf(removed);
+        skipped = List.copyOf(skipped);
+        diff = diff == null ? "" : diff;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.importanalyzer.core;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one source file read and parsed; recorded only while a recording enables it.
+ */
+@Name("com.example.importanalyzer.FileParse")
+@Label("File Parse")
+@Category({"Import Analyzer"})
+@StackTrace(false)
+final class FileParseEvent extends Event {
+    @Label("Path")
+    String path;
+
+    @Label("Size")
+    @DataAmount
+    long bytes;
+}
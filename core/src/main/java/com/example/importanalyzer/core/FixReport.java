@@ -0,0 +1,25 @@
+package com.example.importanalyzer.core;
+
+import java.util.List;
+
+public record FixReport(List<FileFix> files, boolean dryRun) {
+    public FixReport {
+        files = List.copyOf(files);
+    }
+
+    public long changedFiles() {
+        return files.stream().filter(FileFix::changed).count();
+    }
+
+    public int addedImports() {
+        return files.stream().mapToInt(fix -> fix.added().size()).sum();
+    }
+
+    public int removedImports() {
+        return files.stream().mapToInt(fix -> fix.removed().size()).sum();
+    }
+
+    public int skippedIssues() {
+        return files.stream().mapToInt(fix -> fix.skipped().size()).sum();
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.importanalyzer.core;
+
+import org.gradle.tooling.GradleConnector;
+import org.gradle.tooling.ProjectConnection;
+import org.gradle.tooling.model.idea.IdeaDependency;
+import org.gradle.tooling.model.idea.IdeaModule;
+import org.gradle.tooling.model.idea.IdeaProject;
+import org.gradle.tooling.model.idea.IdeaSingleEntryLibraryDependency;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Asks the Gradle Tooling API for module outputs and library jars of a Gradle build.
+ */
+final class GradleToolingResolver {
+    private GradleToolingResolver() {}
+
+    static Set<Path> resolve(Path projectRoot) {
+        Set<Path> artifacts = new HashSet<>();
+        ProjectConnection connection = null;
+        try {
+            connection = GradleConnector.newConnector()
+                    .forProjectDirectory(projectRoot.toFile())
+                    .connect();
+            IdeaProject project = connection.getModel(IdeaProject.class);
+            for (IdeaModule module : project.getModules()) {
+                Optional.ofNullable(module.getCompilerOutput())
+                        .ifPresent(output -> {
+                            File mainDir = output.getOutputDir();
+                            if (mainDir != null && mainDir.exists()) {
+                                artifacts.add(mainDir.toPath());
+                            }
+                            File testDir = output.getTestOutputDir();
+                            if (testDir != null && testDir.exists()) {
+                                artifacts.add(testDir.toPath());
+                            }
+                        });
+
+                for (IdeaDependency dependency : module.getDependencies()) {
+                    if (dependency instanceof IdeaSingleEntryLibraryDependency lib) {
+                        File file = lib.getFile();
+                        if (file != null && file.exists()) {
+                            artifacts.add(file.toPath());
+                        }
+                    }
+                }
+            }
+        } catch (Exception ignored) {
+            // Fallback: rely on local build outputs and libs folder only.
+        } finally {
+            if (connection != null) {
+                connection.close();
+            }
+        }
+        return artifacts;
+    }
+}
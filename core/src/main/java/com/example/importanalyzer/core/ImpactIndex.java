@@ -0,0 +1,337 @@
+package com.example.importanalyzer.core;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reverse dependency index answering "which source files are affected if these types change". Types map to
+ * the files that reference them directly and files map to the files that reference any type they declare,
+ * both as int-id CSR arrays; a query is a breadth-first walk over the latter with a {@link BitSet} of visited
+ * files. The index is written next to the index cache as one binary {@link CacheStore} payload: on load the
+ * int arrays are bulk-copied and names are decoded only when a query touches them.
+ */
+public class ImpactIndex {
+    private static final int FORMAT_VERSION = 2;
+
+    private final StringTable files;
+    private final StringTable types;
+    private final int[] declaringFile;
+    private final int[] typeOffsets;
+    private final int[] typeDependents;
+    private final int[] fileOffsets;
+    private final int[] fileDependents;
+
+    private ImpactIndex(StringTable files, StringTable types, int[] declaringFile, int[] typeOffsets, int[] typeDependents,
+                        int[] fileOffsets, int[] fileDependents) {
+        this.files = files;
+        this.types = types;
+        this.declaringFile = declaringFile;
+        this.typeOffsets = typeOffsets;
+        this.typeDependents = typeDependents;
+        this.fileOffsets = fileOffsets;
+        this.fileDependents = fileDependents;
+    }
+
+    public static Path pathFor(Path indexCachePath) {
+        return indexCachePath.resolveSibling(indexCachePath.getFileName() + ".impact");
+    }
+
+    public static ImpactIndex of(DependencyGraph graph) {
+        Map<Path, Set<String>> edges = graph.fileEdges();
+        Set<String> typeSet = new HashSet<>();
+        Set<String> fileSet = new HashSet<>();
+        edges.forEach((file, targets) -> {
+            fileSet.add(file.toString());
+            typeSet.addAll(targets);
+        });
+        Map<String, ClassIndexEntry> declarations = new HashMap<>();
+        for (String type : typeSet) {
+            ClassIndexEntry declaration = graph.declaration(type);
+            if (isSource(declaration)) {
+                declarations.put(type, declaration);
+                fileSet.add(declaration.location().toString());
+            }
+        }
+        String[] fileNames = fileSet.toArray(String[]::new);
+        String[] typeNames = typeSet.toArray(String[]::new);
+        Arrays.parallelSort(fileNames);
+        Arrays.parallelSort(typeNames);
+        Map<String, Integer> fileIds = ids(fileNames);
+        Map<String, Integer> typeIds = ids(typeNames);
+
+        int[] declaringFile = new int[typeNames.length];
+        for (int t = 0; t < typeNames.length; t++) {
+            ClassIndexEntry declaration = declarations.get(typeNames[t]);
+            declaringFile[t] = declaration != null ? fileIds.get(declaration.location().toString()) : -1;
+        }
+
+        long edgeCount = edges.values().stream().mapToLong(Set::size).sum();
+        long[] byType = new long[Math.toIntExact(edgeCount)];
+        long[] byFile = new long[byType.length];
+        int typeEdges = 0;
+        int fileEdges = 0;
+        for (Map.Entry<Path, Set<String>> entry : edges.entrySet()) {
+            long from = fileIds.get(entry.getKey().toString());
+            for (String target : entry.getValue()) {
+                int type = typeIds.get(target);
+                byType[typeEdges++] = (long) type << 32 | from;
+                int declaring = declaringFile[type];
+                if (declaring >= 0 && declaring != from) {
+                    byFile[fileEdges++] = (long) declaring << 32 | from;
+                }
+            }
+        }
+        int[][] typeCsr = toCsr(byType, typeEdges, typeNames.length);
+        int[][] fileCsr = toCsr(byFile, fileEdges, fileNames.length);
+        return new ImpactIndex(StringTable.of(fileNames), StringTable.of(typeNames), declaringFile,
+                typeCsr[0], typeCsr[1], fileCsr[0], fileCsr[1]);
+    }
+
+    /**
+     * Returns the files declaring any of {@code fqns} plus every file that transitively depends on them,
+     * in path order. Types the index does not know contribute nothing.
+     */
+    public List<Path> affectedBy(Collection<String> fqns) {
+        BitSet visited = new BitSet(files.size());
+        int[] queue = new int[files.size()];
+        int tail = 0;
+        for (String fqn : fqns) {
+            int type = types.indexOf(fqn);
+            if (type < 0) {
+                continue;
+            }
+            if (declaringFile[type] >= 0 && !visited.get(declaringFile[type])) {
+                visited.set(declaringFile[type]);
+                queue[tail++] = declaringFile[type];
+            }
+            for (int e = typeOffsets[type]; e < typeOffsets[type + 1]; e++) {
+                int file = typeDependents[e];
+                if (!visited.get(file)) {
+                    visited.set(file);
+                    queue[tail++] = file;
+                }
+            }
+        }
+        for (int head = 0; head < tail; head++) {
+            int file = queue[head];
+            for (int e = fileOffsets[file]; e < fileOffsets[file + 1]; e++) {
+                int dependent = fileDependents[e];
+                if (!visited.get(dependent)) {
+                    visited.set(dependent);
+                    queue[tail++] = dependent;
+                }
+            }
+        }
+        List<Path> affected = new ArrayList<>(visited.cardinality());
+        visited.stream().forEach(file -> affected.add(Path.of(files.get(file))));
+        return affected;
+    }
+
+    public int fileCount() {
+        return files.size();
+    }
+
+    public int typeCount() {
+        return types.size();
+    }
+
+    public void save(Path path) throws IOException {
+        int[][] sections = {files.offsets, types.offsets, declaringFile, typeOffsets, typeDependents, fileOffsets, fileDependents};
+        int size = 4 * sections.length + 8 + files.bytes.length + types.bytes.length;
+        for (int[] section : sections) {
+            size += 4 * section.length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        for (int[] section : sections) {
+            buffer.putInt(section.length);
+            buffer.asIntBuffer().put(section);
+            buffer.position(buffer.position() + 4 * section.length);
+        }
+        buffer.putInt(files.bytes.length).put(files.bytes);
+        buffer.putInt(types.bytes.length).put(types.bytes);
+        new CacheStore(path, FORMAT_VERSION).write(buffer.array());
+    }
+
+    /**
+     * Reads an index written by {@link #save}; returns {@code null} when the file is missing or from another
+     * format version.
+     *
+     * @throws CorruptCacheException if the file fails its integrity check or describes an inconsistent index
+     */
+    public static ImpactIndex load(Path path) throws IOException {
+        byte[] payload = new CacheStore(path, FORMAT_VERSION).read();
+        if (payload == null) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        try {
+            int[] fileNameOffsets = readInts(buffer);
+            int[] typeNameOffsets = readInts(buffer);
+            int[] declaringFile = readInts(buffer);
+            int[] typeOffsets = readInts(buffer);
+            int[] typeDependents = readInts(buffer);
+            int[] fileOffsets = readInts(buffer);
+            int[] fileDependents = readInts(buffer);
+            StringTable files = new StringTable(fileNameOffsets, readBytes(buffer));
+            StringTable types = new StringTable(typeNameOffsets, readBytes(buffer));
+            int fileCount = files.size();
+            int typeCount = types.size();
+            boolean consistent = fileCount >= 0 && typeCount >= 0
+                    && files.isWellFormed() && types.isWellFormed()
+                    && declaringFile.length == typeCount
+                    && typeOffsets.length == typeCount + 1 && typeOffsets[typeCount] == typeDependents.length
+                    && fileOffsets.length == fileCount + 1 && fileOffsets[fileCount] == fileDependents.length
+                    && isMonotonic(typeOffsets) && isMonotonic(fileOffsets)
+                    && inRange(declaringFile, -1, fileCount) && inRange(typeDependents, 0, fileCount)
+                    && inRange(fileDependents, 0, fileCount);
+            if (!consistent || buffer.hasRemaining()) {
+                throw new CorruptCacheException(path, "inconsistent impact index");
+            }
+            return new ImpactIndex(files, types, declaringFile, typeOffsets, typeDependents, fileOffsets, fileDependents);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new CorruptCacheException(path, "truncated impact index");
+        }
+    }
+
+    private static boolean isSource(ClassIndexEntry entry) {
+        return entry != null && (entry.origin() == ClassOrigin.PROJECT_MAIN || entry.origin() == ClassOrigin.PROJECT_TEST);
+    }
+
+    /**
+     * Sorts packed {@code row << 32 | column} pairs and turns them into deduplicated CSR offsets and columns.
+     */
+    private static int[][] toCsr(long[] packed, int size, int rows) {
+        Arrays.parallelSort(packed, 0, size);
+        int[] offsets = new int[rows + 1];
+        int[] columns = new int[size];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (i > 0 && packed[i] == packed[i - 1]) {
+                continue;
+            }
+            offsets[(int) (packed[i] >>> 32) + 1]++;
+            columns[count++] = (int) packed[i];
+        }
+        for (int r = 0; r < rows; r++) {
+            offsets[r + 1] += offsets[r];
+        }
+        return new int[][]{offsets, Arrays.copyOf(columns, count)};
+    }
+
+    private static Map<String, Integer> ids(String[] sorted) {
+        Map<String, Integer> ids = new HashMap<>(sorted.length * 2);
+        for (int i = 0; i < sorted.length; i++) {
+            ids.put(sorted[i], i);
+        }
+        return ids;
+    }
+
+    private static boolean isMonotonic(int[] offsets) {
+        for (int i = 1; i < offsets.length; i++) {
+            if (offsets[i] < offsets[i - 1]) {
+                return false;
+            }
+        }
+        return offsets.length > 0 && offsets[0] == 0;
+    }
+
+    private static boolean inRange(int[] values, int min, int max) {
+        for (int value : values) {
+            if (value < min || value >= max) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int[] readInts(ByteBuffer buffer) {
+        int[] values = new int[length(buffer, 4)];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + 4 * values.length);
+        return values;
+    }
+
+    private static byte[] readBytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[length(buffer, 1)];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    // checked before allocating so a bad length cannot ask for more memory than the file holds
+    private static int length(ByteBuffer buffer, int width) {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining() / width) {
+            throw new BufferUnderflowException();
+        }
+        return length;
+    }
+
+    /**
+     * Sorted strings stored as one UTF-8 blob plus start offsets; entries are decoded on access, and lookups
+     * binary-search by decoding only the probed entries.
+     */
+    private static final class StringTable {
+        final int[] offsets;
+        final byte[] bytes;
+
+        StringTable(int[] offsets, byte[] bytes) {
+            this.offsets = offsets;
+            this.bytes = bytes;
+        }
+
+        static StringTable of(String[] sorted) {
+            byte[][] encoded = new byte[sorted.length][];
+            int[] offsets = new int[sorted.length + 1];
+            for (int i = 0; i < sorted.length; i++) {
+                encoded[i] = sorted[i].getBytes(StandardCharsets.UTF_8);
+                offsets[i + 1] = offsets[i] + encoded[i].length;
+            }
+            byte[] bytes = new byte[offsets[sorted.length]];
+            for (int i = 0; i < sorted.length; i++) {
+                System.arraycopy(encoded[i], 0, bytes, offsets[i], encoded[i].length);
+            }
+            return new StringTable(offsets, bytes);
+        }
+
+        int size() {
+            return offsets.length - 1;
+        }
+
+        String get(int i) {
+            return new String(bytes, offsets[i], offsets[i + 1] - offsets[i], StandardCharsets.UTF_8);
+        }
+
+        int indexOf(String value) {
+            int low = 0;
+            int high = size() - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int cmp = get(mid).compareTo(value);
+                if (cmp < 0) {
+                    low = mid + 1;
+                } else if (cmp > 0) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -1;
+        }
+
+        boolean isWellFormed() {
+            return isMonotonic(offsets) && offsets[offsets.length - 1] == bytes.length;
+        }
+    }
+}
@@ -1,8 +1,5 @@
 package com.example.importanalyzer.core;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-
 import java.io.IOException;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
@@ -11,89 +8,202 @@ import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
-import java.util.jar.JarEntry;
-import java.util.jar.JarFile;
+import java.util.function.BiPredicate;
 import java.util.stream.Collectors;
-import java.net.URL;
-import java.net.URLClassLoader;
-import java.util.Arrays;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
-import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
 
 public class ImportAnalyzer {
+    private static final int SUGGESTION_LIMIT = 3;
+
     private final ImportAnalyzerConfig config;
-    private final ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
-    private final ConcurrentMap<Path, URLClassLoader> loaderCache = new ConcurrentHashMap<>();
+    private volatile MemberChecker memberChecker;
+    private volatile PopularityTable popularity = PopularityTable.EMPTY;
+    private volatile Ranking ranking;
 
     public ImportAnalyzer(ImportAnalyzerConfig config) {
         this.config = config;
     }
 
+    /**
+     * Ranks candidates of subsequent {@link #evaluateForFile} calls with {@code table}; {@link #analyze()} builds
+     * its own table from the files it parses.
+     */
+    ImportAnalyzer withPopularity(PopularityTable table) {
+        this.popularity = table;
+        return this;
+    }
+
     public List<ImportIssue> analyze() {
+        List<ImportIssue> issues = new ArrayList<>();
+        run(false, issues::add);
+        return issues;
+    }
+
+    /**
+     * Analyzes the project and hands each issue to {@code sink} as soon as its file is evaluated, without keeping
+     * them; see {@link IssueSummary} for counting only.
+     */
+    public void analyze(IssueSink sink) {
+        run(false, sink);
+    }
+
+    /**
+     * Analyzes the project and returns the resolved dependency graph aggregated to packages and modules,
+     * including their cycles.
+     */
+    public DependencyReport dependencies() {
+        return run(true, issue -> { }).dependencies().report();
+    }
+
+    /**
+     * Analyzes the project and reports main types that no other file references, per module. Roots such as
+     * main classes are taken from {@link ImportAnalyzerConfig#deadTypeRoots()}.
+     */
+    public DeadTypeReport deadTypes() {
+        Analysis analysis = run(true, issue -> { });
+        DeadTypeDetector detector = new DeadTypeDetector(config.deadTypeRoots(), config.sourceRoots(),
+                file -> config.testSourceRoots().stream().anyMatch(file::startsWith));
+        return detector.detect(analysis.index(), analysis.parsed(), analysis.dependencies());
+    }
+
+    /**
+     * Returns the reverse dependency index used for impact queries. With caching enabled the index persisted
+     * by the last analysis is returned without re-analyzing, unless {@code refresh} is set.
+     */
+    public ImpactIndex impactIndex(boolean refresh) {
+        if (config.cacheEnabled() && !refresh) {
+            Path impactPath = ImpactIndex.pathFor(config.indexCachePath());
+            try {
+                ImpactIndex cached = ImpactIndex.load(impactPath);
+                if (cached != null) {
+                    return cached;
+                }
+            } catch (IOException e) {
+                new AnalysisTracker(config.metricsListeners(), config.analysisListeners(), config.progressInterval())
+                        .cacheError(impactPath, e);
+            }
+        }
+        return ImpactIndex.of(run(true, issue -> { }).dependencies());
+    }
+
+    /**
+     * Analyzes the project and rewrites the import blocks of the affected files in place, or only renders
+     * the would-be changes as diffs when {@code dryRun} is set. Ambiguous candidates are resolved by {@code policy}.
+     */
+    public FixReport fix(SelectPolicy policy, boolean dryRun) {
+        List<ImportIssue> issues = new ArrayList<>();
+        Analysis analysis = run(false, issues::add);
+        return new ImportFixer(analysis.index(), policy, dryRun, config.threads()).fix(analysis.parsed(), issues);
+    }
+
+    private Analysis run(boolean collectDependencies, IssueSink sink) {
+        AnalysisTracker tracker = new AnalysisTracker(config.metricsListeners(), config.analysisListeners(), config.progressInterval());
         ClassIndex index = new ClassIndex();
         ImportGraph graph = new ImportGraph();
         Map<Path, Long> timestamps = new HashMap<>();
 
-        IndexCache cache = new IndexCache(config.indexCachePath(), mapper);
-        if (config.cacheEnabled() && config.reuseIndex() && Files.exists(config.indexCachePath())) {
-            IndexCache.SerializedIndex serialized = cache.load();
-            if (serialized != null) {
-                serialized.entries().forEach(index::addEntry);
-                serialized.graph().forEach((file, types) -> types.forEach(t -> graph.recordUsage(Path.of(file), t)));
-                serialized.fileTimestamps().forEach((file, ts) -> timestamps.put(Path.of(file), ts));
+        // the cache is the only Jackson user; leave it unloaded when caching is off
+        IndexCache cache = config.cacheEnabled() ? new IndexCache(config.indexCachePath(), IndexCache.defaultMapper()) : null;
+        DeclarationCache declarationCache = new DeclarationCache();
+        if (cache != null) {
+            try (AnalysisTracker.Phase ignored = tracker.phase(AnalysisPhase.CACHE_IO)) {
+                IndexCache.SerializedIndex serialized = null;
+                try {
+                    serialized = cache.load();
+                    if (serialized != null && config.reuseIndex()) {
+                        graph.restore(serialized.graph());
+                    }
+                } catch (IOException e) {
+                    tracker.cacheError(config.indexCachePath(), e);
+                } catch (IllegalArgumentException e) {
+                    // the graph snapshot passed the checksum but does not add up; rebuild like any damaged cache
+                    serialized = null;
+                    tracker.cacheError(config.indexCachePath(),
+                            new CorruptCacheException(config.indexCachePath(), "inconsistent graph: " + e.getMessage()));
+                }
+                tracker.count(serialized != null ? MetricCounter.INDEX_CACHE_HITS : MetricCounter.INDEX_CACHE_MISSES, 1);
+                if (serialized != null) {
+                    declarationCache = new DeclarationCache(serialized.declarations());
+                    if (config.reuseIndex()) {
+                        serialized.entries().forEach(index::addEntry);
+                        serialized.fileTimestamps().forEach((file, ts) -> timestamps.put(Path.of(file), ts));
+                    }
+                }
             }
         }
 
-        Set<Path> files = collectJavaFiles(config.sourceRoots());
-        files.addAll(collectJavaFiles(config.testSourceRoots()));
-
+        Set<Path> files;
         Set<Path> siblingSourceRoots = new HashSet<>();
-        if (config.includeDependencies()) {
-            siblingSourceRoots.addAll(new DependencyResolver().findSiblingSourceRoots(config.projectRoot()));
+        Set<Path> siblingFiles;
+        try (AnalysisTracker.Phase ignored = tracker.phase(AnalysisPhase.DISCOVERY)) {
+            files = collectJavaFiles(config.sourceRoots());
+            files.addAll(collectJavaFiles(config.testSourceRoots()));
+            if (config.includeDependencies()) {
+                siblingSourceRoots.addAll(new DependencyResolver().findSiblingSourceRoots(config.projectRoot()));
+            }
+            siblingFiles = collectJavaFiles(new ArrayList<>(siblingSourceRoots));
         }
+        tracker.startProgress(files.size());
 
-        Set<Path> siblingFiles = collectJavaFiles(new ArrayList<>(siblingSourceRoots));
-
+        ParseQuarantine quarantine = SourceParser.quarantineFor(config, tracker);
+        SourceParser parser = new SourceParser(tracker, quarantine, config.errorPolicy(), config.parseTimeout());
+        List<SourceFileResult> parsed = new ArrayList<>(files.size());
         var executor = Executors.newFixedThreadPool(config.threads());
         try {
-            List<Callable<SourceFileResult>> tasks = files.stream().map(SourceFileResultCallable::new).map(c -> (Callable<SourceFileResult>) c).toList();
-            List<Future<SourceFileResult>> futures = executor.invokeAll(tasks);
-            for (int i = 0; i < futures.size(); i++) {
-                try {
-                    SourceFileResult result = futures.get(i).get();
-                    timestamps.put(result.file(), Files.getLastModifiedTime(result.file()).toMillis());
-                    registerDeclarations(index, result, config.sourceRoots(), config.testSourceRoots());
-                    result.usedTypes().forEach(type -> graph.recordUsage(result.file(), type));
-                } catch (Exception e) {
-                    throw new RuntimeException("Failed to analyze source " + ((SourceFileResultCallable) tasks.get(i)).path(), e);
+            try (AnalysisTracker.Phase ignored = tracker.phase(AnalysisPhase.PARSE)) {
+                List<Path> fileList = List.copyOf(files);
+                List<Callable<SourceFileResult>> tasks = fileList.stream()
+                        .map(path -> (Callable<SourceFileResult>) () -> {
+                            SourceFileResult result = parser.parse(path);
+                            if (result != null) {
+                                result.usedTypes().forEach(type -> graph.recordUsage(result.file(), type));
+                            }
+                            return result;
+                        })
+                        .toList();
+                List<Future<SourceFileResult>> futures = executor.invokeAll(tasks);
+                for (int i = 0; i < futures.size(); i++) {
+                    try {
+                        SourceFileResult result = futures.get(i).get();
+                        if (result == null) {
+                            continue;
+                        }
+                        timestamps.put(result.file(), Files.getLastModifiedTime(result.file()).toMillis());
+                        registerDeclarations(index, result, config.sourceRoots(), config.testSourceRoots());
+                        parsed.add(result);
+                    } catch (Exception e) {
+                        throw new RuntimeException("Failed to analyze source " + fileList.get(i), e);
+                    }
                 }
             }
 
             if (!siblingFiles.isEmpty()) {
-                List<Callable<SourceFileResult>> siblingTasks = siblingFiles.stream().map(SourceFileResultCallable::new).map(c -> (Callable<SourceFileResult>) c).toList();
-                List<Future<SourceFileResult>> siblingFutures = executor.invokeAll(siblingTasks);
-                for (int i = 0; i < siblingFutures.size(); i++) {
-                    try {
-                        SourceFileResult result = siblingFutures.get(i).get();
-                        registerDeclarations(index, result, List.copyOf(siblingSourceRoots), List.of());
-                    } catch (Exception e) {
-                        throw new RuntimeException("Failed to analyze dependency source " + ((SourceFileResultCallable) siblingTasks.get(i)).path(), e);
+                try (AnalysisTracker.Phase ignored = tracker.phase(AnalysisPhase.SIBLING_INDEXING)) {
+                    DeclarationCache declarations = declarationCache;
+                    List<Path> siblingList = List.copyOf(siblingFiles);
+                    List<Callable<SourceDeclarations>> siblingTasks = siblingList.stream()
+                            .map(path -> (Callable<SourceDeclarations>) () -> declarations.declarationsFor(path))
+                            .toList();
+                    List<Future<SourceDeclarations>> siblingFutures = executor.invokeAll(siblingTasks);
+                    for (int i = 0; i < siblingFutures.size(); i++) {
+                        try {
+                            registerDeclarations(index, siblingList.get(i), siblingFutures.get(i).get(), List.copyOf(siblingSourceRoots), List.of());
+                        } catch (Exception e) {
+                            throw new RuntimeException("Failed to analyze dependency source " + siblingList.get(i), e);
+                        }
                     }
+                    tracker.count(MetricCounter.DECLARATION_CACHE_HITS, declarations.hits());
+                    tracker.count(MetricCounter.DECLARATION_CACHE_MISSES, declarations.misses());
                 }
             }
         } catch (InterruptedException e) {
@@ -103,37 +213,91 @@ public class ImportAnalyzer {
         }
 
         if (config.includeDependencies()) {
-            scanDependencies(index);
+            try (AnalysisTracker.Phase ignored = tracker.phase(AnalysisPhase.DEPENDENCY_SCAN)) {
+                scanDependencies(index, tracker);
+            }
         }
 
-        seedJdk(index);
+        try (AnalysisTracker.Phase ignored = tracker.phase(AnalysisPhase.JDK_SEEDING)) {
+            seedJdk(index);
+        }
+        tracker.gauge(MetricGauge.INDEX_SIZE, index.size());
+        tracker.indexBuilt(index);
+        tracker.ready(index.size());
 
-        List<ImportIssue> issues = new ArrayList<>();
-        for (Path file : files) {
-            try {
-                SourceFileResult result = SourceFileAnalyzer.analyze(file);
-                issues.addAll(evaluateForFile(result, index));
-            } catch (IOException e) {
-                throw new RuntimeException(e);
+        List<Path> moduleRoots = new ArrayList<>(config.sourceRoots());
+        moduleRoots.addAll(config.testSourceRoots());
+        moduleRoots.addAll(siblingSourceRoots);
+        // cached runs always collect edges so impact queries can be answered from the persisted index
+        popularity = PopularityTable.build(parsed, index);
+        DependencyGraph dependencies = collectDependencies || cache != null ? new DependencyGraph(location -> moduleName(location, moduleRoots)) : null;
+        try (AnalysisTracker.Phase ignored = tracker.phase(AnalysisPhase.EVALUATION)) {
+            for (SourceFileResult result : parsed) {
+                evaluateForFile(result, index, dependencies).forEach(sink::accept);
             }
         }
 
-        if (config.cacheEnabled()) {
-            Map<String, Set<String>> graphSnapshot = new HashMap<>();
-            graph.viewFileToTypes().forEach((path, types) -> graphSnapshot.put(path.toString(), new HashSet<>(types)));
-            Map<String, Long> tsSnapshot = new HashMap<>();
-            timestamps.forEach((path, ts) -> tsSnapshot.put(path.toString(), ts));
-            cache.save(new IndexCache.SerializedIndex(new ArrayList<>(index.asFqnMap().values()), graphSnapshot, tsSnapshot));
+        if (cache != null) {
+            try (AnalysisTracker.Phase ignored = tracker.phase(AnalysisPhase.CACHE_IO)) {
+                Map<String, Long> tsSnapshot = new HashMap<>();
+                timestamps.forEach((path, ts) -> tsSnapshot.put(path.toString(), ts));
+                try {
+                    cache.save(new IndexCache.SerializedIndex(new ArrayList<>(index.asFqnMap().values()), graph.snapshot(), tsSnapshot,
+                            declarationCache.snapshot()));
+                } catch (IOException e) {
+                    tracker.cacheError(config.indexCachePath(), e);
+                }
+                SourceParser.save(quarantine, tracker);
+                Path impactPath = ImpactIndex.pathFor(config.indexCachePath());
+                try {
+                    ImpactIndex.of(dependencies).save(impactPath);
+                } catch (IOException e) {
+                    // the next impact query analyzes again, but a cache that never saves should still show up
+                    tracker.cacheError(impactPath, e);
+                }
+            }
         }
 
-        return issues;
+        return new Analysis(parsed, index, dependencies);
+    }
+
+    private record Analysis(List<SourceFileResult> parsed, ClassIndex index, DependencyGraph dependencies) {
+    }
+
+    private record Ranking(ClassIndex index, PopularityTable popularity, Map<String, Map<String, List<ClassIndexEntry>>> lists) {
+    }
+
+    /**
+     * Names the module a location belongs to: {@code app:main} for a file under {@code app/src/main/java},
+     * the root path for other source roots, the artifact file name for jars and class directories.
+     */
+    static String moduleName(Path location, List<Path> sourceRoots) {
+        if (location.toString().equals("<jdk>")) {
+            return "jdk";
+        }
+        for (Path root : sourceRoots) {
+            if (!location.startsWith(root)) {
+                continue;
+            }
+            int count = root.getNameCount();
+            if (count >= 4 && root.getFileName().toString().equals("java") && root.getName(count - 3).toString().equals("src")) {
+                return root.getName(count - 4) + ":" + root.getName(count - 2);
+            }
+            return root.toString();
+        }
+        Path fileName = location.getFileName();
+        return fileName != null ? fileName.toString() : location.toString();
     }
 
     private void registerDeclarations(ClassIndex index, SourceFileResult result, List<Path> mainRoots, List<Path> testRoots) {
-        ClassOrigin origin = originForFile(result.file(), mainRoots, testRoots);
-        for (String simple : result.declaredTypes()) {
-            String fqn = result.packageName().isEmpty() ? simple : result.packageName() + "." + simple;
-            index.addEntry(new ClassIndexEntry(fqn, simple, origin, result.file()));
+        registerDeclarations(index, result.file(), new SourceDeclarations(result.packageName(), result.declaredTypes()), mainRoots, testRoots);
+    }
+
+    private void registerDeclarations(ClassIndex index, Path file, SourceDeclarations declarations, List<Path> mainRoots, List<Path> testRoots) {
+        ClassOrigin origin = originForFile(file, mainRoots, testRoots);
+        for (String simple : declarations.declaredTypes()) {
+            String fqn = declarations.packageName().isEmpty() ? simple : declarations.packageName() + "." + simple;
+            index.addEntry(new ClassIndexEntry(fqn, simple, origin, file));
         }
     }
 
@@ -167,44 +331,21 @@ public class ImportAnalyzer {
         return files;
     }
 
-    private static class SourceFileResultCallable implements Callable<SourceFileResult> {
-        private final Path path;
-
-        SourceFileResultCallable(Path path) {
-            this.path = path;
-        }
-
-        Path path() {
-            return path;
-        }
-
-        @Override
-        public SourceFileResult call() throws Exception {
-            try {
-                return SourceFileAnalyzer.analyze(path);
-            } catch (Exception e) {
-                return fallbackResult();
-            }
-        }
-
-        private SourceFileResult fallbackResult() throws IOException {
-            String content = Files.readString(path);
-            String pkg = "";
-            Matcher pkgMatcher = Pattern.compile("package\\s+([a-zA-Z0-9_.]+)").matcher(content);
-            if (pkgMatcher.find()) {
-                pkg = pkgMatcher.group(1);
-            }
-            Set<String> declared = new HashSet<>();
-            Matcher declMatcher = Pattern.compile("\\b(class|interface|enum|record)\\s+([A-Za-z0-9_]+)").matcher(content);
-            while (declMatcher.find()) {
-                declared.add(declMatcher.group(2));
-            }
-            return new SourceFileResult(path, pkg, Map.of(), Map.of(), Map.of(), Map.of(), declared, Set.of(), Set.of(), Map.of());
-        }
+    List<ImportIssue> evaluateForFile(SourceFileResult result, ClassIndex index) {
+        return evaluateForFile(result, index, null);
     }
 
-    List<ImportIssue> evaluateForFile(SourceFileResult result, ClassIndex index) {
+    /**
+     * Evaluates one file; when {@code dependencies} is given, every import or same-package reference that
+     * resolves to an index entry is recorded as an edge as well.
+     */
+    List<ImportIssue> evaluateForFile(SourceFileResult result, ClassIndex index, DependencyGraph dependencies) {
         List<ImportIssue> issues = new ArrayList<>();
+        // baseline issues are dropped before their messages and suggestions are computed
+        IssueBaseline baseline = config.baseline();
+        long fileSeed = baseline.isEmpty() ? 0 : IssueBaseline.fileSeed(result.file(), config.projectRoot());
+        BiPredicate<IssueType, String> known = (type, symbol) -> !baseline.isEmpty()
+                && baseline.contains(IssueBaseline.fingerprint(fileSeed, type, symbol));
 
         Map<String, Integer> usedCounts = new HashMap<>();
         result.usedTypes().forEach(t -> usedCounts.merge(t, 1, Integer::sum));
@@ -213,16 +354,23 @@ public class ImportAnalyzer {
         result.wildcardImports().forEach((pkg, line) -> {
             List<ClassIndexEntry> candidates = index.byPackage(pkg);
             boolean used = candidates.stream().anyMatch(entry -> result.usedTypes().contains(entry.simpleName()));
+            if ((candidates.isEmpty() || !used) && known.test(IssueType.WILDCARD, pkg + ".*")) {
+                return;
+            }
             if (candidates.isEmpty()) {
                 issues.add(new WildcardIssue(result.file(), line, pkg + ".*", "Remove wildcard import; package not found"));
             } else if (!used) {
                 issues.add(new WildcardIssue(result.file(), line, pkg + ".*", "Remove unused wildcard import"));
+            } else if (dependencies != null) {
+                candidates.stream()
+                        .filter(entry -> result.usedTypes().contains(entry.simpleName()))
+                        .forEach(entry -> dependencies.record(result, entry));
             }
         });
 
         result.staticWildcardImports().forEach((pkg, line) -> {
             List<ClassIndexEntry> candidates = index.byPackage(pkg);
-            if (candidates.isEmpty()) {
+            if (candidates.isEmpty() && !known.test(IssueType.WILDCARD, pkg + ".*")) {
                 issues.add(new WildcardIssue(result.file(), line, pkg + ".*", "Remove wildcard import; package not found"));
             }
         });
@@ -234,17 +382,26 @@ public class ImportAnalyzer {
             if (entry == null) {
                 String pkg = fqn.contains(".") ? fqn.substring(0, fqn.lastIndexOf('.')) : "";
                 boolean packageKnown = !pkg.isEmpty() && !index.byPackage(pkg).isEmpty();
-                List<ClassIndexEntry> alternatives = index.bySimpleName(simple);
+                List<ClassIndexEntry> alternatives = rankedCandidates(index, simple, result.packageName());
                 if (packageKnown && !alternatives.isEmpty()) {
-                    issues.add(new WrongPackageIssue(result.file(), line, fqn, "Replace with: " + formatCandidates(alternatives)));
-                } else {
+                    if (known.test(IssueType.WRONG_PACKAGE, fqn)) {
+                        return;
+                    }
+                    issues.add(new WrongPackageIssue(result.file(), line, fqn, "Replace with: " + formatCandidates(alternatives),
+                            names(alternatives)));
+                } else if (!known.test(IssueType.UNRESOLVED_IMPORT, fqn)) {
                     String msg = pkg.isEmpty()
                             ? "Remove unresolved import or add the missing dependency"
                             : "Package " + pkg + " not found for import " + fqn;
-                    issues.add(new UnresolvedImportIssue(result.file(), line, fqn, msg));
+                    List<String> similar = index.similarFqns(fqn, SUGGESTION_LIMIT);
+                    issues.add(new UnresolvedImportIssue(result.file(), line, fqn, msg + didYouMean(similar), similar));
                 }
             } else if (!result.usedTypes().contains(simple)) {
-                issues.add(new UnusedImportIssue(result.file(), line, simple, "Remove unused import"));
+                if (!known.test(IssueType.UNUSED_IMPORT, simple)) {
+                    issues.add(new UnusedImportIssue(result.file(), line, simple, "Remove unused import"));
+                }
+            } else if (dependencies != null) {
+                dependencies.record(result, entry);
             }
         });
 
@@ -253,9 +410,19 @@ public class ImportAnalyzer {
             ClassIndexEntry entry = index.getByFqn(owningType);
             String simple = simpleName(fqn);
             if (entry == null) {
-                issues.add(new UnresolvedImportIssue(result.file(), line, fqn, "Remove unresolved import or add the missing dependency"));
+                if (known.test(IssueType.UNRESOLVED_IMPORT, fqn)) {
+                    return;
+                }
+                String member = fqn.substring(owningType.length());
+                List<String> similar = index.similarFqns(owningType, SUGGESTION_LIMIT).stream().map(type -> type + member).toList();
+                issues.add(new UnresolvedImportIssue(result.file(), line, fqn,
+                        "Remove unresolved import or add the missing dependency" + didYouMean(similar), similar));
             } else if (!result.usedIdentifiers().contains(simple)) {
-                issues.add(new UnusedImportIssue(result.file(), line, simple, "Remove unused import"));
+                if (!known.test(IssueType.UNUSED_IMPORT, simple)) {
+                    issues.add(new UnusedImportIssue(result.file(), line, simple, "Remove unused import"));
+                }
+            } else if (dependencies != null) {
+                dependencies.record(result, entry);
             }
         });
 
@@ -264,38 +431,80 @@ public class ImportAnalyzer {
                 continue;
             }
             boolean imported = result.imports().keySet().stream().anyMatch(fqn -> simpleName(fqn).equals(used));
-            boolean samePackage = index.byPackage(result.packageName()).stream().anyMatch(entry -> entry.simpleName().equals(used));
-            if (isJavaLang(used) || samePackage || imported) {
+            ClassIndexEntry samePackage = index.byPackage(result.packageName()).stream()
+                    .filter(entry -> entry.simpleName().equals(used))
+                    .findFirst()
+                    .orElse(null);
+            if (samePackage != null && dependencies != null) {
+                dependencies.record(result, samePackage);
+            }
+            if (isJavaLang(used) || samePackage != null || imported) {
                 continue;
             }
-            List<ClassIndexEntry> candidates = index.bySimpleName(used);
+            List<ClassIndexEntry> candidates = rankedCandidates(index, used, result.packageName());
             Set<String> invokedMembers = result.methodCallsByType().getOrDefault(used, Set.of());
             List<ClassIndexEntry> narrowed = filterByMembers(candidates, invokedMembers);
+            if (known.test(candidates.isEmpty() || narrowed.size() == 1 ? IssueType.MISSING_IMPORT : IssueType.AMBIGUOUS_IMPORT, used)) {
+                continue;
+            }
             if (candidates.isEmpty()) {
-                issues.add(new MissingImportIssue(result.file(), 1, used, "Add missing import or dependency for type " + used));
+                issues.add(new MissingImportIssue(result.file(), 1, used, "Add missing import or dependency for type " + used
+                        + didYouMean(index.similarSimpleNames(used, SUGGESTION_LIMIT))));
             } else if (narrowed.size() == 1) {
-                issues.add(new MissingImportIssue(result.file(), 1, used, "Add import for " + narrowed.get(0).fullyQualifiedName()));
+                issues.add(new MissingImportIssue(result.file(), 1, used, "Add import for " + narrowed.get(0).fullyQualifiedName(),
+                        List.of(narrowed.get(0).fullyQualifiedName())));
             } else {
-                issues.add(new AmbiguousImportIssue(result.file(), 1, used, "Choose one import: " + formatCandidates(narrowed)));
+                issues.add(new AmbiguousImportIssue(result.file(), 1, used, "Choose one import: " + formatCandidates(narrowed),
+                        names(narrowed)));
             }
         }
         return issues;
     }
 
+    private static String didYouMean(List<String> similar) {
+        return similar.isEmpty() ? "" : "; did you mean " + String.join(", ", similar) + "?";
+    }
+
     private boolean isJavaLang(String used) {
         return List.of("String", "Object", "System", "Exception", "RuntimeException", "Iterable").contains(used);
     }
 
-    private String formatCandidates(List<ClassIndexEntry> candidates) {
-        List<ClassIndexEntry> sorted = new ArrayList<>(candidates);
-        sorted.sort(Comparator
-                .comparingInt((ClassIndexEntry e) -> switch (e.origin()) {
-                    case PROJECT_MAIN -> 0;
-                    case PROJECT_TEST -> 1;
-                    case DEPENDENCY_JAR -> 2;
-                    case JDK -> 3;
-                })
-                .thenComparing(ClassIndexEntry::fullyQualifiedName));
+    /**
+     * Candidates for {@code simpleName} in {@link PopularityTable#order popularity order} for a file in
+     * {@code packageName}. Each list is sorted once per index and table and then shared by every file of the
+     * package; the subsets taken from it downstream keep its order, so queries do not sort again.
+     */
+    private List<ClassIndexEntry> rankedCandidates(ClassIndex index, String simpleName, String packageName) {
+        PopularityTable table = popularity;
+        Ranking current = ranking;
+        if (current == null || current.index() != index || current.popularity() != table) {
+            current = new Ranking(index, table, new ConcurrentHashMap<>());
+            ranking = current;
+        }
+        return current.lists()
+                .computeIfAbsent(packageName, pkg -> new ConcurrentHashMap<>())
+                .computeIfAbsent(simpleName, name -> {
+                    List<ClassIndexEntry> candidates = new ArrayList<>(index.bySimpleName(name));
+                    if (candidates.isEmpty()) {
+                        return List.of();
+                    }
+                    candidates.sort(table.order(packageName));
+                    return List.copyOf(candidates);
+                });
+    }
+
+    /**
+     * Distinct FQNs of the candidates for {@code simpleName}, most popular in {@code packageName} first.
+     */
+    List<String> rankedNames(ClassIndex index, String simpleName, String packageName) {
+        return names(rankedCandidates(index, simpleName, packageName));
+    }
+
+    private static List<String> names(List<ClassIndexEntry> ranked) {
+        return ranked.stream().map(ClassIndexEntry::fullyQualifiedName).distinct().toList();
+    }
+
+    private String formatCandidates(List<ClassIndexEntry> sorted) {
         int limit = 5;
         String joined = sorted.stream()
                 .limit(limit)
@@ -307,16 +516,14 @@ public class ImportAnalyzer {
         return joined;
     }
 
-    private void scanDependencies(ClassIndex index) {
+    private void scanDependencies(ClassIndex index, AnalysisTracker tracker) {
         DependencyResolver resolver = new DependencyResolver();
         Set<Path> artifacts = resolver.findDependencyArtifacts(config.projectRoot());
+        tracker.count(MetricCounter.ARTIFACTS_SCANNED, artifacts.size());
         var executor = Executors.newFixedThreadPool(Math.max(1, config.threads() / 2));
         List<Callable<Void>> tasks = artifacts.stream().map(path -> (Callable<Void>) () -> {
-            if (Files.isDirectory(path)) {
-                scanClassDirectory(index, path);
-            } else {
-                scanJar(index, path);
-            }
+            AnalysisTracker.Work work = tracker.startScan();
+            tracker.artifactScanned(path, ArtifactIndexer.scan(index, path, config.javaRelease()), work);
             return null;
         }).toList();
         try {
@@ -328,46 +535,6 @@ public class ImportAnalyzer {
         }
     }
 
-    private void scanJar(ClassIndex index, Path jar) {
-        try (JarFile jarFile = new JarFile(jar.toFile())) {
-            jarFile.stream()
-                    .filter(e -> e.getName().endsWith(".class") && !e.isDirectory())
-                    .forEach(entry -> addJarEntry(index, entry, jar));
-        } catch (IOException ignored) {
-        }
-    }
-
-    private void scanClassDirectory(ClassIndex index, Path directory) {
-        try {
-            Files.walk(directory)
-                    .filter(path -> path.toString().endsWith(".class"))
-                    .forEach(path -> {
-                        String relative = directory.relativize(path).toString();
-                        if (relative.contains("$")) {
-                            relative = relative.substring(0, relative.indexOf('$')) + ".class";
-                        }
-                        if (relative.endsWith(".class")) {
-                            String fqn = relative.substring(0, relative.length() - 6)
-                                    .replace('/', '.')
-                                    .replace('\\', '.');
-                            if (!fqn.contains("module-info")) {
-                                index.addEntry(new ClassIndexEntry(fqn, simpleName(fqn), ClassOrigin.DEPENDENCY_JAR, directory));
-                            }
-                        }
-                    });
-        } catch (IOException ignored) {
-        }
-    }
-
-    private void addJarEntry(ClassIndex index, JarEntry entry, Path jar) {
-        String name = entry.getName().replace('/', '.').replace(".class", "");
-        if (name.contains("$")) {
-            name = name.substring(0, name.indexOf('$'));
-        }
-        String simple = simpleName(name);
-        index.addEntry(new ClassIndexEntry(name, simple, ClassOrigin.DEPENDENCY_JAR, jar));
-    }
-
     private String simpleName(String fqn) {
         int idx = fqn.lastIndexOf('.') ;
         return idx >=0 ? fqn.substring(idx+1) : fqn;
@@ -391,7 +558,7 @@ public class ImportAnalyzer {
 
         List<ClassIndexEntry> matching = new ArrayList<>();
         for (ClassIndexEntry entry : deduped) {
-            if (supportsMembers(entry, members)) {
+            if (memberChecker().supportsMembers(entry, members)) {
                 matching.add(entry);
             }
         }
@@ -400,110 +567,23 @@ public class ImportAnalyzer {
             return matching;
         }
 
-        // Heuristic ranking when reflective checks could not validate members (e.g. missing deps)
-        deduped.sort(Comparator.comparingInt((ClassIndexEntry e) -> heuristicScore(e, members)).reversed());
+        // keep the most used candidates when reflective checks could not validate members (e.g. missing deps)
         int limit = Math.min(5, deduped.size());
         return deduped.subList(0, limit);
     }
 
-    private int heuristicScore(ClassIndexEntry entry, Set<String> members) {
-        int score = 0;
-        score += switch (entry.origin()) {
-            case PROJECT_MAIN -> 40;
-            case PROJECT_TEST -> 30;
-            case JDK -> 20;
-            case DEPENDENCY_JAR -> 10;
-        };
-
-        String fqn = entry.fullyQualifiedName();
-        if (fqn.startsWith("org.junit.jupiter.api.Assertions")) {
-            score += 25;
-        }
-        if (fqn.startsWith("org.junit.Assert")) {
-            score += 20;
-        }
-        if (fqn.contains("junit")) {
-            score += 10;
-        }
-        if (members.stream().anyMatch(m -> m.startsWith("assert"))) {
-            if (fqn.contains("assert")) {
-                score += 5;
-            }
-        }
-        return score;
-    }
-
-    private boolean supportsMembers(ClassIndexEntry entry, Set<String> members) {
-        return switch (entry.origin()) {
-            case PROJECT_MAIN, PROJECT_TEST -> supportsMembersFromSource(entry.location(), members);
-            case DEPENDENCY_JAR -> supportsMembersFromArtifact(entry, members);
-            case JDK -> supportsMembersFromJdk(entry.fullyQualifiedName(), members);
-        };
-    }
-
-    private boolean supportsMembersFromSource(Path source, Set<String> members) {
-        if (source == null || !Files.isRegularFile(source)) {
-            return false;
-        }
-        try {
-            var cu = com.github.javaparser.StaticJavaParser.parse(Files.readString(source));
-            var declared = new HashSet<String>();
-            cu.findAll(com.github.javaparser.ast.body.MethodDeclaration.class).forEach(md -> {
-                if (md.isStatic()) {
-                    declared.add(md.getNameAsString());
-                }
-            });
-            return members.stream().allMatch(declared::contains);
-        } catch (IOException | RuntimeException e) {
-            return false;
-        }
-    }
-
-    private boolean supportsMembersFromJdk(String fqn, Set<String> members) {
-        try {
-            Class<?> clazz = Class.forName(fqn);
-            return hasAllStaticMethods(clazz, members);
-        } catch (ClassNotFoundException | LinkageError e) {
-            return false;
-        }
-    }
-
-    private boolean supportsMembersFromArtifact(ClassIndexEntry entry, Set<String> members) {
-        Path location = entry.location();
-        if (location == null) {
-            return false;
-        }
-        try {
-            URLClassLoader loader = loaderCache.computeIfAbsent(location, this::createLoader);
-            Class<?> clazz = Class.forName(entry.fullyQualifiedName(), false, loader);
-            return hasAllStaticMethods(clazz, members);
-        } catch (ClassNotFoundException | LinkageError e) {
-            return false;
-        }
-    }
-
-    private URLClassLoader createLoader(Path location) {
-        try {
-            URL url = location.toUri().toURL();
-            return new URLClassLoader(new URL[]{url}, getClass().getClassLoader());
-        } catch (Exception e) {
-            return new URLClassLoader(new URL[]{});
-        }
-    }
-
-    private boolean hasAllStaticMethods(Class<?> clazz, Set<String> members) {
-        try {
-            List<Method> methods = Arrays.asList(clazz.getMethods());
-            for (String name : members) {
-                boolean found = methods.stream().anyMatch(m -> m.getName().equals(name) && Modifier.isStatic(m.getModifiers()));
-                if (!found) {
-                    return false;
+    private MemberChecker memberChecker() {
+        MemberChecker checker = memberChecker;
+        if (checker == null) {
+            synchronized (this) {
+                checker = memberChecker;
+                if (checker == null) {
+                    checker = new MemberChecker();
+                    memberChecker = checker;
                 }
             }
-            return true;
-        } catch (LinkageError e) {
-            return false;
         }
+        return checker;
     }
 
     private void seedJdk(ClassIndex index) {
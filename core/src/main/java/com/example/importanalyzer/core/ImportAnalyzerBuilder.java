@@ -1,6 +1,7 @@
 package com.example.importanalyzer.core;
 
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -13,6 +14,15 @@ public class ImportAnalyzerBuilder {
     private Path indexCachePath = Path.of(".import-analyzer-cache.json");
     private boolean reuseIndex = false;
     private boolean cacheEnabled = true;
+    private final List<MetricsListener> metricsListeners = new ArrayList<>();
+    private boolean jmxEnabled = false;
+    private final List<AnalysisListener> analysisListeners = new ArrayList<>();
+    private Duration progressInterval = Duration.ofMillis(100);
+    private Duration parseTimeout = Duration.ofSeconds(30);
+    private ParseErrorPolicy errorPolicy = ParseErrorPolicy.FALLBACK;
+    private DeadTypeRoots deadTypeRoots = DeadTypeRoots.defaults();
+    private int javaRelease = Runtime.version().feature();
+    private IssueBaseline baseline = IssueBaseline.EMPTY;
 
     public ImportAnalyzerBuilder sourceRoot(Path path) {
         this.sourceRoots.add(path);
@@ -54,11 +64,65 @@ public class ImportAnalyzerBuilder {
         return this;
     }
 
+    public ImportAnalyzerBuilder metricsListener(MetricsListener listener) {
+        this.metricsListeners.add(listener);
+        return this;
+    }
+
+    public ImportAnalyzerBuilder jmxEnabled(boolean jmxEnabled) {
+        this.jmxEnabled = jmxEnabled;
+        return this;
+    }
+
+    public ImportAnalyzerBuilder analysisListener(AnalysisListener listener) {
+        this.analysisListeners.add(listener);
+        return this;
+    }
+
+    public ImportAnalyzerBuilder progressInterval(Duration interval) {
+        this.progressInterval = interval;
+        return this;
+    }
+
+    /**
+     * Per-file parse deadline; files exceeding it fall back to declaration-only extraction.
+     * {@link Duration#ZERO} disables the deadline.
+     */
+    public ImportAnalyzerBuilder parseTimeout(Duration timeout) {
+        this.parseTimeout = timeout;
+        return this;
+    }
+
+    public ImportAnalyzerBuilder errorPolicy(ParseErrorPolicy errorPolicy) {
+        this.errorPolicy = errorPolicy;
+        return this;
+    }
+
+    public ImportAnalyzerBuilder deadTypeRoots(DeadTypeRoots roots) {
+        this.deadTypeRoots = roots;
+        return this;
+    }
+
+    /**
+     * Java release the project targets; multi-release dependency jars are indexed as seen by that release.
+     * Defaults to the running JVM's feature version.
+     */
+    public ImportAnalyzerBuilder javaRelease(int release) {
+        this.javaRelease = release;
+        return this;
+    }
+
+    public ImportAnalyzerBuilder baseline(IssueBaseline baseline) {
+        this.baseline = baseline;
+        return this;
+    }
+
     public ImportAnalyzer build() {
         return new ImportAnalyzer(buildConfig());
     }
 
     public ImportAnalyzerConfig buildConfig() {
-        return new ImportAnalyzerConfig(sourceRoots, testSourceRoots, projectRoot, includeDependencies, threads, indexCachePath, reuseIndex, cacheEnabled);
+        return new ImportAnalyzerConfig(sourceRoots, testSourceRoots, projectRoot, includeDependencies, threads, indexCachePath, reuseIndex, cacheEnabled,
+                metricsListeners, jmxEnabled, analysisListeners, progressInterval, parseTimeout, errorPolicy, deadTypeRoots, javaRelease, baseline);
     }
 }
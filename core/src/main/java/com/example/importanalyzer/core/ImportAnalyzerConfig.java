@@ -1,6 +1,7 @@
 package com.example.importanalyzer.core;
 
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -13,8 +14,49 @@ public class ImportAnalyzerConfig {
     private final Path indexCachePath;
     private final boolean reuseIndex;
     private final boolean cacheEnabled;
+    private final List<MetricsListener> metricsListeners;
+    private final boolean jmxEnabled;
+    private final List<AnalysisListener> analysisListeners;
+    private final Duration progressInterval;
+    private final Duration parseTimeout;
+    private final ParseErrorPolicy errorPolicy;
+    private final DeadTypeRoots deadTypeRoots;
+    private final int javaRelease;
+    private final IssueBaseline baseline;
 
     public ImportAnalyzerConfig(List<Path> sourceRoots, List<Path> testSourceRoots, Path projectRoot, boolean includeDependencies, int threads, Path indexCachePath, boolean reuseIndex, boolean cacheEnabled) {
+        this(sourceRoots, testSourceRoots, projectRoot, includeDependencies, threads, indexCachePath, reuseIndex, cacheEnabled, List.of(), false,
+                List.of(), Duration.ofMillis(100), Duration.ofSeconds(30), ParseErrorPolicy.FALLBACK);
+    }
+
+    public ImportAnalyzerConfig(List<Path> sourceRoots, List<Path> testSourceRoots, Path projectRoot, boolean includeDependencies, int threads, Path indexCachePath, boolean reuseIndex, boolean cacheEnabled,
+                                List<MetricsListener> metricsListeners, boolean jmxEnabled,
+                                List<AnalysisListener> analysisListeners, Duration progressInterval, Duration parseTimeout,
+                                ParseErrorPolicy errorPolicy) {
+        this(sourceRoots, testSourceRoots, projectRoot, includeDependencies, threads, indexCachePath, reuseIndex, cacheEnabled, metricsListeners, jmxEnabled,
+                analysisListeners, progressInterval, parseTimeout, errorPolicy, DeadTypeRoots.defaults());
+    }
+
+    public ImportAnalyzerConfig(List<Path> sourceRoots, List<Path> testSourceRoots, Path projectRoot, boolean includeDependencies, int threads, Path indexCachePath, boolean reuseIndex, boolean cacheEnabled,
+                                List<MetricsListener> metricsListeners, boolean jmxEnabled,
+                                List<AnalysisListener> analysisListeners, Duration progressInterval, Duration parseTimeout,
+                                ParseErrorPolicy errorPolicy, DeadTypeRoots deadTypeRoots) {
+        this(sourceRoots, testSourceRoots, projectRoot, includeDependencies, threads, indexCachePath, reuseIndex, cacheEnabled, metricsListeners, jmxEnabled,
+                analysisListeners, progressInterval, parseTimeout, errorPolicy, deadTypeRoots, Runtime.version().feature());
+    }
+
+    public ImportAnalyzerConfig(List<Path> sourceRoots, List<Path> testSourceRoots, Path projectRoot, boolean includeDependencies, int threads, Path indexCachePath, boolean reuseIndex, boolean cacheEnabled,
+                                List<MetricsListener> metricsListeners, boolean jmxEnabled,
+                                List<AnalysisListener> analysisListeners, Duration progressInterval, Duration parseTimeout,
+                                ParseErrorPolicy errorPolicy, DeadTypeRoots deadTypeRoots, int javaRelease) {
+        this(sourceRoots, testSourceRoots, projectRoot, includeDependencies, threads, indexCachePath, reuseIndex, cacheEnabled, metricsListeners, jmxEnabled,
+                analysisListeners, progressInterval, parseTimeout, errorPolicy, deadTypeRoots, javaRelease, IssueBaseline.EMPTY);
+    }
+
+    public ImportAnalyzerConfig(List<Path> sourceRoots, List<Path> testSourceRoots, Path projectRoot, boolean includeDependencies, int threads, Path indexCachePath, boolean reuseIndex, boolean cacheEnabled,
+                                List<MetricsListener> metricsListeners, boolean jmxEnabled,
+                                List<AnalysisListener> analysisListeners, Duration progressInterval, Duration parseTimeout,
+                                ParseErrorPolicy errorPolicy, DeadTypeRoots deadTypeRoots, int javaRelease, IssueBaseline baseline) {
         this.sourceRoots = List.copyOf(sourceRoots);
         this.testSourceRoots = List.copyOf(testSourceRoots);
         this.projectRoot = projectRoot;
@@ -23,6 +65,15 @@ public class ImportAnalyzerConfig {
         this.indexCachePath = indexCachePath;
         this.reuseIndex = reuseIndex;
         this.cacheEnabled = cacheEnabled;
+        this.metricsListeners = List.copyOf(metricsListeners);
+        this.jmxEnabled = jmxEnabled;
+        this.analysisListeners = List.copyOf(analysisListeners);
+        this.progressInterval = progressInterval;
+        this.parseTimeout = parseTimeout;
+        this.errorPolicy = errorPolicy;
+        this.deadTypeRoots = deadTypeRoots;
+        this.javaRelease = javaRelease;
+        this.baseline = baseline == null ? IssueBaseline.EMPTY : baseline;
     }
 
     public List<Path> sourceRoots() {
@@ -56,4 +107,43 @@ public class ImportAnalyzerConfig {
     public boolean cacheEnabled() {
         return cacheEnabled;
     }
+
+    public List<MetricsListener> metricsListeners() {
+        return metricsListeners;
+    }
+
+    public boolean jmxEnabled() {
+        return jmxEnabled;
+    }
+
+    public List<AnalysisListener> analysisListeners() {
+        return analysisListeners;
+    }
+
+    public Duration progressInterval() {
+        return progressInterval;
+    }
+
+    public Duration parseTimeout() {
+        return parseTimeout;
+    }
+
+    public ParseErrorPolicy errorPolicy() {
+        return errorPolicy;
+    }
+
+    public DeadTypeRoots deadTypeRoots() {
+        return deadTypeRoots;
+    }
+
+    public int javaRelease() {
+        return javaRelease;
+    }
+
+    /**
+     * Known issues that analysis skips before they are formatted or reported.
+     */
+    public IssueBaseline baseline() {
+        return baseline;
+    }
 }
@@ -1,12 +1,15 @@
 package com.example.importanalyzer.core;
 
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 /**
- * Asynchronous API intended for consumers embedding the analyzer as a library.
+ * Asynchronous API intended for consumers embedding the analyzer as a library. Services own worker
+ * threads and must be closed when no longer needed.
  */
-public interface ImportAnalyzerService {
+public interface ImportAnalyzerService extends AutoCloseable {
 
     /**
      * Starts a background scan of the configured project if it is not already running.
@@ -19,8 +22,50 @@ public interface ImportAnalyzerService {
     ScanResult status();
 
     /**
-     * Requests a scan for a particular file. If a background scan is still running, a progress-only
-     * result is returned. Otherwise a resolved action for the file is produced.
+     * Requests a scan for a particular file. If a background scan is still running, the file, its package and
+     * the packages it imports move to the front of the parse queue and the future completes as soon as they are
+     * indexed, with a result that is not {@link ScanResult#complete() complete}. Otherwise a resolved action for
+     * the file is produced from the full index.
      */
     CompletableFuture<ScanResult> scan(Path file);
+
+    /**
+     * Evaluates the whole project against the warm index once it is ready. Sources changed on disk since
+     * they were last parsed are re-parsed first, so repeated calls only pay for what changed.
+     */
+    CompletableFuture<List<ImportIssue>> issues();
+
+    /**
+     * Registers a listener for phase transitions, throttled progress ticks and the ready event. Closing
+     * the returned subscription stops delivery.
+     */
+    Subscription subscribe(AnalysisListener listener);
+
+    /**
+     * Starts the scan if needed and returns a future that completes with the final status once the index
+     * is ready, or exceptionally with a {@link java.util.concurrent.TimeoutException} after {@code timeout}.
+     */
+    CompletableFuture<ScanResult> awaitReady(Duration timeout);
+
+    /**
+     * Cancels a running scan. The index published by the last completed scan stays in place; a later
+     * {@link #startScan()} or {@link #scan(Path)} starts over.
+     *
+     * @return {@code true} if a running scan was cancelled
+     */
+    boolean cancelScan();
+
+    /**
+     * Cancels any running scan and releases the service's threads. Further scans are rejected.
+     */
+    @Override
+    void close();
+
+    /**
+     * Handle returned by {@link #subscribe(AnalysisListener)}.
+     */
+    interface Subscription extends AutoCloseable {
+        @Override
+        void close();
+    }
 }
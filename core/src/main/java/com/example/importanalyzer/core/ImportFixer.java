@@ -0,0 +1,373 @@
+package com.example.importanalyzer.core;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Applies import fixes by splicing the import block of each file. Only the ranges of the affected import
+ * declarations recorded by {@link SourceFileAnalyzer} are edited; the rest of the file is copied through
+ * verbatim and never re-printed from the AST. Files are fixed in parallel and replaced atomically through a
+ * temp file in the same directory.
+ */
+public class ImportFixer {
+    private final ClassIndex index;
+    private final SelectPolicy policy;
+    private final boolean dryRun;
+    private final int threads;
+
+    public ImportFixer(ClassIndex index, SelectPolicy policy, boolean dryRun, int threads) {
+        this.index = index;
+        this.policy = policy;
+        this.dryRun = dryRun;
+        this.threads = Math.max(1, threads);
+    }
+
+    public FixReport fix(Collection<SourceFileResult> results, List<ImportIssue> issues) {
+        Map<Path, List<ImportIssue>> byFile = new HashMap<>();
+        issues.forEach(issue -> byFile.computeIfAbsent(issue.file(), k -> new ArrayList<>()).add(issue));
+        List<Callable<FileFix>> tasks = new ArrayList<>();
+        for (SourceFileResult result : results) {
+            List<ImportIssue> fileIssues = byFile.get(result.file());
+            if (fileIssues != null) {
+                tasks.add(() -> fixFile(result, fileIssues));
+            }
+        }
+
+        List<FileFix> fixes = new ArrayList<>(tasks.size());
+        var executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (Future<FileFix> future : executor.invokeAll(tasks)) {
+                fixes.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to fix imports", e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+        fixes.sort(Comparator.comparing(FileFix::file));
+        return new FixReport(fixes, dryRun);
+    }
+
+    FileFix fixFile(SourceFileResult result, List<ImportIssue> issues) {
+        FilePlan plan = new FilePlan(result);
+        issues.forEach(plan::accept);
+        if (plan.isEmpty()) {
+            return new FileFix(result.file(), false, List.of(), List.of(), plan.skipped, "");
+        }
+        try {
+            // decoded exactly as the parser saw it, so that recorded positions line up and a byte order mark is not text
+            SourceText source = SourceText.read(result.file());
+            String original = source.toString();
+            String updated = plan.apply(original);
+            if (updated == null) {
+                plan.skipped.add("file changed since analysis");
+                return new FileFix(result.file(), false, List.of(), List.of(), plan.skipped, "");
+            }
+            String diff = "";
+            if (dryRun) {
+                diff = UnifiedDiff.render(result.file().toString(), original, updated);
+            } else {
+                write(result.file(), source.encode(updated));
+            }
+            return new FileFix(result.file(), true, plan.added, plan.removed, plan.skipped, diff);
+        } catch (IOException e) {
+            plan.skipped.add("I/O error: " + e.getMessage());
+            return new FileFix(result.file(), false, List.of(), List.of(), plan.skipped, "");
+        }
+    }
+
+    private static void write(Path file, byte[] content) throws IOException {
+        Path temp = Files.createTempFile(file.toAbsolutePath().getParent(), "." + file.getFileName(), ".tmp");
+        try {
+            try {
+                Files.setPosixFilePermissions(temp, Files.getPosixFilePermissions(file));
+            } catch (UnsupportedOperationException ignored) {
+            }
+            Files.write(temp, content);
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static String simpleName(String fqn) {
+        int idx = fqn.lastIndexOf('.');
+        return idx >= 0 ? fqn.substring(idx + 1) : fqn;
+    }
+
+    private final class FilePlan {
+        private final SourceFileResult result;
+        private final Set<ImportSpan> deletes = new LinkedHashSet<>();
+        private final Map<ImportSpan, String> replacements = new LinkedHashMap<>();
+        private final Set<String> additions = new TreeSet<>();
+        private final List<String> added = new ArrayList<>();
+        private final List<String> removed = new ArrayList<>();
+        private final List<String> skipped = new ArrayList<>();
+
+        FilePlan(SourceFileResult result) {
+            this.result = result;
+        }
+
+        boolean isEmpty() {
+            return deletes.isEmpty() && replacements.isEmpty() && additions.isEmpty();
+        }
+
+        void accept(ImportIssue issue) {
+            if (issue instanceof UnusedImportIssue) {
+                delete(issue, span -> !span.isAsterisk() && simpleName(span.name()).equals(issue.symbol()));
+            } else if (issue instanceof UnresolvedImportIssue) {
+                delete(issue, span -> !span.isAsterisk() && span.name().equals(issue.symbol()));
+            } else if (issue instanceof WildcardIssue) {
+                delete(issue, span -> span.isAsterisk() && (span.name() + ".*").equals(issue.symbol()));
+            } else if (issue instanceof WrongPackageIssue) {
+                Optional<ImportSpan> span = find(issue.line(), s -> !s.isStatic() && !s.isAsterisk() && s.name().equals(issue.symbol()));
+                String choice = choose(issue);
+                if (span.isEmpty()) {
+                    skipped.add(issue.symbol() + ": import not found");
+                } else if (choice != null && !replacements.containsKey(span.get())) {
+                    replacements.put(span.get(), choice);
+                    removed.add(issue.symbol());
+                    added.add(choice);
+                }
+            } else if (issue instanceof MissingImportIssue || issue instanceof AmbiguousImportIssue) {
+                String choice = choose(issue);
+                if (choice != null) {
+                    add(choice);
+                }
+            }
+        }
+
+        private void delete(ImportIssue issue, Predicate<ImportSpan> matcher) {
+            Optional<ImportSpan> span = find(issue.line(), matcher);
+            if (span.isEmpty()) {
+                skipped.add(issue.symbol() + ": import not found");
+            } else if (deletes.add(span.get())) {
+                removed.add(span.get().name() + (span.get().isAsterisk() ? ".*" : ""));
+            }
+        }
+
+        private Optional<ImportSpan> find(int line, Predicate<ImportSpan> matcher) {
+            return result.importSpans().stream()
+                    .filter(span -> span.range().beginLine() == line)
+                    .filter(matcher)
+                    .findFirst();
+        }
+
+        private String choose(ImportIssue issue) {
+            List<String> candidates = issue.candidates();
+            if (candidates.isEmpty()) {
+                skipped.add(issue.symbol() + ": no candidates");
+                return null;
+            }
+            if (candidates.size() == 1) {
+                return candidates.get(0);
+            }
+            String choice = switch (policy) {
+                case FIRST -> candidates.get(0);
+                case PREFER_LOCAL -> {
+                    List<String> local = candidates.stream()
+                            .filter(fqn -> {
+                                ClassIndexEntry entry = index.getByFqn(fqn);
+                                return entry != null && entry.origin() == ClassOrigin.PROJECT_MAIN;
+                            })
+                            .toList();
+                    yield local.size() == 1 ? local.get(0) : null;
+                }
+                case SKIP -> null;
+            };
+            if (choice == null) {
+                skipped.add(issue.symbol() + ": choose one of " + String.join(", ", candidates));
+            }
+            return choice;
+        }
+
+        private void add(String fqn) {
+            String simple = simpleName(fqn);
+            for (ImportSpan span : result.importSpans()) {
+                if (span.isStatic() || span.isAsterisk() || deletes.contains(span) || replacements.containsKey(span)) {
+                    continue;
+                }
+                if (span.name().equals(fqn)) {
+                    return;
+                }
+                if (simpleName(span.name()).equals(simple)) {
+                    skipped.add(fqn + ": conflicts with import " + span.name());
+                    return;
+                }
+            }
+            boolean clash = additions.stream().anyMatch(other -> !other.equals(fqn) && simpleName(other).equals(simple))
+                    || replacements.values().stream().anyMatch(other -> simpleName(other).equals(simple));
+            if (clash) {
+                skipped.add(fqn + ": conflicts with another added import");
+            } else if (additions.add(fqn)) {
+                added.add(fqn);
+            }
+        }
+
+        /**
+         * Returns the fixed content, or {@code null} if the recorded spans no longer match {@code content}.
+         */
+        String apply(String content) {
+            LineMap lines = new LineMap(content);
+            String newline = content.contains("\r\n") ? "\r\n" : "\n";
+            Map<ImportSpan, String> spanText = new LinkedHashMap<>();
+            deletes.forEach(span -> spanText.put(span, null));
+            replacements.forEach((span, fqn) -> spanText.put(span, "import " + fqn + ";"));
+
+            List<Edit> edits = new ArrayList<>();
+            if (!additions.isEmpty()) {
+                String insertion = additions.stream().map(fqn -> "import " + fqn + ";").collect(Collectors.joining(newline));
+                List<ImportSpan> spans = result.importSpans();
+                ImportSpan anchor = spans.isEmpty() ? null : spans.get(spans.size() - 1);
+                if (anchor != null && spanText.containsKey(anchor)) {
+                    String current = spanText.get(anchor);
+                    spanText.put(anchor, current == null ? insertion : current + newline + insertion);
+                } else if (anchor != null) {
+                    int end = lines.end(anchor.range());
+                    edits.add(new Edit(end, end, newline + insertion));
+                } else if (result.packageRange() != null) {
+                    int end = lines.end(result.packageRange());
+                    edits.add(new Edit(end, end, newline + newline + insertion));
+                } else {
+                    edits.add(new Edit(0, 0, insertion + newline + newline));
+                }
+            }
+
+            for (Map.Entry<ImportSpan, String> entry : spanText.entrySet()) {
+                ImportSpan span = entry.getKey();
+                int start = lines.start(span.range());
+                int end = lines.end(span.range());
+                if (start < 0 || end > content.length() || start >= end || !matches(content.substring(start, end), span)) {
+                    return null;
+                }
+                edits.add(entry.getValue() == null ? deletion(content, lines, start, end) : new Edit(start, end, entry.getValue()));
+            }
+
+            edits.sort(Comparator.comparingInt(Edit::start).thenComparingInt(Edit::end).reversed());
+            StringBuilder out = new StringBuilder(content);
+            int limit = content.length();
+            for (Edit edit : edits) {
+                if (edit.end() > limit) {
+                    return null;
+                }
+                out.replace(edit.start(), edit.end(), edit.text());
+                limit = edit.start();
+            }
+            return out.toString();
+        }
+
+        private boolean matches(String text, ImportSpan span) {
+            String expected = "import" + (span.isStatic() ? "static" : "") + span.name() + (span.isAsterisk() ? ".*" : "") + ";";
+            return text.replaceAll("\\s+", "").equals(expected);
+        }
+
+        private Edit deletion(String content, LineMap lines, int start, int end) {
+            int lineStart = lines.lineStart(start);
+            int lineEnd = lines.lineEnd(end);
+            if (content.substring(lineStart, start).isBlank() && content.substring(end, lineEnd).isBlank()) {
+                return new Edit(lineStart, lines.nextLineStart(end), "");
+            }
+            int trailing = end;
+            while (trailing < lineEnd && (content.charAt(trailing) == ' ' || content.charAt(trailing) == '\t')) {
+                trailing++;
+            }
+            return new Edit(start, trailing, "");
+        }
+    }
+
+    private record Edit(int start, int end, String text) {
+    }
+
+    /**
+     * Maps JavaParser's 1-based line/column positions to string offsets, treating CRLF, LF and CR as line breaks.
+     */
+    private static final class LineMap {
+        private final String content;
+        private final int[] starts;
+
+        LineMap(String content) {
+            List<Integer> offsets = new ArrayList<>();
+            offsets.add(0);
+            for (int i = 0; i < content.length(); i++) {
+                char c = content.charAt(i);
+                if (c == '\n' || (c == '\r' && (i + 1 == content.length() || content.charAt(i + 1) != '\n'))) {
+                    offsets.add(i + 1);
+                }
+            }
+            this.content = content;
+            this.starts = offsets.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        int start(SourceRange range) {
+            return offset(range.beginLine(), range.beginColumn());
+        }
+
+        int end(SourceRange range) {
+            int offset = offset(range.endLine(), range.endColumn());
+            return offset < 0 ? offset : offset + 1;
+        }
+
+        int lineStart(int offset) {
+            return starts[lineIndex(offset)];
+        }
+
+        int nextLineStart(int offset) {
+            int line = lineIndex(offset);
+            return line + 1 < starts.length ? starts[line + 1] : content.length();
+        }
+
+        int lineEnd(int offset) {
+            int line = lineIndex(offset);
+            if (line + 1 >= starts.length) {
+                return content.length();
+            }
+            int end = starts[line + 1];
+            if (end > starts[line] && content.charAt(end - 1) == '\n') {
+                end--;
+            }
+            if (end > starts[line] && content.charAt(end - 1) == '\r') {
+                end--;
+            }
+            return end;
+        }
+
+        private int offset(int line, int column) {
+            if (line < 1 || line > starts.length) {
+                return -1;
+            }
+            return starts[line - 1] + column - 1;
+        }
+
+        private int lineIndex(int offset) {
+            int idx = Arrays.binarySearch(starts, offset);
+            return idx >= 0 ? idx : -idx - 2;
+        }
+    }
+}
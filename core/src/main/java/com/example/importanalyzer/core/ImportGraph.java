@@ -1,30 +1,298 @@
 package com.example.importanalyzer.core;
 
 import java.nio.file.Path;
+import java.util.AbstractSet;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
 
+/**
+ * File-to-type usage graph built in two phases. Edges are first collected concurrently into per-file sets;
+ * the first query then freezes them into compressed sparse row arrays for both directions, with files and
+ * types replaced by int ids. Edges recorded after a freeze are merged in by the next query.
+ */
 public class ImportGraph {
-    private final Map<Path, Set<String>> fileToTypes = new ConcurrentHashMap<>();
-    private final Map<String, Set<Path>> typeToFiles = new ConcurrentHashMap<>();
+    private static final Comparator<Path> PATH_ORDER = Comparator.comparing(Path::toString);
+
+    private final Map<Path, Set<String>> pending = new ConcurrentHashMap<>();
+    private volatile Csr frozen = Csr.EMPTY;
 
     public void recordUsage(Path file, String typeName) {
-        fileToTypes.computeIfAbsent(file, f -> new CopyOnWriteArraySet<>()).add(typeName);
-        typeToFiles.computeIfAbsent(typeName, t -> new CopyOnWriteArraySet<>()).add(file);
+        // add inside compute so a concurrent freeze never takes a set that is still being written to
+        pending.compute(file, (f, types) -> {
+            Set<String> target = types != null ? types : new HashSet<>();
+            target.add(typeName);
+            return target;
+        });
     }
 
     public Set<String> typesForFile(Path file) {
-        return fileToTypes.getOrDefault(file, Set.of());
+        Csr csr = freeze();
+        int id = csr.fileId(file);
+        return id < 0 ? Set.of() : new IdSet<>(csr.fileTargets, csr.fileOffsets[id], csr.fileOffsets[id + 1], i -> csr.types[i], csr::typeId);
     }
 
     public Set<Path> filesForType(String type) {
-        return typeToFiles.getOrDefault(type, Set.of());
+        Csr csr = freeze();
+        int id = csr.typeId(type);
+        return id < 0 ? Set.of() : new IdSet<>(csr.typeSources, csr.typeOffsets[id], csr.typeOffsets[id + 1], i -> csr.files[i], csr::fileId);
     }
 
     public Map<Path, Set<String>> viewFileToTypes() {
-        return Collections.unmodifiableMap(fileToTypes);
+        Csr csr = freeze();
+        Map<Path, Set<String>> view = new LinkedHashMap<>();
+        for (Path file : csr.files) {
+            view.put(file, typesForFile(file));
+        }
+        return Collections.unmodifiableMap(view);
+    }
+
+    public int fileCount() {
+        return freeze().files.length;
+    }
+
+    public int typeCount() {
+        return freeze().types.length;
+    }
+
+    public int edgeCount() {
+        return freeze().fileTargets.length;
+    }
+
+    /**
+     * Replaces the frozen edges with a persisted snapshot. Edges recorded but not yet frozen are kept and
+     * merged on top by the next query.
+     */
+    public synchronized void restore(Snapshot snapshot) {
+        frozen = Csr.of(snapshot);
+    }
+
+    public synchronized Snapshot snapshot() {
+        Csr csr = freeze();
+        return new Snapshot(Arrays.stream(csr.files).map(Path::toString).toList(), List.of(csr.types),
+                csr.fileOffsets, csr.fileTargets, csr.typeOffsets, csr.typeSources);
+    }
+
+    private Csr freeze() {
+        Csr csr = frozen;
+        if (pending.isEmpty()) {
+            return csr;
+        }
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return frozen;
+            }
+            Map<Path, Set<String>> batch = new LinkedHashMap<>();
+            for (Path file : List.copyOf(pending.keySet())) {
+                batch.put(file, pending.remove(file));
+            }
+            frozen = Csr.merge(frozen, batch);
+            return frozen;
+        }
+    }
+
+    /**
+     * Persisted form of the frozen graph. Row {@code f} of the forward direction lists the type ids
+     * {@code fileTargets[fileOffsets[f] .. fileOffsets[f + 1])}, sorted; the reverse direction mirrors it.
+     */
+    public record Snapshot(List<String> files, List<String> types, int[] fileOffsets, int[] fileTargets,
+                           int[] typeOffsets, int[] typeSources) {
+    }
+
+    private static final class Csr {
+        static final Csr EMPTY = new Csr(new Path[0], new String[0], new int[]{0}, new int[0], new int[]{0}, new int[0]);
+
+        final Path[] files;
+        final String[] types;
+        final int[] fileOffsets;
+        final int[] fileTargets;
+        final int[] typeOffsets;
+        final int[] typeSources;
+
+        private Csr(Path[] files, String[] types, int[] fileOffsets, int[] fileTargets, int[] typeOffsets, int[] typeSources) {
+            this.files = files;
+            this.types = types;
+            this.fileOffsets = fileOffsets;
+            this.fileTargets = fileTargets;
+            this.typeOffsets = typeOffsets;
+            this.typeSources = typeSources;
+        }
+
+        static Csr of(Snapshot snapshot) {
+            Path[] files = snapshot.files().stream().map(Path::of).toArray(Path[]::new);
+            String[] types = snapshot.types().toArray(String[]::new);
+            int edges = snapshot.fileTargets().length;
+            boolean consistent = snapshot.fileOffsets().length == files.length + 1
+                    && snapshot.typeOffsets().length == types.length + 1
+                    && snapshot.typeSources().length == edges
+                    && snapshot.fileOffsets()[files.length] == edges
+                    && snapshot.typeOffsets()[types.length] == edges
+                    && isSorted(files, PATH_ORDER)
+                    && isSorted(types, Comparator.naturalOrder())
+                    && allBelow(snapshot.fileTargets(), types.length)
+                    && allBelow(snapshot.typeSources(), files.length);
+            if (!consistent) {
+                throw new IllegalArgumentException("Inconsistent import graph snapshot");
+            }
+            return new Csr(files, types, snapshot.fileOffsets(), snapshot.fileTargets(), snapshot.typeOffsets(), snapshot.typeSources());
+        }
+
+        /**
+         * Builds new arrays holding the union of {@code base} and {@code batch}. The reverse direction is
+         * derived from the forward one with a counting sort, so rows come out ordered by file id.
+         */
+        static Csr merge(Csr base, Map<Path, Set<String>> batch) {
+            TreeSet<Path> fileSet = new TreeSet<>(PATH_ORDER);
+            fileSet.addAll(Arrays.asList(base.files));
+            fileSet.addAll(batch.keySet());
+            TreeSet<String> typeSet = new TreeSet<>(Arrays.asList(base.types));
+            batch.values().forEach(typeSet::addAll);
+            Path[] files = fileSet.toArray(Path[]::new);
+            String[] types = typeSet.toArray(String[]::new);
+
+            int[] remap = new int[base.types.length];
+            for (int i = 0; i < remap.length; i++) {
+                remap[i] = Arrays.binarySearch(types, base.types[i]);
+            }
+
+            int[] fileOffsets = new int[files.length + 1];
+            int[] targets = new int[base.fileTargets.length + batch.values().stream().mapToInt(Set::size).sum()];
+            int size = 0;
+            for (int f = 0; f < files.length; f++) {
+                int rowStart = size;
+                int old = base.fileId(files[f]);
+                if (old >= 0) {
+                    for (int e = base.fileOffsets[old]; e < base.fileOffsets[old + 1]; e++) {
+                        targets[size++] = remap[base.fileTargets[e]];
+                    }
+                }
+                Set<String> added = batch.get(files[f]);
+                if (added != null) {
+                    for (String type : added) {
+                        targets[size++] = Arrays.binarySearch(types, type);
+                    }
+                }
+                Arrays.sort(targets, rowStart, size);
+                size = rowStart + dedupe(targets, rowStart, size);
+                fileOffsets[f + 1] = size;
+            }
+            int[] fileTargets = Arrays.copyOf(targets, size);
+
+            int[] typeOffsets = new int[types.length + 1];
+            for (int target : fileTargets) {
+                typeOffsets[target + 1]++;
+            }
+            for (int t = 0; t < types.length; t++) {
+                typeOffsets[t + 1] += typeOffsets[t];
+            }
+            int[] cursor = Arrays.copyOf(typeOffsets, types.length);
+            int[] typeSources = new int[size];
+            for (int f = 0; f < files.length; f++) {
+                for (int e = fileOffsets[f]; e < fileOffsets[f + 1]; e++) {
+                    typeSources[cursor[fileTargets[e]]++] = f;
+                }
+            }
+            return new Csr(files, types, fileOffsets, fileTargets, typeOffsets, typeSources);
+        }
+
+        int fileId(Object file) {
+            return file instanceof Path ? Math.max(-1, Arrays.binarySearch(files, (Path) file, PATH_ORDER)) : -1;
+        }
+
+        int typeId(Object type) {
+            return type instanceof String ? Math.max(-1, Arrays.binarySearch(types, (String) type)) : -1;
+        }
+
+        private static int dedupe(int[] values, int from, int to) {
+            if (from == to) {
+                return 0;
+            }
+            int write = from + 1;
+            for (int read = from + 1; read < to; read++) {
+                if (values[read] != values[write - 1]) {
+                    values[write++] = values[read];
+                }
+            }
+            return write - from;
+        }
+
+        private static boolean allBelow(int[] ids, int bound) {
+            for (int id : ids) {
+                if (id < 0 || id >= bound) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static <T> boolean isSorted(T[] values, Comparator<? super T> order) {
+            for (int i = 1; i < values.length; i++) {
+                if (order.compare(values[i - 1], values[i]) >= 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Read-only set over one CSR row; {@code contains} is a binary search on the sorted ids.
+     */
+    private static final class IdSet<T> extends AbstractSet<T> {
+        private final int[] ids;
+        private final int from;
+        private final int to;
+        private final IntFunction<T> names;
+        private final ToIntFunction<Object> idOf;
+
+        IdSet(int[] ids, int from, int to, IntFunction<T> names, ToIntFunction<Object> idOf) {
+            this.ids = ids;
+            this.from = from;
+            this.to = to;
+            this.names = names;
+            this.idOf = idOf;
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            int id = idOf.applyAsInt(o);
+            return id >= 0 && Arrays.binarySearch(ids, from, to, id) >= 0;
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return new Iterator<>() {
+                private int next = from;
+
+                @Override
+                public boolean hasNext() {
+                    return next < to;
+                }
+
+                @Override
+                public T next() {
+                    if (next >= to) {
+                        throw new NoSuchElementException();
+                    }
+                    return names.apply(ids[next++]);
+                }
+            };
+        }
     }
 }
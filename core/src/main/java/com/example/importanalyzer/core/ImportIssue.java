@@ -1,6 +1,7 @@
 package com.example.importanalyzer.core;
 
 import java.nio.file.Path;
+import java.util.List;
 
 public sealed interface ImportIssue permits MissingImportIssue, UnresolvedImportIssue, AmbiguousImportIssue, UnusedImportIssue, WrongPackageIssue, WildcardIssue {
     Path file();
@@ -8,4 +9,11 @@ public sealed interface ImportIssue permits MissingImportIssue, UnresolvedImport
     String message();
     String symbol();
     IssueType type();
+
+    /**
+     * Fully qualified import candidates, best first. Empty for issues that only remove an import.
+     */
+    default List<String> candidates() {
+        return List.of();
+    }
 }
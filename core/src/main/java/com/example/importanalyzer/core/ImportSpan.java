@@ -0,0 +1,7 @@
+package com.example.importanalyzer.core;
+
+/**
+ * Position of a single import declaration, from the {@code import} keyword up to and including the semicolon.
+ */
+public record ImportSpan(String name, boolean isStatic, boolean isAsterisk, SourceRange range) {
+}
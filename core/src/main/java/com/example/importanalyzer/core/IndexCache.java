@@ -1,39 +1,62 @@
 package com.example.importanalyzer.core;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
+/**
+ * The serialized class index, graph and declarations, stored through a {@link CacheStore} so that concurrent
+ * runs on one checkout neither tear nor silently discard each other's cache.
+ */
 public class IndexCache {
-    private final Path path;
+    // bump whenever SerializedIndex changes shape
+    static final int FORMAT_VERSION = 3;
+    private static final ObjectMapper DEFAULT_MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final CacheStore store;
     private final ObjectMapper mapper;
 
     public IndexCache(Path path, ObjectMapper mapper) {
-        this.path = path;
+        this.store = new CacheStore(path, FORMAT_VERSION);
         this.mapper = mapper;
     }
 
-    public void save(SerializedIndex index) {
-        try {
-            Files.createDirectories(path.getParent() == null ? Path.of(".") : path.getParent());
-            mapper.writeValue(path.toFile(), index);
-        } catch (IOException e) {
-            // ignore
-        }
+    static ObjectMapper defaultMapper() {
+        return DEFAULT_MAPPER;
+    }
+
+    public void save(SerializedIndex index) throws IOException {
+        store.write(mapper.writeValueAsBytes(index));
     }
 
-    public SerializedIndex load() {
+    /**
+     * Returns the cached index, or {@code null} when there is none for this format version.
+     *
+     * @throws CorruptCacheException when the file fails its checksum or does not deserialize
+     */
+    public SerializedIndex load() throws IOException {
+        byte[] payload = store.read();
+        if (payload == null) {
+            return null;
+        }
         try {
-            return mapper.readValue(path.toFile(), SerializedIndex.class);
+            return mapper.readValue(payload, SerializedIndex.class);
         } catch (IOException e) {
-            return null;
+            throw new CorruptCacheException(store.path(), "unreadable index: " + e.getMessage());
         }
     }
 
-    public record SerializedIndex(List<ClassIndexEntry> entries, Map<String, Set<String>> graph, Map<String, Long> fileTimestamps) {}
+    public record SerializedIndex(List<ClassIndexEntry> entries, ImportGraph.Snapshot graph, Map<String, Long> fileTimestamps,
+                                  Map<String, SourceDeclarations> declarations) {
+        public SerializedIndex {
+            entries = entries == null ? List.of() : entries;
+            graph = graph == null ? new ImportGraph().snapshot() : graph;
+            fileTimestamps = fileTimestamps == null ? Map.of() : fileTimestamps;
+            declarations = declarations == null ? Map.of() : declarations;
+        }
+    }
 }
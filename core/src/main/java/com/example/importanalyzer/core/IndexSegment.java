@@ -0,0 +1,93 @@
+package com.example.importanalyzer.core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable class index of one artifact (or the JDK seed), shared by every project whose classpath contains an
+ * artifact with the same content. Name suggesters are built on first use and shared as well.
+ */
+public final class IndexSegment {
+    private final String key;
+    private final Map<String, ClassIndexEntry> byFqn;
+    private final Map<String, List<ClassIndexEntry>> bySimpleName;
+    private final Map<String, List<ClassIndexEntry>> byPackage;
+    private volatile NameSuggester fqnSuggester;
+    private volatile NameSuggester simpleNameSuggester;
+
+    private IndexSegment(String key, Map<String, ClassIndexEntry> byFqn, Map<String, List<ClassIndexEntry>> bySimpleName,
+                         Map<String, List<ClassIndexEntry>> byPackage) {
+        this.key = key;
+        this.byFqn = byFqn;
+        this.bySimpleName = bySimpleName;
+        this.byPackage = byPackage;
+    }
+
+    /**
+     * Freezes the entries of {@code source}; the source index is not referenced afterwards.
+     */
+    static IndexSegment of(String key, ClassIndex source) {
+        Map<String, ClassIndexEntry> byFqn = Map.copyOf(source.asFqnMap());
+        Map<String, List<ClassIndexEntry>> bySimpleName = new HashMap<>();
+        Map<String, List<ClassIndexEntry>> byPackage = new HashMap<>();
+        for (ClassIndexEntry entry : byFqn.values()) {
+            bySimpleName.computeIfAbsent(entry.simpleName(), k -> new ArrayList<>()).add(entry);
+            byPackage.computeIfAbsent(entry.packageName(), k -> new ArrayList<>()).add(entry);
+        }
+        bySimpleName.replaceAll((name, entries) -> List.copyOf(entries));
+        byPackage.replaceAll((pkg, entries) -> List.copyOf(entries));
+        return new IndexSegment(key, byFqn, Map.copyOf(bySimpleName), Map.copyOf(byPackage));
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public int size() {
+        return byFqn.size();
+    }
+
+    public ClassIndexEntry getByFqn(String fqn) {
+        return byFqn.get(fqn);
+    }
+
+    public List<ClassIndexEntry> bySimpleName(String simpleName) {
+        return bySimpleName.getOrDefault(simpleName, List.of());
+    }
+
+    public List<ClassIndexEntry> byPackage(String pkg) {
+        return byPackage.getOrDefault(pkg, List.of());
+    }
+
+    Map<String, ClassIndexEntry> fqnMap() {
+        return byFqn;
+    }
+
+    Map<String, List<ClassIndexEntry>> simpleNameMap() {
+        return bySimpleName;
+    }
+
+    Map<String, List<ClassIndexEntry>> packageMap() {
+        return byPackage;
+    }
+
+    NameSuggester fqnSuggester() {
+        NameSuggester suggester = fqnSuggester;
+        if (suggester == null) {
+            suggester = new NameSuggester(byFqn.keySet());
+            fqnSuggester = suggester;
+        }
+        return suggester;
+    }
+
+    NameSuggester simpleNameSuggester() {
+        NameSuggester suggester = simpleNameSuggester;
+        if (suggester == null) {
+            suggester = new NameSuggester(bySimpleName.keySet());
+            simpleNameSuggester = suggester;
+        }
+        return suggester;
+    }
+}
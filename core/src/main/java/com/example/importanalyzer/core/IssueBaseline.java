@@ -0,0 +1,107 @@
+package com.example.importanalyzer.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Issues accepted as known, so that only new ones are reported. Each issue is reduced to a 64-bit fingerprint of its
+ * project-relative file path, {@link IssueType} and symbol; line numbers are left out so that edits above an issue
+ * do not make it new again. The fingerprints are kept as a sorted {@code long[]} and looked up by bisection: 40k
+ * known issues take 320 KB on disk and in memory.
+ */
+public final class IssueBaseline {
+    public static final IssueBaseline EMPTY = new IssueBaseline(new long[0]);
+
+    private static final int FORMAT_VERSION = 1;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final long[] fingerprints;
+
+    private IssueBaseline(long[] sortedFingerprints) {
+        this.fingerprints = sortedFingerprints;
+    }
+
+    /**
+     * Builds a baseline from fingerprints in any order; duplicates collapse.
+     */
+    public static IssueBaseline of(long[] fingerprints) {
+        long[] sorted = Arrays.stream(fingerprints).sorted().distinct().toArray();
+        return sorted.length == 0 ? EMPTY : new IssueBaseline(sorted);
+    }
+
+    /**
+     * Reads a baseline written by {@link #write(Path)}.
+     *
+     * @throws NoSuchFileException if there is no baseline at {@code path}
+     * @throws CorruptCacheException if the file is damaged
+     */
+    public static IssueBaseline read(Path path) throws IOException {
+        byte[] payload = new CacheStore(path, FORMAT_VERSION).read();
+        if (payload == null) {
+            throw new NoSuchFileException(path.toString(), null, "no baseline of format " + FORMAT_VERSION);
+        }
+        if (payload.length % Long.BYTES != 0) {
+            throw new CorruptCacheException(path, "baseline length is not a multiple of 8");
+        }
+        long[] fingerprints = new long[payload.length / Long.BYTES];
+        ByteBuffer.wrap(payload).asLongBuffer().get(fingerprints);
+        for (int i = 1; i < fingerprints.length; i++) {
+            if (fingerprints[i - 1] >= fingerprints[i]) {
+                throw new CorruptCacheException(path, "baseline fingerprints are not sorted");
+            }
+        }
+        return fingerprints.length == 0 ? EMPTY : new IssueBaseline(fingerprints);
+    }
+
+    public void write(Path path) throws IOException {
+        ByteBuffer payload = ByteBuffer.allocate(fingerprints.length * Long.BYTES);
+        payload.asLongBuffer().put(fingerprints);
+        new CacheStore(path, FORMAT_VERSION).write(payload.array());
+    }
+
+    public int size() {
+        return fingerprints.length;
+    }
+
+    public boolean isEmpty() {
+        return fingerprints.length == 0;
+    }
+
+    public boolean contains(ImportIssue issue, Path projectRoot) {
+        return contains(fingerprint(issue, projectRoot));
+    }
+
+    public boolean contains(long fingerprint) {
+        return Arrays.binarySearch(fingerprints, fingerprint) >= 0;
+    }
+
+    public static long fingerprint(ImportIssue issue, Path projectRoot) {
+        return fingerprint(fileSeed(issue.file(), projectRoot), issue.type(), issue.symbol());
+    }
+
+    /**
+     * The part of a fingerprint contributed by the file, hashed once per file during evaluation. Paths are taken
+     * relative to {@code projectRoot} with {@code /} separators, so a baseline works across checkouts and platforms.
+     */
+    static long fileSeed(Path file, Path projectRoot) {
+        Path relative = projectRoot != null && file.startsWith(projectRoot) ? projectRoot.relativize(file) : file;
+        return mix(FNV_OFFSET, relative.toString().replace('\\', '/'));
+    }
+
+    static long fingerprint(long fileSeed, IssueType type, String symbol) {
+        return mix(mix(fileSeed, type.name()), symbol == null ? "" : symbol.strip());
+    }
+
+    private static long mix(long hash, String value) {
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xff)) * FNV_PRIME;
+        }
+        // separator so that ("ab", "c") and ("a", "bc") differ
+        return (hash ^ 0xff) * FNV_PRIME;
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.importanalyzer.core;
+
+/**
+ * Receives issues as {@link ImportAnalyzer#analyze(IssueSink)} produces them, file by file, so callers that only
+ * count or forward issues never hold the whole list. All issues of one file are delivered together.
+ */
+@FunctionalInterface
+public interface IssueSink {
+    void accept(ImportIssue issue);
+}
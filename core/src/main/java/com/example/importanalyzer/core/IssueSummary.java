@@ -0,0 +1,110 @@
+package com.example.importanalyzer.core;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * Aggregating {@link IssueSink}: counts issues by type, by package and by source root, and keeps the files with
+ * the most issues in a heap bounded to {@code topFiles} entries. Memory grows with the number of packages, never
+ * with the number of issues. The package of a file is its directory relative to its source root. Not thread-safe.
+ */
+public final class IssueSummary implements IssueSink {
+    private static final Comparator<FileCount> FEWEST_FIRST = Comparator.comparingInt(FileCount::issues)
+            .thenComparing(FileCount::file, Comparator.reverseOrder());
+
+    private final List<Path> sourceRoots;
+    private final int topFiles;
+    private final Map<IssueType, Integer> byType = new EnumMap<>(IssueType.class);
+    private final Map<String, Integer> byPackage = new HashMap<>();
+    private final Map<Path, Integer> bySourceRoot = new HashMap<>();
+    private final PriorityQueue<FileCount> worstFiles = new PriorityQueue<>(FEWEST_FIRST);
+    private int total;
+    private Path currentFile;
+    private Path currentRoot;
+    private String currentPackage;
+    private int currentCount;
+
+    public IssueSummary(List<Path> sourceRoots, int topFiles) {
+        if (topFiles < 0) {
+            throw new IllegalArgumentException("topFiles must not be negative");
+        }
+        this.sourceRoots = List.copyOf(sourceRoots);
+        this.topFiles = topFiles;
+    }
+
+    @Override
+    public void accept(ImportIssue issue) {
+        if (!issue.file().equals(currentFile)) {
+            offer(currentFile, currentCount, worstFiles);
+            currentFile = issue.file();
+            currentRoot = sourceRoots.stream().filter(currentFile::startsWith).findFirst().orElse(null);
+            currentPackage = packageOf(currentFile, currentRoot);
+            currentCount = 0;
+        }
+        total++;
+        currentCount++;
+        byType.merge(issue.type(), 1, Integer::sum);
+        byPackage.merge(currentPackage, 1, Integer::sum);
+        if (currentRoot != null) {
+            bySourceRoot.merge(currentRoot, 1, Integer::sum);
+        }
+    }
+
+    public int total() {
+        return total;
+    }
+
+    public Map<IssueType, Integer> byType() {
+        return Collections.unmodifiableMap(new EnumMap<>(byType));
+    }
+
+    public Map<String, Integer> byPackage() {
+        return Collections.unmodifiableMap(new TreeMap<>(byPackage));
+    }
+
+    public Map<Path, Integer> bySourceRoot() {
+        return Collections.unmodifiableMap(new TreeMap<>(bySourceRoot));
+    }
+
+    /**
+     * The files with the most issues, most first and by path within the same count.
+     */
+    public List<FileCount> topFiles() {
+        PriorityQueue<FileCount> files = new PriorityQueue<>(worstFiles);
+        offer(currentFile, currentCount, files);
+        List<FileCount> sorted = new ArrayList<>(files);
+        sorted.sort(FEWEST_FIRST.reversed());
+        return sorted;
+    }
+
+    private void offer(Path file, int issues, PriorityQueue<FileCount> heap) {
+        if (file == null || topFiles == 0) {
+            return;
+        }
+        heap.add(new FileCount(file, issues));
+        if (heap.size() > topFiles) {
+            heap.poll();
+        }
+    }
+
+    private static String packageOf(Path file, Path root) {
+        Path directory = (root == null ? file : root.relativize(file)).getParent();
+        if (directory == null) {
+            return "";
+        }
+        List<String> parts = new ArrayList<>();
+        directory.forEach(part -> parts.add(part.toString()));
+        return String.join(".", parts);
+    }
+
+    public record FileCount(Path file, int issues) {
+    }
+}
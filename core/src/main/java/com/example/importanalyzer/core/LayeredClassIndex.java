@@ -0,0 +1,133 @@
+package com.example.importanalyzer.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+/**
+ * Class index of one project inside a {@link WorkspaceHost}: the project's own declarations, held and updated
+ * as in a plain {@link ClassIndex}, layered over shared read-only {@link IndexSegment}s for its jars and the
+ * JDK. Lookups consult the project layer first; entries added or removed only ever touch that layer.
+ */
+public class LayeredClassIndex extends ClassIndex {
+    private final List<IndexSegment> segments = new CopyOnWriteArrayList<>();
+
+    void addSegment(IndexSegment segment) {
+        segments.add(segment);
+    }
+
+    public List<IndexSegment> segments() {
+        return Collections.unmodifiableList(segments);
+    }
+
+    @Override
+    public ClassIndexEntry getByFqn(String fqn) {
+        ClassIndexEntry own = super.getByFqn(fqn);
+        if (own != null) {
+            return own;
+        }
+        for (IndexSegment segment : segments) {
+            ClassIndexEntry entry = segment.getByFqn(fqn);
+            if (entry != null) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public List<ClassIndexEntry> bySimpleName(String simpleName) {
+        return concat(super.bySimpleName(simpleName), segment -> segment.bySimpleName(simpleName));
+    }
+
+    @Override
+    public List<ClassIndexEntry> byPackage(String pkg) {
+        return concat(super.byPackage(pkg), segment -> segment.byPackage(pkg));
+    }
+
+    @Override
+    public Set<String> packages() {
+        Set<String> packages = new HashSet<>(super.packages());
+        segments.forEach(segment -> packages.addAll(segment.packageMap().keySet()));
+        return packages;
+    }
+
+    /**
+     * Entries across all layers; an FQN present in several layers is counted once per layer.
+     */
+    @Override
+    public int size() {
+        return super.size() + segments.stream().mapToInt(IndexSegment::size).sum();
+    }
+
+    @Override
+    public Map<String, ClassIndexEntry> asFqnMap() {
+        Map<String, ClassIndexEntry> merged = new HashMap<>();
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            merged.putAll(segments.get(i).fqnMap());
+        }
+        merged.putAll(super.asFqnMap());
+        return Collections.unmodifiableMap(merged);
+    }
+
+    @Override
+    public Map<String, List<ClassIndexEntry>> asSimpleNameMap() {
+        Set<String> names = new HashSet<>(super.asSimpleNameMap().keySet());
+        segments.forEach(segment -> names.addAll(segment.simpleNameMap().keySet()));
+        Map<String, List<ClassIndexEntry>> merged = new HashMap<>();
+        names.forEach(name -> merged.put(name, bySimpleName(name)));
+        return Collections.unmodifiableMap(merged);
+    }
+
+    @Override
+    public List<String> similarFqns(String fqn, int limit) {
+        int max = NameSuggester.maxDistanceFor(fqn);
+        return closest(fqn, limit, super.similarFqns(fqn, limit), segment -> segment.fqnSuggester().suggest(fqn, max, limit));
+    }
+
+    @Override
+    public List<String> similarSimpleNames(String simpleName, int limit) {
+        int max = NameSuggester.maxDistanceFor(simpleName);
+        return closest(simpleName, limit, super.similarSimpleNames(simpleName, limit),
+                segment -> segment.simpleNameSuggester().suggest(simpleName, max, limit));
+    }
+
+    private List<ClassIndexEntry> concat(List<ClassIndexEntry> own, Function<IndexSegment, List<ClassIndexEntry>> lookup) {
+        List<ClassIndexEntry> merged = null;
+        for (IndexSegment segment : segments) {
+            List<ClassIndexEntry> entries = lookup.apply(segment);
+            if (entries.isEmpty()) {
+                continue;
+            }
+            if (merged == null) {
+                merged = new ArrayList<>(own);
+            }
+            merged.addAll(entries);
+        }
+        return merged == null ? own : merged;
+    }
+
+    /**
+     * Merges per-layer suggestions, each already the closest of its layer, by edit distance and then name.
+     */
+    private List<String> closest(String query, int limit, List<String> own, Function<IndexSegment, List<String>> lookup) {
+        Set<String> names = new LinkedHashSet<>(own);
+        segments.forEach(segment -> names.addAll(lookup.apply(segment)));
+        if (names.size() <= 1) {
+            return new ArrayList<>(names);
+        }
+        int max = NameSuggester.maxDistanceFor(query);
+        return names.stream()
+                .sorted(Comparator.comparingInt((String name) -> NameSuggester.distance(query, name, max)).thenComparing(name -> name))
+                .limit(limit)
+                .toList();
+    }
+}
@@ -0,0 +1,504 @@
+package com.example.importanalyzer.core;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves the classpath of a Maven project from its POMs and the local repository, without running Maven.
+ * Effective models follow the parent chain, properties, {@code dependencyManagement} and imported BOMs;
+ * transitive dependencies are selected nearest-first as Maven does, with exclusions and optional dependencies
+ * honoured. POMs of one breadth-first level are read in parallel.
+ * <p>
+ * Only what is already in the local repository is used: missing POMs end a branch and missing jars are
+ * skipped, and version ranges are not resolved. The result is cached in {@code target/} together with the
+ * size and modification time of every POM and jar it looked at, so an unchanged build skips the XML entirely.
+ */
+final class MavenPomResolver {
+    static final int CACHE_VERSION = 1;
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\$\\{([^}]+)}");
+    private static final Set<String> TRANSITIVE_SCOPES = Set.of("compile", "runtime");
+    private static final XMLInputFactory XML = xmlFactory();
+    private static final int MAX_MODEL_DEPTH = 32;
+
+    private final Path repository;
+    private final Map<Path, Optional<Pom>> poms = new ConcurrentHashMap<>();
+    private final Map<Path, Optional<Model>> models = new ConcurrentHashMap<>();
+    private final Set<Path> consulted = ConcurrentHashMap.newKeySet();
+    private final Map<String, Path> reactor = new ConcurrentHashMap<>();
+
+    private MavenPomResolver(Path repository) {
+        this.repository = repository;
+    }
+
+    static Set<Path> resolve(Path projectRoot, Path repository) {
+        Path pomFile = projectRoot.resolve("pom.xml");
+        CacheStore cache = new CacheStore(projectRoot.resolve("target/.import-analyzer-classpath"), CACHE_VERSION);
+        Set<Path> cached = readCache(cache);
+        if (cached != null) {
+            return cached;
+        }
+        MavenPomResolver resolver = new MavenPomResolver(repository);
+        Set<Path> artifacts = resolver.resolveProject(pomFile);
+        if (Files.isDirectory(projectRoot.resolve("target"))) {
+            try {
+                cache.write(resolver.cachePayload(artifacts));
+            } catch (IOException ignored) {
+                // the next run resolves from the POMs again
+            }
+        }
+        return artifacts;
+    }
+
+    private Set<Path> resolveProject(Path pomFile) {
+        Model root = model(pomFile).orElse(null);
+        if (root == null) {
+            return Set.of();
+        }
+        List<Model> projects = new ArrayList<>();
+        projects.add(root);
+        collectModules(root, projects);
+        projects.forEach(project -> reactor.put(project.key(), project.pomFile().getParent()));
+
+        Set<Path> artifacts = ConcurrentHashMap.newKeySet();
+        projects.parallelStream().forEach(project -> artifacts.addAll(classpath(project)));
+        return new LinkedHashSet<>(artifacts);
+    }
+
+    private void collectModules(Model project, List<Model> into) {
+        List<Model> modules = project.modules().parallelStream()
+                .map(module -> model(project.pomFile().resolveSibling(module).resolve("pom.xml")))
+                .flatMap(Optional::stream)
+                .toList();
+        for (Model module : modules) {
+            into.add(module);
+            collectModules(module, into);
+        }
+    }
+
+    /**
+     * Nearest-wins breadth-first selection over the dependency tree of {@code project}. Its own dependencies of
+     * every scope are kept; below them only compile and runtime, non-optional dependencies are followed. The
+     * project's managed versions override the versions transitive POMs ask for.
+     */
+    private Set<Path> classpath(Model project) {
+        Set<Path> artifacts = new LinkedHashSet<>();
+        Path moduleDir = project.pomFile().getParent();
+        addIfExists(artifacts, moduleDir.resolve("target/classes"));
+        addIfExists(artifacts, moduleDir.resolve("target/test-classes"));
+
+        Map<String, Dependency> selected = new LinkedHashMap<>();
+        List<Node> level = new ArrayList<>();
+        for (Dependency dependency : project.dependencies()) {
+            if (!"import".equals(dependency.scope()) && !"system".equals(dependency.scope())) {
+                level.add(new Node(dependency, Set.of()));
+            }
+        }
+        boolean direct = true;
+        while (!level.isEmpty()) {
+            List<Node> chosen = new ArrayList<>();
+            for (Node node : level) {
+                Dependency dependency = direct ? node.dependency() : managed(project, node.dependency());
+                if (dependency.version() == null || selected.putIfAbsent(dependency.key(), dependency) != null) {
+                    continue;
+                }
+                chosen.add(new Node(dependency, node.exclusions()));
+            }
+            List<Optional<Model>> loaded = chosen.parallelStream().map(node -> dependencyModel(node.dependency())).toList();
+            List<Node> next = new ArrayList<>();
+            for (int i = 0; i < chosen.size(); i++) {
+                Node node = chosen.get(i);
+                Model model = loaded.get(i).orElse(null);
+                if (model == null) {
+                    continue;
+                }
+                Set<String> exclusions = new HashSet<>(node.exclusions());
+                exclusions.addAll(node.dependency().exclusions());
+                for (Dependency child : model.dependencies()) {
+                    if (child.optional() || !TRANSITIVE_SCOPES.contains(child.scope())
+                            || exclusions.contains(child.groupId() + ":" + child.artifactId())
+                            || exclusions.contains(child.groupId() + ":*") || exclusions.contains("*:*")) {
+                        continue;
+                    }
+                    next.add(new Node(child, exclusions));
+                }
+            }
+            level = next;
+            direct = false;
+        }
+
+        for (Dependency dependency : selected.values()) {
+            Path module = reactor.get(dependency.groupId() + ":" + dependency.artifactId());
+            if (module != null) {
+                addIfExists(artifacts, module.resolve("target/classes"));
+                continue;
+            }
+            String classifier = "test-jar".equals(dependency.type()) ? "tests" : dependency.classifier();
+            if (!"pom".equals(dependency.type())) {
+                addIfExists(artifacts, artifactPath(dependency.groupId(), dependency.artifactId(), dependency.version(), classifier, "jar"));
+            }
+        }
+        return artifacts;
+    }
+
+    private Dependency managed(Model project, Dependency dependency) {
+        Dependency managed = project.managed().get(dependency.key());
+        return managed == null || managed.version() == null ? dependency : dependency.withVersion(managed.version());
+    }
+
+    private Optional<Model> dependencyModel(Dependency dependency) {
+        Path module = reactor.get(dependency.groupId() + ":" + dependency.artifactId());
+        if (module != null) {
+            return model(module.resolve("pom.xml"));
+        }
+        return model(artifactPath(dependency.groupId(), dependency.artifactId(), dependency.version(), null, "pom"));
+    }
+
+    /**
+     * Effective model of one POM: inherited and own properties, coordinates, managed dependencies (own entries
+     * first, then the parent's, then imported BOMs) and dependencies with managed versions and scopes filled in.
+     */
+    private Optional<Model> model(Path pomFile) {
+        return model(pomFile, 0);
+    }
+
+    private Optional<Model> model(Path pomFile, int depth) {
+        Optional<Model> known = models.get(pomFile);
+        if (known != null) {
+            return known;
+        }
+        if (depth > MAX_MODEL_DEPTH) {
+            // a parent or BOM cycle; give up on this branch
+            return Optional.empty();
+        }
+        Optional<Model> built = pom(pomFile).map(pom -> build(pomFile, pom, depth));
+        Optional<Model> raced = models.putIfAbsent(pomFile, built);
+        return raced != null ? raced : built;
+    }
+
+    private Model build(Path pomFile, Pom pom, int depth) {
+        Model parent = null;
+        if (pom.parent() != null) {
+            Coordinates p = pom.parent();
+            Path relative = pomFile.resolveSibling(p.relativePath() == null ? "../pom.xml" : p.relativePath());
+            Path local = (Files.isDirectory(relative) ? relative.resolve("pom.xml") : relative).normalize();
+            parent = pom(local).filter(candidate -> p.artifactId().equals(candidate.artifactId()))
+                    .flatMap(candidate -> model(local, depth + 1))
+                    .or(() -> model(artifactPath(p.groupId(), p.artifactId(), p.version(), null, "pom"), depth + 1))
+                    .orElse(null);
+        }
+
+        Map<String, String> properties = new HashMap<>(parent == null ? Map.of() : parent.properties());
+        properties.putAll(pom.properties());
+        String groupId = pom.groupId() != null ? pom.groupId() : pom.parent() != null ? pom.parent().groupId() : null;
+        String version = pom.version() != null ? pom.version() : pom.parent() != null ? pom.parent().version() : null;
+        properties.put("project.groupId", groupId == null ? "" : groupId);
+        properties.put("project.artifactId", pom.artifactId());
+        properties.put("project.version", version == null ? "" : version);
+        if (pom.parent() != null) {
+            properties.put("project.parent.groupId", pom.parent().groupId());
+            properties.put("project.parent.version", pom.parent().version());
+        }
+        groupId = interpolate(groupId, properties);
+        version = interpolate(version, properties);
+        properties.put("project.groupId", groupId == null ? "" : groupId);
+        properties.put("project.version", version == null ? "" : version);
+
+        Map<String, Dependency> managed = new LinkedHashMap<>();
+        List<Dependency> imports = new ArrayList<>();
+        for (Dependency dependency : pom.managed()) {
+            Dependency resolved = dependency.interpolate(properties);
+            if ("import".equals(resolved.scope()) && "pom".equals(resolved.type())) {
+                imports.add(resolved);
+            } else {
+                managed.putIfAbsent(resolved.key(), resolved);
+            }
+        }
+        if (parent != null) {
+            parent.managed().forEach(managed::putIfAbsent);
+        }
+        for (Dependency bom : imports) {
+            model(artifactPath(bom.groupId(), bom.artifactId(), bom.version(), null, "pom"), depth + 1)
+                    .ifPresent(imported -> imported.managed().forEach(managed::putIfAbsent));
+        }
+
+        Map<String, Dependency> dependencies = new LinkedHashMap<>();
+        if (parent != null) {
+            parent.dependencies().forEach(dependency -> dependencies.put(dependency.key(), dependency));
+        }
+        for (Dependency dependency : pom.dependencies()) {
+            Dependency resolved = dependency.interpolate(properties);
+            Dependency management = managed.get(resolved.key());
+            if (management != null) {
+                resolved = resolved.withDefaults(management);
+            }
+            dependencies.put(resolved.key(), resolved);
+        }
+        return new Model(pomFile, groupId + ":" + pom.artifactId(), Map.copyOf(properties), managed,
+                List.copyOf(dependencies.values()), pom.modules());
+    }
+
+    private Optional<Pom> pom(Path file) {
+        Path normalized = file.normalize();
+        Optional<Pom> known = poms.get(normalized);
+        if (known != null) {
+            return known;
+        }
+        consulted.add(normalized);
+        Optional<Pom> parsed;
+        try (InputStream in = Files.newInputStream(normalized)) {
+            parsed = Optional.of(Pom.parse(element(XML.createXMLStreamReader(in))));
+        } catch (IOException | XMLStreamException | RuntimeException e) {
+            parsed = Optional.empty();
+        }
+        poms.putIfAbsent(normalized, parsed);
+        return parsed;
+    }
+
+    private Path artifactPath(String groupId, String artifactId, String version, String classifier, String extension) {
+        String file = artifactId + "-" + version + (classifier == null ? "" : "-" + classifier) + "." + extension;
+        return repository.resolve(groupId.replace('.', '/')).resolve(artifactId).resolve(version).resolve(file);
+    }
+
+    private void addIfExists(Set<Path> artifacts, Path path) {
+        consulted.add(path);
+        if (Files.exists(path)) {
+            artifacts.add(path);
+        }
+    }
+
+    static String interpolate(String value, Map<String, String> properties) {
+        if (value == null || value.indexOf('$') < 0) {
+            return value;
+        }
+        String current = value;
+        // nested placeholders resolve in a few rounds; the bound stops self-referencing properties
+        for (int round = 0; round < 10 && current.contains("${"); round++) {
+            Matcher matcher = PLACEHOLDER.matcher(current);
+            StringBuilder out = new StringBuilder();
+            boolean changed = false;
+            while (matcher.find()) {
+                String key = matcher.group(1);
+                String replacement = properties.get(key.startsWith("pom.") ? "project." + key.substring(4) : key);
+                changed |= replacement != null;
+                matcher.appendReplacement(out, Matcher.quoteReplacement(replacement != null ? replacement : matcher.group()));
+            }
+            matcher.appendTail(out);
+            current = out.toString();
+            if (!changed) {
+                break;
+            }
+        }
+        return current;
+    }
+
+    // --- result cache ---
+
+    private byte[] cachePayload(Set<Path> artifacts) {
+        StringBuilder out = new StringBuilder();
+        consulted.stream().sorted().forEach(file -> out.append("F\t").append(file).append('\t').append(stamp(file)).append('\n'));
+        artifacts.forEach(artifact -> out.append("A\t").append(artifact).append('\n'));
+        return out.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static Set<Path> readCache(CacheStore cache) {
+        byte[] payload;
+        try {
+            payload = cache.read();
+        } catch (IOException e) {
+            return null;
+        }
+        if (payload == null) {
+            return null;
+        }
+        Set<Path> artifacts = new LinkedHashSet<>();
+        for (String line : new String(payload, StandardCharsets.UTF_8).split("\n")) {
+            String[] fields = line.split("\t");
+            if (fields[0].equals("F")) {
+                if (fields.length != 3 || !fields[2].equals(stamp(Path.of(fields[1])))) {
+                    return null;
+                }
+            } else if (fields[0].equals("A") && fields.length == 2) {
+                artifacts.add(Path.of(fields[1]));
+            }
+        }
+        return artifacts;
+    }
+
+    private static String stamp(Path file) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            if (attributes.isDirectory()) {
+                // build output directories only matter for whether they exist
+                return "dir";
+            }
+            return attributes.size() + ":" + attributes.lastModifiedTime().toMillis();
+        } catch (IOException e) {
+            return "-";
+        }
+    }
+
+    // --- XML ---
+
+    private static XMLInputFactory xmlFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    /**
+     * Reads the document element into a small tree of names, trimmed text and children.
+     */
+    private static Element element(XMLStreamReader reader) throws XMLStreamException {
+        Deque<Element> open = new ArrayDeque<>();
+        Element root = null;
+        while (reader.hasNext()) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT -> {
+                    Element element = new Element(reader.getLocalName(), new StringBuilder(), new ArrayList<>());
+                    if (open.isEmpty()) {
+                        root = element;
+                    } else {
+                        open.peek().children().add(element);
+                    }
+                    open.push(element);
+                }
+                case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA -> {
+                    if (!open.isEmpty()) {
+                        open.peek().text().append(reader.getText());
+                    }
+                }
+                case XMLStreamConstants.END_ELEMENT -> open.pop();
+                default -> {
+                }
+            }
+        }
+        reader.close();
+        if (root == null) {
+            throw new XMLStreamException("Empty document");
+        }
+        return root;
+    }
+
+    private record Element(String name, StringBuilder text, List<Element> children) {
+        Element child(String name) {
+            for (Element child : children) {
+                if (child.name().equals(name)) {
+                    return child;
+                }
+            }
+            return null;
+        }
+
+        String value(String name) {
+            Element child = child(name);
+            if (child == null) {
+                return null;
+            }
+            String value = child.text().toString().trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        List<Element> all(String container, String name) {
+            Element parent = child(container);
+            return parent == null ? List.of() : parent.children().stream().filter(child -> child.name().equals(name)).toList();
+        }
+    }
+
+    private record Coordinates(String groupId, String artifactId, String version, String relativePath) {
+    }
+
+    private record Pom(String groupId, String artifactId, String version, Coordinates parent, Map<String, String> properties,
+                       List<Dependency> managed, List<Dependency> dependencies, List<String> modules) {
+        static Pom parse(Element project) {
+            Element parentElement = project.child("parent");
+            Coordinates parent = parentElement == null ? null : new Coordinates(parentElement.value("groupId"),
+                    parentElement.value("artifactId"), parentElement.value("version"), parentElement.value("relativePath"));
+            Map<String, String> properties = new HashMap<>();
+            Element props = project.child("properties");
+            if (props != null) {
+                props.children().forEach(property -> properties.put(property.name(), property.text().toString().trim()));
+            }
+            Element management = project.child("dependencyManagement");
+            List<Dependency> managed = management == null ? List.of()
+                    : management.all("dependencies", "dependency").stream().map(Dependency::parse).toList();
+            List<Dependency> dependencies = project.all("dependencies", "dependency").stream().map(Dependency::parse).toList();
+            List<String> modules = project.all("modules", "module").stream().map(module -> module.text().toString().trim()).toList();
+            return new Pom(project.value("groupId"), project.value("artifactId"), project.value("version"), parent, properties,
+                    managed, dependencies, modules);
+        }
+    }
+
+    private record Model(Path pomFile, String key, Map<String, String> properties, Map<String, Dependency> managed,
+                         List<Dependency> dependencies, List<String> modules) {
+    }
+
+    private record Node(Dependency dependency, Set<String> exclusions) {
+    }
+
+    private record Dependency(String groupId, String artifactId, String version, String type, String classifier,
+                              String scope, boolean optional, Set<String> exclusions) {
+        static Dependency parse(Element element) {
+            Set<String> exclusions = new HashSet<>();
+            for (Element exclusion : element.all("exclusions", "exclusion")) {
+                exclusions.add(exclusion.value("groupId") + ":" + exclusion.value("artifactId"));
+            }
+            return new Dependency(element.value("groupId"), element.value("artifactId"), element.value("version"),
+                    element.value("type"), element.value("classifier"), element.value("scope"),
+                    "true".equals(element.value("optional")), exclusions);
+        }
+
+        String key() {
+            return groupId + ":" + artifactId + ":" + (type == null ? "jar" : type) + (classifier == null ? "" : ":" + classifier);
+        }
+
+        @Override
+        public String type() {
+            return type == null ? "jar" : type;
+        }
+
+        @Override
+        public String scope() {
+            return scope == null ? "compile" : scope;
+        }
+
+        Dependency interpolate(Map<String, String> properties) {
+            return new Dependency(MavenPomResolver.interpolate(groupId, properties), MavenPomResolver.interpolate(artifactId, properties),
+                    MavenPomResolver.interpolate(version, properties), type, MavenPomResolver.interpolate(classifier, properties),
+                    scope, optional, exclusions);
+        }
+
+        Dependency withDefaults(Dependency management) {
+            Set<String> merged = new HashSet<>(exclusions);
+            merged.addAll(management.exclusions());
+            return new Dependency(groupId, artifactId, version != null ? version : management.version(), type, classifier,
+                    scope != null ? scope : management.scope, optional, merged);
+        }
+
+        Dependency withVersion(String managedVersion) {
+            return new Dependency(groupId, artifactId, managedVersion, type, classifier, scope, optional, exclusions);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.importanalyzer.core;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Checks whether a candidate type declares the static members a file invokes on it, by parsing project
+ * sources or reflecting over JDK and dependency classes. Kept apart from {@link ImportAnalyzer} so the
+ * reflection and class-loader machinery is only loaded for files that actually need narrowing.
+ */
+final class MemberChecker {
+    private final ConcurrentMap<Path, URLClassLoader> loaderCache = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Path, StaticMethods> staticMethodsBySource = new ConcurrentHashMap<>();
+
+    boolean supportsMembers(ClassIndexEntry entry, Set<String> members) {
+        return switch (entry.origin()) {
+            case PROJECT_MAIN, PROJECT_TEST -> supportsMembersFromSource(entry.location(), members);
+            case DEPENDENCY_JAR -> supportsMembersFromArtifact(entry, members);
+            case JDK -> supportsMembersFromJdk(entry.fullyQualifiedName(), members);
+        };
+    }
+
+    private boolean supportsMembersFromSource(Path source, Set<String> members) {
+        if (source == null || !Files.isRegularFile(source)) {
+            return false;
+        }
+        FileTime modified;
+        try {
+            modified = Files.getLastModifiedTime(source);
+        } catch (IOException e) {
+            return false;
+        }
+        StaticMethods declared = staticMethodsBySource.compute(source,
+                (path, cached) -> cached != null && cached.modified().equals(modified) ? cached
+                        : new StaticMethods(modified, staticMethods(path)));
+        return declared.names() != null && declared.names().containsAll(members);
+    }
+
+    /**
+     * Static method names declared in {@code source}, parsed once per version of the file however many files narrow
+     * their candidates against it; {@code null} when the file cannot be read or parsed.
+     */
+    private static Set<String> staticMethods(Path source) {
+        try {
+            SourceText text = SourceText.read(source);
+            var cu = SourceFileAnalyzer.parse(ParseDeadline.none().reader(text.chars()));
+            var declared = new HashSet<String>();
+            cu.findAll(com.github.javaparser.ast.body.MethodDeclaration.class).forEach(md -> {
+                if (md.isStatic()) {
+                    declared.add(md.getNameAsString());
+                }
+            });
+            return Set.copyOf(declared);
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private boolean supportsMembersFromJdk(String fqn, Set<String> members) {
+        try {
+            Class<?> clazz = Class.forName(fqn);
+            return hasAllStaticMethods(clazz, members);
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    private boolean supportsMembersFromArtifact(ClassIndexEntry entry, Set<String> members) {
+        Path location = entry.location();
+        if (location == null) {
+            return false;
+        }
+        try {
+            URLClassLoader loader = loaderCache.computeIfAbsent(location, this::createLoader);
+            Class<?> clazz = loadNested(entry.fullyQualifiedName(), loader);
+            return clazz != null && hasAllStaticMethods(clazz, members);
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * Loads a class by canonical name; nested types are indexed as {@code Outer.Inner}, so the trailing dots
+     * are turned into {@code $} one at a time until a binary name resolves.
+     */
+    private Class<?> loadNested(String canonicalName, ClassLoader loader) {
+        String name = canonicalName;
+        while (true) {
+            try {
+                return Class.forName(name, false, loader);
+            } catch (ClassNotFoundException e) {
+                int dot = name.lastIndexOf('.');
+                if (dot < 0) {
+                    return null;
+                }
+                name = name.substring(0, dot) + '$' + name.substring(dot + 1);
+            }
+        }
+    }
+
+    private URLClassLoader createLoader(Path location) {
+        try {
+            URL url = location.toUri().toURL();
+            return new URLClassLoader(new URL[]{url}, MemberChecker.class.getClassLoader());
+        } catch (Exception e) {
+            return new URLClassLoader(new URL[]{});
+        }
+    }
+
+    private boolean hasAllStaticMethods(Class<?> clazz, Set<String> members) {
+        try {
+            List<Method> methods = Arrays.asList(clazz.getMethods());
+            for (String name : members) {
+                boolean found = methods.stream().anyMatch(m -> m.getName().equals(name) && Modifier.isStatic(m.getModifiers()));
+                if (!found) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+
+    private record StaticMethods(FileTime modified, Set<String> names) {
+    }
+}
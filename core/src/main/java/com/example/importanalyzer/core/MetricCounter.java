@@ -0,0 +1,19 @@
+package com.example.importanalyzer.core;
+
+/**
+ * Monotonic counters reported to {@link MetricsListener}s.
+ */
+public enum MetricCounter {
+    FILES_PARSED,
+    BYTES_READ,
+    PARSE_FAILURES,
+    PARSE_TIMEOUTS,
+    QUARANTINE_HITS,
+    ARTIFACTS_SCANNED,
+    DECLARATION_CACHE_HITS,
+    DECLARATION_CACHE_MISSES,
+    INDEX_CACHE_HITS,
+    INDEX_CACHE_MISSES,
+    /** Corrupt or unreadable cache files and failed cache writes. */
+    INDEX_CACHE_ERRORS
+}
@@ -0,0 +1,9 @@
+package com.example.importanalyzer.core;
+
+/**
+ * Point-in-time values reported to {@link MetricsListener}s.
+ */
+public enum MetricGauge {
+    INDEX_SIZE,
+    FILES_TOTAL
+}
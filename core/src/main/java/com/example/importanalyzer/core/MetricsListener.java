@@ -0,0 +1,42 @@
+package com.example.importanalyzer.core;
+
+import java.nio.file.Path;
+
+/**
+ * Receives timings and counters while an analysis runs. Callbacks may arrive concurrently from worker
+ * threads and must be cheap; every method defaults to a no-op.
+ */
+public interface MetricsListener {
+
+    default void phaseCompleted(AnalysisPhase phase, long durationNanos) {
+    }
+
+    default void counterIncremented(MetricCounter counter, long delta) {
+    }
+
+    default void gaugeUpdated(MetricGauge gauge, long value) {
+    }
+
+    /**
+     * Whether this listener wants the profiling callbacks below. Profiling reads per-thread CPU time and
+     * allocation around every file and artifact, so it is off unless some listener asks for it.
+     */
+    default boolean profiling() {
+        return false;
+    }
+
+    default void phaseProfiled(AnalysisPhase phase, PhaseProfile profile) {
+    }
+
+    default void fileParsed(Path file, long bytes, long durationNanos) {
+    }
+
+    default void artifactScanned(Path artifact, long bytes, int classes, long durationNanos) {
+    }
+
+    /**
+     * The complete index, once per analysis before evaluation starts. Must not modify it.
+     */
+    default void indexBuilt(ClassIndex index) {
+    }
+}
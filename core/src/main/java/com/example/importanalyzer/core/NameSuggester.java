@@ -0,0 +1,171 @@
+package com.example.importanalyzer.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Approximate-match index over a fixed set of names, answering "which names are within a few edits of this
+ * one". Each name is split into padded trigrams with a posting list per trigram. A name within {@code k}
+ * edits of the query shares all but at most {@code 3k} of the query's trigrams, so it must appear in at least
+ * one of any {@code 3k + 1} of them. Only the postings of the rarest query trigrams are read, names hitting too
+ * few of them are dropped by count, and the rest are verified with a banded Levenshtein distance.
+ */
+final class NameSuggester {
+    private static final int[] NO_POSTINGS = new int[0];
+
+    private final String[] names;
+    private final Map<Integer, int[]> postings;
+
+    NameSuggester(Collection<String> source) {
+        this.names = source.stream().distinct().sorted().toArray(String[]::new);
+        Map<Integer, int[]> lists = new HashMap<>();
+        Map<Integer, Integer> sizes = new HashMap<>();
+        for (int id = 0; id < names.length; id++) {
+            for (int gram : trigrams(names[id])) {
+                int size = sizes.merge(gram, 1, Integer::sum);
+                int[] list = lists.get(gram);
+                if (list == null || list.length < size) {
+                    list = Arrays.copyOf(list == null ? NO_POSTINGS : list, Math.max(4, size * 2));
+                    lists.put(gram, list);
+                }
+                // trigrams repeat within a name; keep each id once per list
+                if (size > 1 && list[size - 2] == id) {
+                    sizes.merge(gram, -1, Integer::sum);
+                } else {
+                    list[size - 1] = id;
+                }
+            }
+        }
+        lists.replaceAll((gram, list) -> Arrays.copyOf(list, sizes.get(gram)));
+        this.postings = lists;
+    }
+
+    /**
+     * Returns up to {@code limit} names within {@code maxDistance} edits of {@code query}, closest first and
+     * by name within the same distance. The query itself is never returned.
+     */
+    List<String> suggest(String query, int maxDistance, int limit) {
+        int[] grams = trigrams(query);
+        int[][] lists = new int[grams.length][];
+        for (int i = 0; i < grams.length; i++) {
+            lists[i] = postings.getOrDefault(grams[i], NO_POSTINGS);
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.length, b.length));
+        // read up to twice the minimum number of lists while the extra ones stay short; a match must then hit
+        // all but 3k of the lists read
+        int minimum = Math.min(lists.length, 3 * maxDistance + 1);
+        int probe = minimum;
+        while (probe < lists.length && probe < 2 * minimum && lists[probe].length <= Math.max(64, lists[minimum - 1].length)) {
+            probe++;
+        }
+        int required = Math.max(1, probe - 3 * maxDistance);
+
+        int total = 0;
+        for (int i = 0; i < probe; i++) {
+            total += lists[i].length;
+        }
+        int[] ids = new int[total];
+        int size = 0;
+        for (int i = 0; i < probe; i++) {
+            System.arraycopy(lists[i], 0, ids, size, lists[i].length);
+            size += lists[i].length;
+        }
+        Arrays.sort(ids);
+
+        List<int[]> matches = new ArrayList<>();
+        for (int start = 0, end; start < size; start = end) {
+            end = start + 1;
+            while (end < size && ids[end] == ids[start]) {
+                end++;
+            }
+            String name = names[ids[start]];
+            if (end - start < required || Math.abs(name.length() - query.length()) > maxDistance || name.equals(query)) {
+                continue;
+            }
+            int distance = distance(query, name, maxDistance);
+            if (distance <= maxDistance) {
+                matches.add(new int[]{distance, ids[start]});
+            }
+        }
+        matches.sort((a, b) -> a[0] != b[0] ? Integer.compare(a[0], b[0]) : Integer.compare(a[1], b[1]));
+        List<String> result = new ArrayList<>(Math.min(limit, matches.size()));
+        for (int i = 0; i < matches.size() && i < limit; i++) {
+            result.add(names[matches.get(i)[1]]);
+        }
+        return result;
+    }
+
+    int size() {
+        return names.length;
+    }
+
+    /**
+     * Default edit budget for a name: one edit for short names, two otherwise.
+     */
+    static int maxDistanceFor(String name) {
+        return name.length() <= 8 ? 1 : 2;
+    }
+
+    /**
+     * Trigrams of the name padded with two boundary markers on each side, hashed to an int. Padding gives every
+     * name at least one trigram and lets edits at either end be detected; hash collisions only add candidates
+     * that the distance check rejects.
+     */
+    private static int[] trigrams(String name) {
+        int length = name.length() + 2;
+        int[] grams = new int[length];
+        for (int i = 0; i < length; i++) {
+            grams[i] = charAt(name, i - 2) * 31 * 31 + charAt(name, i - 1) * 31 + charAt(name, i);
+        }
+        return grams;
+    }
+
+    private static int charAt(String name, int i) {
+        return i < 0 || i >= name.length() ? 0 : name.charAt(i);
+    }
+
+    /**
+     * Levenshtein distance restricted to the diagonal band {@code |i - j| <= max}; returns {@code max + 1} as
+     * soon as every cell of a row exceeds the budget.
+     */
+    static int distance(String a, String b, int max) {
+        int n = a.length();
+        int m = b.length();
+        if (Math.abs(n - m) > max) {
+            return max + 1;
+        }
+        int inf = max + 1;
+        int[] previous = new int[m + 1];
+        int[] current = new int[m + 1];
+        for (int j = 0; j <= m; j++) {
+            previous[j] = j <= max ? j : inf;
+        }
+        for (int i = 1; i <= n; i++) {
+            int from = Math.max(1, i - max);
+            int to = Math.min(m, i + max);
+            current[0] = i <= max ? i : inf;
+            current[from - 1] = from > 1 ? inf : current[0];
+            if (to < m) {
+                current[to + 1] = inf;
+            }
+            int rowMin = current[0];
+            for (int j = from; j <= to; j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                current[j] = Math.min(value, inf);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) {
+                return inf;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[m];
+    }
+}
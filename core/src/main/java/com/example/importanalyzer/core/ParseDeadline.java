@@ -0,0 +1,69 @@
+package com.example.importanalyzer.core;
+
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Cooperative per-file deadline. JavaParser pulls its input through {@link #reader(CharBuffer)} in small
+ * chunks, so every refill and every visited usage node is a cancellation point.
+ */
+final class ParseDeadline {
+    private static final ParseDeadline NONE = new ParseDeadline(null, Duration.ZERO, Long.MAX_VALUE);
+    private static final int CHUNK = 4096;
+
+    private final Path file;
+    private final Duration timeout;
+    private final long deadlineNanos;
+
+    private ParseDeadline(Path file, Duration timeout, long deadlineNanos) {
+        this.file = file;
+        this.timeout = timeout;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    static ParseDeadline none() {
+        return NONE;
+    }
+
+    static ParseDeadline of(Path file, Duration timeout) {
+        if (timeout == null || timeout.isZero() || timeout.isNegative()) {
+            return NONE;
+        }
+        return new ParseDeadline(file, timeout, System.nanoTime() + timeout.toNanos());
+    }
+
+    boolean expired() {
+        return this != NONE && (System.nanoTime() - deadlineNanos > 0 || Thread.currentThread().isInterrupted());
+    }
+
+    void check() {
+        if (expired()) {
+            throw new ParseTimeoutException(file, timeout);
+        }
+    }
+
+    /**
+     * Reads the remaining characters of {@code content} without copying them up front.
+     */
+    Reader reader(CharBuffer content) {
+        CharBuffer source = content.duplicate();
+        return new Reader() {
+            @Override
+            public int read(char[] buffer, int offset, int length) {
+                check();
+                if (!source.hasRemaining()) {
+                    return -1;
+                }
+                int count = Math.min(Math.min(length, CHUNK), source.remaining());
+                source.get(buffer, offset, count);
+                return count;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.importanalyzer.core;
+
+/**
+ * How a source file that cannot be parsed is handled by both {@link ImportAnalyzer} and
+ * {@link AsyncImportAnalyzerService}.
+ */
+public enum ParseErrorPolicy {
+    /**
+     * Abort the analysis with the parse error.
+     */
+    FAIL,
+    /**
+     * Keep the file's declarations from the lexical fallback so other files still resolve against it.
+     */
+    FALLBACK,
+    /**
+     * Leave the file out of the index and the report.
+     */
+    SKIP
+}
@@ -0,0 +1,85 @@
+package com.example.importanalyzer.core;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Content hashes of sources that failed to parse on a previous run. Quarantined files skip JavaParser and
+ * go straight to the lexical fallback until their content changes. The list is stored as one hash per
+ * line next to the index cache, through a {@link CacheStore} like every other cache file.
+ */
+public class ParseQuarantine {
+    private static final int FORMAT_VERSION = 1;
+
+    private final Path path;
+    private final Set<String> known = ConcurrentHashMap.newKeySet();
+    private final Set<String> seen = ConcurrentHashMap.newKeySet();
+
+    public ParseQuarantine(Path path) {
+        this.path = path;
+    }
+
+    public static Path pathFor(Path indexCachePath) {
+        return indexCachePath.resolveSibling(indexCachePath.getFileName() + ".quarantine");
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    /**
+     * Reads the stored hashes. A damaged file leaves the quarantine empty, which only costs one extra parse
+     * attempt per bad file, and is replaced on the next {@link #save()}.
+     *
+     * @throws CorruptCacheException if the file fails its integrity check
+     */
+    public ParseQuarantine load() throws IOException {
+        if (path == null) {
+            return this;
+        }
+        byte[] payload = new CacheStore(path, FORMAT_VERSION).read();
+        if (payload != null) {
+            new String(payload, StandardCharsets.UTF_8).lines()
+                    .map(String::trim)
+                    .filter(line -> !line.isEmpty())
+                    .forEach(known::add);
+        }
+        return this;
+    }
+
+    public boolean contains(String hash) {
+        seen.add(hash);
+        return known.contains(hash);
+    }
+
+    public void add(String hash) {
+        seen.add(hash);
+        known.add(hash);
+    }
+
+    public int size() {
+        return known.size();
+    }
+
+    /**
+     * Writes the hashes that were looked up or added since loading; entries for files that changed or
+     * disappeared are dropped.
+     */
+    public void save() throws IOException {
+        if (path == null) {
+            return;
+        }
+        Set<String> live = new TreeSet<>(known);
+        live.retainAll(seen);
+        if (live.isEmpty()) {
+            Files.deleteIfExists(path);
+            return;
+        }
+        new CacheStore(path, FORMAT_VERSION).write((String.join("\n", live) + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+}
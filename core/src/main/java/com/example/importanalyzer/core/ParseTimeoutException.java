@@ -0,0 +1,24 @@
+package com.example.importanalyzer.core;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Thrown when parsing a single source file exceeds the configured per-file deadline, or when the parsing
+ * thread is interrupted because the scan was cancelled.
+ */
+public class ParseTimeoutException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    // Path is not serializable; the message still names the file after a round trip
+    private final transient Path file;
+
+    public ParseTimeoutException(Path file, Duration timeout) {
+        super("Parsing " + file + " exceeded " + timeout.toMillis() + " ms");
+        this.file = file;
+    }
+
+    public Path file() {
+        return file;
+    }
+}
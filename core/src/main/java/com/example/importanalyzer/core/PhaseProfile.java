@@ -0,0 +1,12 @@
+package com.example.importanalyzer.core;
+
+/**
+ * Cost of one analysis phase: wall-clock time, and CPU time and heap allocation summed over the thread that ran
+ * the phase and the worker threads parsing files or scanning artifacts for it. CPU and allocation are {@code 0}
+ * where the JVM cannot measure them.
+ */
+public record PhaseProfile(long wallNanos, long cpuNanos, long allocatedBytes) {
+    PhaseProfile plus(PhaseProfile other) {
+        return new PhaseProfile(wallNanos + other.wallNanos, cpuNanos + other.cpuNanos, allocatedBytes + other.allocatedBytes);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.importanalyzer.core;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * How often each resolved FQN is imported across the project and within each importing package. Built once
+ * per analysis from the parsed files; ranking candidates is then a pair of hash lookups per entry, so import
+ * suggestions favour what the codebase itself already uses over name or origin alone.
+ */
+public class PopularityTable {
+    public static final PopularityTable EMPTY = new PopularityTable(Map.of(), Map.of());
+
+    private final Map<String, Integer> counts;
+    private final Map<String, Map<String, Integer>> byPackage;
+
+    private PopularityTable(Map<String, Integer> counts, Map<String, Map<String, Integer>> byPackage) {
+        this.counts = counts;
+        this.byPackage = byPackage;
+    }
+
+    /**
+     * Counts the explicit imports of {@code results} that resolve in {@code index}.
+     */
+    public static PopularityTable build(Collection<SourceFileResult> results, ClassIndex index) {
+        Map<String, Integer> counts = new HashMap<>();
+        Map<String, Map<String, Integer>> byPackage = new HashMap<>();
+        for (SourceFileResult result : results) {
+            for (String fqn : result.imports().keySet()) {
+                if (index.getByFqn(fqn) == null) {
+                    continue;
+                }
+                counts.merge(fqn, 1, Integer::sum);
+                byPackage.computeIfAbsent(result.packageName(), pkg -> new HashMap<>()).merge(fqn, 1, Integer::sum);
+            }
+        }
+        return new PopularityTable(counts, byPackage);
+    }
+
+    public int count(String fqn) {
+        return counts.getOrDefault(fqn, 0);
+    }
+
+    public int count(String packageName, String fqn) {
+        return byPackage.getOrDefault(packageName, Map.of()).getOrDefault(fqn, 0);
+    }
+
+    /**
+     * Orders candidates for a file in {@code packageName}: imports seen in that package first, then project-wide
+     * popularity, then origin (project sources before tests, jars and the JDK) and name.
+     */
+    public Comparator<ClassIndexEntry> order(String packageName) {
+        Map<String, Integer> local = byPackage.getOrDefault(packageName, Map.of());
+        return Comparator
+                .comparingInt((ClassIndexEntry e) -> -local.getOrDefault(e.fullyQualifiedName(), 0))
+                .thenComparingInt(e -> -counts.getOrDefault(e.fullyQualifiedName(), 0))
+                .thenComparingInt(e -> e.origin().ordinal())
+                .thenComparing(ClassIndexEntry::fullyQualifiedName);
+    }
+}
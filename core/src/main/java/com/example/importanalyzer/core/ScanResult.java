@@ -4,7 +4,9 @@ import java.nio.file.Path;
 import java.util.List;
 
 /**
- * Result of an asynchronous scan request for a single file.
+ * Result of an asynchronous scan request for a single file. {@code complete} is set when the answer comes from
+ * the fully built index; an answer given mid-scan, from the file's own package and imported packages only, has
+ * {@code inProgress} set and {@code complete} cleared.
  */
 public record ScanResult(
         Path file,
@@ -14,6 +16,11 @@ public record ScanResult(
         ImportSource source,
         boolean inProgress,
         int scannedFiles,
-        int totalFiles
+        int totalFiles,
+        boolean complete
 ) {
+    public ScanResult(Path file, ImportAction action, int line, List<String> candidates, ImportSource source,
+                      boolean inProgress, int scannedFiles, int totalFiles) {
+        this(file, action, line, candidates, source, inProgress, scannedFiles, totalFiles, !inProgress);
+    }
 }
@@ -0,0 +1,13 @@
+package com.example.importanalyzer.core;
+
+/**
+ * How {@link ImportFixer} resolves a {@link ImportAction#SELECT} between several import candidates.
+ */
+public enum SelectPolicy {
+    /** Pick the only candidate that is declared in the project's main sources, otherwise leave the issue alone. */
+    PREFER_LOCAL,
+    /** Pick the best-ranked candidate. */
+    FIRST,
+    /** Never pick; only unambiguous fixes are applied. */
+    SKIP
+}
@@ -0,0 +1,129 @@
+package com.example.importanalyzer.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Reference-counted pool of {@link IndexSegment}s keyed by artifact content. Two projects that depend on the same
+ * jar, wherever it sits on disk, get the same segment; a segment is dropped when the last project releases it.
+ * Content digests are remembered per path, size and modification time, so an unchanged jar is hashed once.
+ */
+public final class SharedIndexSegments {
+    private static final String JDK_KEY = "jdk";
+
+    private final Map<String, Shared> segments = new HashMap<>();
+    private final Map<Path, Fingerprint> fingerprints = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the segment for the jar at {@code artifact} as indexed for {@code release}, building it on first use.
+     * Every call must be paired with {@link #release(IndexSegment)}.
+     */
+    public IndexSegment acquire(Path artifact, int release) {
+        return acquire(contentKey(artifact) + "@" + release, index -> ArtifactIndexer.scan(index, artifact, release));
+    }
+
+    IndexSegment acquireJdk(Consumer<ClassIndex> seed) {
+        return acquire(JDK_KEY, seed);
+    }
+
+    public synchronized void release(IndexSegment segment) {
+        Shared shared = segments.get(segment.key());
+        if (shared != null) {
+            unreference(segment.key(), shared);
+        }
+    }
+
+    /**
+     * Number of distinct segments currently held by at least one project.
+     */
+    public synchronized int segmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Total entries across distinct segments; grows with unique artifacts, not with projects.
+     */
+    public synchronized long entryCount() {
+        return segments.values().stream().mapToLong(shared -> shared.segment == null ? 0 : shared.segment.size()).sum();
+    }
+
+    private IndexSegment acquire(String key, Consumer<ClassIndex> builder) {
+        Shared shared;
+        synchronized (this) {
+            shared = segments.computeIfAbsent(key, k -> new Shared());
+            shared.references++;
+        }
+        // built outside the pool lock; concurrent requests for the same key wait on this segment only
+        synchronized (shared) {
+            if (shared.segment == null) {
+                try {
+                    ClassIndex index = new ClassIndex();
+                    builder.accept(index);
+                    shared.segment = IndexSegment.of(key, index);
+                } catch (RuntimeException | Error e) {
+                    // the caller gets no segment to release, so give back its reference here; a waiting caller
+                    // for the same key tries the build again
+                    unreference(key, shared);
+                    throw e;
+                }
+            }
+            return shared.segment;
+        }
+    }
+
+    private synchronized void unreference(String key, Shared shared) {
+        if (--shared.references == 0 && segments.get(key) == shared) {
+            segments.remove(key);
+        }
+    }
+
+    private String contentKey(Path artifact) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(artifact, BasicFileAttributes.class);
+            Fingerprint known = fingerprints.get(artifact);
+            if (known != null && known.size() == attributes.size() && known.modified() == attributes.lastModifiedTime().toMillis()) {
+                return known.digest();
+            }
+            String digest = digest(artifact);
+            fingerprints.put(artifact, new Fingerprint(attributes.size(), attributes.lastModifiedTime().toMillis(), digest));
+            return digest;
+        } catch (IOException e) {
+            // unreadable: never shared, and indexing it yields an empty segment
+            return "path:" + artifact.toAbsolutePath();
+        }
+    }
+
+    private static String digest(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = Files.newInputStream(file)) {
+            for (int read; (read = in.read(buffer)) > 0; ) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static final class Shared {
+        private int references;
+        private IndexSegment segment;
+    }
+
+    private record Fingerprint(long size, long modified, String digest) {
+    }
+}
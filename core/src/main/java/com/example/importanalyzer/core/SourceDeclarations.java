@@ -0,0 +1,13 @@
+package com.example.importanalyzer.core;
+
+import java.util.Set;
+
+/**
+ * Package and declared type names of a source file, without any usage information.
+ */
+public record SourceDeclarations(String packageName, Set<String> declaredTypes) {
+    public SourceDeclarations {
+        packageName = packageName == null ? "" : packageName;
+        declaredTypes = declaredTypes == null ? Set.of() : Set.copyOf(declaredTypes);
+    }
+}
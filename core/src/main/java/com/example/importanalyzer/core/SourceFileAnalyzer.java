@@ -1,40 +1,94 @@
 package com.example.importanalyzer.core;
 
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseProblemException;
+import com.github.javaparser.ParseResult;
 import com.github.javaparser.ParserConfiguration;
-import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.Range;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
 import com.github.javaparser.ast.body.EnumDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
 import com.github.javaparser.ast.body.RecordDeclaration;
+import com.github.javaparser.ast.body.TypeDeclaration;
 import com.github.javaparser.ast.type.ClassOrInterfaceType;
 import com.github.javaparser.ast.visitor.VoidVisitorAdapter;
 
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.Reader;
+import java.nio.CharBuffer;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 public final class SourceFileAnalyzer {
     private SourceFileAnalyzer() {}
 
-    static {
+    // StaticJavaParser keeps its configuration per thread, so each worker gets its own configured parser
+    private static final ThreadLocal<JavaParser> PARSER = ThreadLocal.withInitial(() -> {
         ParserConfiguration configuration = new ParserConfiguration();
         configuration.setLanguageLevel(ParserConfiguration.LanguageLevel.BLEEDING_EDGE);
-        StaticJavaParser.setConfiguration(configuration);
-    }
+        // no pass reads comments; attributing them to nodes roughly doubles parse allocation
+        configuration.setAttributeComments(false);
+        return new JavaParser(configuration);
+    });
 
     public static SourceFileResult analyze(Path file) throws IOException {
-        CompilationUnit cu = StaticJavaParser.parse(Files.readString(file));
+        return analyze(file, SourceText.read(file), Duration.ZERO);
+    }
+
+    public static SourceFileResult analyze(Path file, String content) {
+        return analyze(file, content, Duration.ZERO);
+    }
+
+    /**
+     * Parses {@code content} and extracts import and usage facts, giving up with a
+     * {@link ParseTimeoutException} once {@code timeout} has elapsed. A zero timeout disables the deadline.
+     */
+    public static SourceFileResult analyze(Path file, String content, Duration timeout) {
+        return analyze(file, CharBuffer.wrap(content), timeout);
+    }
+
+    static SourceFileResult analyze(Path file, SourceText text, Duration timeout) {
+        return analyze(file, text.chars(), timeout);
+    }
+
+    /**
+     * Parses a compilation unit with this thread's parser.
+     *
+     * @throws ParseProblemException if the source does not parse
+     */
+    static CompilationUnit parse(Reader source) {
+        ParseResult<CompilationUnit> result = PARSER.get().parse(source);
+        if (!result.isSuccessful() || result.getResult().isEmpty()) {
+            throw new ParseProblemException(result.getProblems());
+        }
+        return result.getResult().get();
+    }
+
+    private static SourceFileResult analyze(Path file, CharBuffer content, Duration timeout) {
+        ParseDeadline deadline = ParseDeadline.of(file, timeout);
+        CompilationUnit cu;
+        try {
+            cu = parse(deadline.reader(content));
+        } catch (RuntimeException e) {
+            deadline.check();
+            throw e;
+        }
 
         Map<String, Integer> imports = new HashMap<>();
         Map<String, Integer> wildcardImports = new HashMap<>();
         Map<String, Integer> staticImports = new HashMap<>();
         Map<String, Integer> staticWildcardImports = new HashMap<>();
         Map<String, Set<String>> methodCallsByType = new HashMap<>();
+        List<ImportSpan> importSpans = new ArrayList<>();
         cu.getImports().forEach(imp -> {
+            imp.getRange().ifPresent(range -> importSpans.add(new ImportSpan(imp.getNameAsString(), imp.isStatic(), imp.isAsterisk(), toSourceRange(range))));
             if (imp.isStatic()) {
                 if (imp.isAsterisk()) {
                     staticWildcardImports.put(imp.getNameAsString(), imp.getBegin().map(p -> p.line).orElse(1));
@@ -60,12 +114,17 @@ public final class SourceFileAnalyzer {
         cu.accept(new VoidVisitorAdapter<Void>() {
             @Override
             public void visit(ClassOrInterfaceType n, Void arg) {
+                deadline.check();
                 super.visit(n, arg);
-                usedTypes.add(n.getName().getIdentifier());
+                // Outer.Inner names Inner through Outer, which the scope visit above already recorded
+                if (n.getScope().isEmpty()) {
+                    usedTypes.add(n.getName().getIdentifier());
+                }
             }
 
             @Override
             public void visit(com.github.javaparser.ast.expr.NameExpr n, Void arg) {
+                deadline.check();
                 super.visit(n, arg);
                 usedIdentifiers.add(n.getName().getIdentifier());
                 if (!n.getName().getIdentifier().isEmpty() && Character.isUpperCase(n.getName().getIdentifier().charAt(0))) {
@@ -75,6 +134,7 @@ public final class SourceFileAnalyzer {
 
             @Override
             public void visit(com.github.javaparser.ast.expr.MethodCallExpr n, Void arg) {
+                deadline.check();
                 super.visit(n, arg);
                 usedIdentifiers.add(n.getName().getIdentifier());
                 n.getScope().filter(scope -> scope instanceof com.github.javaparser.ast.expr.NameExpr).ifPresent(scope -> {
@@ -88,6 +148,7 @@ public final class SourceFileAnalyzer {
 
             @Override
             public void visit(com.github.javaparser.ast.expr.FieldAccessExpr n, Void arg) {
+                deadline.check();
                 super.visit(n, arg);
                 usedIdentifiers.add(n.getName().getIdentifier());
             }
@@ -99,7 +160,31 @@ public final class SourceFileAnalyzer {
                     usedTypes.add(annotation.getName().getIdentifier());
                 });
 
+        // entry-point facts for dead-type detection: annotations on each type or its methods, and main methods
+        Map<String, Set<String>> typeAnnotations = new HashMap<>();
+        Set<String> mainTypes = new HashSet<>();
+        for (TypeDeclaration<?> decl : cu.findAll(TypeDeclaration.class)) {
+            Set<String> annotations = new HashSet<>();
+            decl.getAnnotations().forEach(annotation -> annotations.add(annotation.getName().getIdentifier()));
+            for (MethodDeclaration method : decl.getMethods()) {
+                method.getAnnotations().forEach(annotation -> annotations.add(annotation.getName().getIdentifier()));
+                if (method.getNameAsString().equals("main") && method.isStatic() && method.getType().isVoidType()
+                        && method.getParameters().size() == 1) {
+                    mainTypes.add(decl.getNameAsString());
+                }
+            }
+            if (!annotations.isEmpty()) {
+                typeAnnotations.put(decl.getNameAsString(), annotations);
+            }
+        }
+
         String pkg = cu.getPackageDeclaration().map(pd -> pd.getName().asString()).orElse("");
-        return new SourceFileResult(file, pkg, imports, wildcardImports, staticImports, staticWildcardImports, declaredTypes, usedTypes, usedIdentifiers, methodCallsByType);
+        SourceRange packageRange = cu.getPackageDeclaration().flatMap(pd -> pd.getRange()).map(SourceFileAnalyzer::toSourceRange).orElse(null);
+        return new SourceFileResult(file, pkg, imports, wildcardImports, staticImports, staticWildcardImports, declaredTypes, usedTypes,
+                usedIdentifiers, methodCallsByType, importSpans, packageRange, typeAnnotations, mainTypes);
+    }
+
+    private static SourceRange toSourceRange(Range range) {
+        return new SourceRange(range.begin.line, range.begin.column, range.end.line, range.end.column);
     }
 }
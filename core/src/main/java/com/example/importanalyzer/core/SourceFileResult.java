@@ -1,9 +1,15 @@
 package com.example.importanalyzer.core;
 
 import java.nio.file.Path;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+/**
+ * Facts extracted from one source file. The maps and sets are stored in the compact, immutable form of
+ * {@link CompactFacts} whatever collections are passed in, since services keep one result per project file for
+ * their whole lifetime.
+ */
 public record SourceFileResult(
         Path file,
         String packageName,
@@ -14,6 +20,50 @@ public record SourceFileResult(
         Set<String> declaredTypes,
         Set<String> usedTypes,
         Set<String> usedIdentifiers,
-        Map<String, Set<String>> methodCallsByType
+        Map<String, Set<String>> methodCallsByType,
+        List<ImportSpan> importSpans,
+        SourceRange packageRange,
+        Map<String, Set<String>> typeAnnotations,
+        Set<String> mainTypes
 ) {
+
+    public SourceFileResult {
+        packageName = CompactFacts.intern(packageName);
+        imports = CompactFacts.lines(imports);
+        wildcardImports = CompactFacts.lines(wildcardImports);
+        staticImports = CompactFacts.lines(staticImports);
+        staticWildcardImports = CompactFacts.lines(staticWildcardImports);
+        declaredTypes = CompactFacts.names(declaredTypes);
+        usedTypes = CompactFacts.names(usedTypes);
+        usedIdentifiers = CompactFacts.names(usedIdentifiers);
+        methodCallsByType = CompactFacts.groups(methodCallsByType);
+        importSpans = importSpans == null ? List.of() : importSpans.stream()
+                .map(span -> new ImportSpan(CompactFacts.intern(span.name()), span.isStatic(), span.isAsterisk(), span.range()))
+                .toList();
+        typeAnnotations = CompactFacts.groups(typeAnnotations);
+        mainTypes = CompactFacts.names(mainTypes);
+    }
+
+    public SourceFileResult(Path file, String packageName, Map<String, Integer> imports, Map<String, Integer> wildcardImports,
+                            Map<String, Integer> staticImports, Map<String, Integer> staticWildcardImports, Set<String> declaredTypes,
+                            Set<String> usedTypes, Set<String> usedIdentifiers, Map<String, Set<String>> methodCallsByType,
+                            List<ImportSpan> importSpans, SourceRange packageRange) {
+        this(file, packageName, imports, wildcardImports, staticImports, staticWildcardImports, declaredTypes, usedTypes,
+                usedIdentifiers, methodCallsByType, importSpans, packageRange, Map.of(), Set.of());
+    }
+
+    public SourceFileResult(Path file, String packageName, Map<String, Integer> imports, Map<String, Integer> wildcardImports,
+                            Map<String, Integer> staticImports, Map<String, Integer> staticWildcardImports, Set<String> declaredTypes,
+                            Set<String> usedTypes, Set<String> usedIdentifiers, Map<String, Set<String>> methodCallsByType) {
+        this(file, packageName, imports, wildcardImports, staticImports, staticWildcardImports, declaredTypes, usedTypes,
+                usedIdentifiers, methodCallsByType, List.of(), null, Map.of(), Set.of());
+    }
+
+    /**
+     * Result carrying only the declarations of a file whose full parse failed or timed out.
+     */
+    public static SourceFileResult declarationsOnly(Path file, SourceDeclarations declarations) {
+        return new SourceFileResult(file, declarations.packageName(), Map.of(), Map.of(), Map.of(), Map.of(),
+                declarations.declaredTypes(), Set.of(), Set.of(), Map.of());
+    }
 }
@@ -0,0 +1,86 @@
+package com.example.importanalyzer.core;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Reads and parses one source file, applying the parse deadline, the quarantine and the configured
+ * {@link ParseErrorPolicy}. Shared by the batch analyzer and the background service so both treat
+ * broken files the same way.
+ */
+final class SourceParser {
+    private final AnalysisTracker tracker;
+    private final ParseQuarantine quarantine;
+    private final ParseErrorPolicy policy;
+    private final Duration timeout;
+
+    SourceParser(AnalysisTracker tracker, ParseQuarantine quarantine, ParseErrorPolicy policy, Duration timeout) {
+        this.tracker = tracker;
+        this.quarantine = quarantine;
+        this.policy = policy;
+        this.timeout = timeout;
+    }
+
+    static ParseQuarantine quarantineFor(ImportAnalyzerConfig config, AnalysisTracker tracker) {
+        ParseQuarantine quarantine = new ParseQuarantine(config.cacheEnabled() ? ParseQuarantine.pathFor(config.indexCachePath()) : null);
+        try {
+            return quarantine.load();
+        } catch (IOException e) {
+            tracker.cacheError(quarantine.path(), e);
+            return quarantine;
+        }
+    }
+
+    /**
+     * Saves {@code quarantine}, reporting a failure as a cache error.
+     */
+    static void save(ParseQuarantine quarantine, AnalysisTracker tracker) {
+        try {
+            quarantine.save();
+        } catch (IOException e) {
+            tracker.cacheError(quarantine.path(), e);
+        }
+    }
+
+    /**
+     * @return the parsed facts, a declaration-only result, or {@code null} when the policy skips the file
+     */
+    SourceFileResult parse(Path path) throws IOException {
+        AnalysisTracker.Work work = tracker.startParse();
+        SourceText text = SourceText.read(path);
+        String hash = text.hash();
+        try {
+            if (quarantine.contains(hash)) {
+                tracker.count(MetricCounter.QUARANTINE_HITS, 1);
+                return onError(path, text, null);
+            }
+            try {
+                return SourceFileAnalyzer.analyze(path, text, timeout);
+            } catch (ParseTimeoutException e) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw e;
+                }
+                // a deadline depends on load, not on the source; fall back for this run only
+                tracker.count(MetricCounter.PARSE_TIMEOUTS, 1);
+                return onError(path, text, e);
+            } catch (RuntimeException e) {
+                tracker.count(MetricCounter.PARSE_FAILURES, 1);
+                quarantine.add(hash);
+                return onError(path, text, e);
+            }
+        } finally {
+            tracker.fileDone(text.byteLength());
+            tracker.fileParsed(path, text.byteLength(), work);
+        }
+    }
+
+    private SourceFileResult onError(Path path, SourceText content, RuntimeException cause) {
+        return switch (policy) {
+            case FAIL -> throw new IllegalStateException("Failed to parse " + path
+                    + (cause == null ? " (quarantined after an earlier failure)" : ""), cause);
+            case FALLBACK -> SourceFileResult.declarationsOnly(path, DeclarationExtractor.extract(content.toString()));
+            case SKIP -> null;
+        };
+    }
+}
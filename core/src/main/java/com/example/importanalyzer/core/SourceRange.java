@@ -0,0 +1,7 @@
+package com.example.importanalyzer.core;
+
+/**
+ * Inclusive, 1-based line/column range of a node in a source file, with tabs counted as one column.
+ */
+public record SourceRange(int beginLine, int beginColumn, int endLine, int endColumn) {
+}
@@ -0,0 +1,217 @@
+package com.example.importanalyzer.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * One source file read and decoded once for every pass that needs it: the content hash, the parser and, only if
+ * a fallback pass asks for it, a {@link String}. Bytes are read into a direct buffer and decoded into a char
+ * buffer that are both pooled per thread, so an ordinary file costs no {@code byte[]} and no {@code String}.
+ * <p>
+ * A byte order mark selects UTF-8, UTF-16BE or UTF-16LE. Without one the file is decoded as UTF-8, falling back to
+ * ISO-8859-1 when it is not valid UTF-8, as legacy sources often are. {@link #chars()} is backed by the thread's
+ * pooled buffer: it stays valid until the same thread reads the next file, and is never handed to another thread.
+ */
+final class SourceText {
+    // files above this are read into one-off buffers so that the per-thread pool stays small
+    private static final int POOLED_LIMIT = 1 << 20;
+    private static final int INITIAL_CAPACITY = 64 * 1024;
+    private static final ThreadLocal<Buffers> BUFFERS = ThreadLocal.withInitial(Buffers::new);
+
+    private final CharBuffer chars;
+    private final int byteLength;
+    private final String hash;
+    private final Charset charset;
+    private final boolean byteOrderMark;
+    private String text;
+
+    private SourceText(CharBuffer chars, int byteLength, String hash, Charset charset, boolean byteOrderMark) {
+        this.chars = chars;
+        this.byteLength = byteLength;
+        this.hash = hash;
+        this.charset = charset;
+        this.byteOrderMark = byteOrderMark;
+    }
+
+    static SourceText read(Path file) throws IOException {
+        Buffers buffers = BUFFERS.get();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE - 8) {
+                throw new IOException("Source file too large: " + file);
+            }
+            ByteBuffer bytes = buffers.bytes((int) size);
+            // a file that grows while being read is cut at the size it had when opened
+            while (bytes.hasRemaining()) {
+                if (channel.read(bytes) < 0) {
+                    break;
+                }
+            }
+            bytes.flip();
+            int byteLength = bytes.remaining();
+            String hash = ContentHash.of(bytes.duplicate());
+
+            Charset charset = skipByteOrderMark(bytes);
+            boolean byteOrderMark = charset != null;
+            CharBuffer chars = charset != null ? buffers.decode(bytes, charset, true) : null;
+            if (chars == null) {
+                charset = StandardCharsets.UTF_8;
+                chars = buffers.decode(bytes.duplicate(), charset, false);
+                if (chars == null) {
+                    charset = StandardCharsets.ISO_8859_1;
+                    chars = buffers.decode(bytes, charset, true);
+                }
+            }
+            return new SourceText(chars.asReadOnlyBuffer(), byteLength, hash, charset, byteOrderMark);
+        }
+    }
+
+    /**
+     * Decoded content, positioned at the start; read through a {@link CharBuffer#duplicate() duplicate}.
+     */
+    CharBuffer chars() {
+        return chars.duplicate();
+    }
+
+    int byteLength() {
+        return byteLength;
+    }
+
+    /**
+     * {@link ContentHash} of the raw bytes, byte order mark included.
+     */
+    String hash() {
+        return hash;
+    }
+
+    Charset charset() {
+        return charset;
+    }
+
+    boolean hasByteOrderMark() {
+        return byteOrderMark;
+    }
+
+    /**
+     * Encodes {@code content} the way this file was read: same charset, and the byte order mark if it had one.
+     *
+     * @throws CharacterCodingException if {@code content} has characters the charset cannot represent
+     */
+    byte[] encode(String content) throws CharacterCodingException {
+        ByteBuffer encoded = charset.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT)
+                .encode(CharBuffer.wrap(content));
+        // none of the supported charsets writes a byte order mark of its own
+        byte[] mark = byteOrderMark ? "\uFEFF".getBytes(charset) : new byte[0];
+        byte[] out = new byte[mark.length + encoded.remaining()];
+        System.arraycopy(mark, 0, out, 0, mark.length);
+        encoded.get(out, mark.length, encoded.remaining());
+        return out;
+    }
+
+    /**
+     * The content as a string, created on first use and shared by later passes.
+     */
+    @Override
+    public String toString() {
+        if (text == null) {
+            text = chars.toString();
+        }
+        return text;
+    }
+
+    /**
+     * Advances past a byte order mark and returns its charset, or {@code null} when there is none.
+     */
+    private static Charset skipByteOrderMark(ByteBuffer bytes) {
+        int remaining = bytes.remaining();
+        int p = bytes.position();
+        if (remaining >= 3 && (bytes.get(p) & 0xff) == 0xEF && (bytes.get(p + 1) & 0xff) == 0xBB && (bytes.get(p + 2) & 0xff) == 0xBF) {
+            bytes.position(p + 3);
+            return StandardCharsets.UTF_8;
+        }
+        if (remaining >= 2 && (bytes.get(p) & 0xff) == 0xFE && (bytes.get(p + 1) & 0xff) == 0xFF) {
+            bytes.position(p + 2);
+            return StandardCharsets.UTF_16BE;
+        }
+        if (remaining >= 2 && (bytes.get(p) & 0xff) == 0xFF && (bytes.get(p + 1) & 0xff) == 0xFE) {
+            bytes.position(p + 2);
+            return StandardCharsets.UTF_16LE;
+        }
+        return null;
+    }
+
+    private static final class Buffers {
+        private ByteBuffer bytes = ByteBuffer.allocateDirect(INITIAL_CAPACITY);
+        private CharBuffer chars = CharBuffer.allocate(INITIAL_CAPACITY);
+        private final CharsetDecoder utf8 = StandardCharsets.UTF_8.newDecoder();
+        private final CharsetDecoder utf16be = StandardCharsets.UTF_16BE.newDecoder();
+        private final CharsetDecoder utf16le = StandardCharsets.UTF_16LE.newDecoder();
+        private final CharsetDecoder latin1 = StandardCharsets.ISO_8859_1.newDecoder();
+
+        ByteBuffer bytes(int size) {
+            if (size > POOLED_LIMIT) {
+                return ByteBuffer.allocate(size);
+            }
+            if (bytes.capacity() < size) {
+                bytes = ByteBuffer.allocateDirect(Math.min(POOLED_LIMIT, Math.max(size, bytes.capacity() * 2)));
+            }
+            bytes.clear().limit(size);
+            return bytes;
+        }
+
+        /**
+         * Decodes {@code in} into the pooled char buffer, or a one-off one for large files. Returns {@code null}
+         * for malformed input unless {@code lenient}, in which case malformed bytes become U+FFFD.
+         */
+        CharBuffer decode(ByteBuffer in, Charset charset, boolean lenient) throws CharacterCodingException {
+            CharsetDecoder decoder = decoder(charset);
+            CodingErrorAction action = lenient ? CodingErrorAction.REPLACE : CodingErrorAction.REPORT;
+            decoder.reset().onMalformedInput(action).onUnmappableCharacter(action);
+            // no supported charset decodes to more chars than it has bytes
+            int capacity = in.remaining();
+            CharBuffer out;
+            if (capacity > POOLED_LIMIT) {
+                out = CharBuffer.allocate(capacity);
+            } else {
+                if (chars.capacity() < capacity) {
+                    chars = CharBuffer.allocate(Math.min(POOLED_LIMIT, Math.max(capacity, chars.capacity() * 2)));
+                }
+                out = chars.clear();
+            }
+            CoderResult result = decoder.decode(in, out, true);
+            if (!result.isUnderflow()) {
+                if (result.isError() && !lenient) {
+                    return null;
+                }
+                result.throwException();
+            }
+            result = decoder.flush(out);
+            if (!result.isUnderflow()) {
+                result.throwException();
+            }
+            return out.flip();
+        }
+
+        private CharsetDecoder decoder(Charset charset) {
+            if (charset.equals(StandardCharsets.UTF_16BE)) {
+                return utf16be;
+            }
+            if (charset.equals(StandardCharsets.UTF_16LE)) {
+                return utf16le;
+            }
+            return charset.equals(StandardCharsets.ISO_8859_1) ? latin1 : utf8;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.importanalyzer.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cycle detection over an int-id graph in compressed sparse row form. The graph is first split into weakly
+ * connected components with union-find; each component is then searched with an iterative Tarjan in
+ * parallel. Components touch disjoint node ids, so the per-node work arrays are shared without locking.
+ */
+final class StronglyConnectedComponents {
+    private StronglyConnectedComponents() {}
+
+    /**
+     * @return the strongly connected components with more than one node, i.e. the cycles
+     */
+    static List<int[]> find(int nodeCount, int[] offsets, int[] targets) {
+        int[] parent = new int[nodeCount];
+        for (int i = 0; i < nodeCount; i++) {
+            parent[i] = i;
+        }
+        for (int v = 0; v < nodeCount; v++) {
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                union(parent, v, targets[e]);
+            }
+        }
+
+        int[] sizes = new int[nodeCount];
+        for (int v = 0; v < nodeCount; v++) {
+            sizes[find(parent, v)]++;
+        }
+        int[][] groups = new int[nodeCount][];
+        int[] fill = new int[nodeCount];
+        List<int[]> candidates = new ArrayList<>();
+        for (int v = 0; v < nodeCount; v++) {
+            int root = find(parent, v);
+            if (sizes[root] < 2) {
+                continue;
+            }
+            if (groups[root] == null) {
+                groups[root] = new int[sizes[root]];
+                candidates.add(groups[root]);
+            }
+            groups[root][fill[root]++] = v;
+        }
+
+        int[] index = new int[nodeCount];
+        int[] low = new int[nodeCount];
+        boolean[] onStack = new boolean[nodeCount];
+        return candidates.parallelStream()
+                .flatMap(nodes -> tarjan(nodes, offsets, targets, index, low, onStack).stream())
+                .toList();
+    }
+
+    private static List<int[]> tarjan(int[] nodes, int[] offsets, int[] targets, int[] index, int[] low, boolean[] onStack) {
+        for (int v : nodes) {
+            index[v] = -1;
+        }
+        List<int[]> cycles = new ArrayList<>();
+        int[] stack = new int[nodes.length];
+        int[] callNode = new int[nodes.length];
+        int[] callEdge = new int[nodes.length];
+        int stackSize = 0;
+        int counter = 0;
+        for (int root : nodes) {
+            if (index[root] != -1) {
+                continue;
+            }
+            int depth = 0;
+            index[root] = low[root] = counter++;
+            stack[stackSize++] = root;
+            onStack[root] = true;
+            callNode[depth] = root;
+            callEdge[depth++] = offsets[root];
+            while (depth > 0) {
+                int v = callNode[depth - 1];
+                int e = callEdge[depth - 1];
+                if (e < offsets[v + 1]) {
+                    callEdge[depth - 1]++;
+                    int w = targets[e];
+                    if (index[w] == -1) {
+                        index[w] = low[w] = counter++;
+                        stack[stackSize++] = w;
+                        onStack[w] = true;
+                        callNode[depth] = w;
+                        callEdge[depth++] = offsets[w];
+                    } else if (onStack[w]) {
+                        low[v] = Math.min(low[v], index[w]);
+                    }
+                    continue;
+                }
+                depth--;
+                if (depth > 0) {
+                    int caller = callNode[depth - 1];
+                    low[caller] = Math.min(low[caller], low[v]);
+                }
+                if (low[v] == index[v]) {
+                    int start = stackSize;
+                    do {
+                        start--;
+                        onStack[stack[start]] = false;
+                    } while (stack[start] != v);
+                    if (stackSize - start > 1) {
+                        int[] component = new int[stackSize - start];
+                        System.arraycopy(stack, start, component, 0, component.length);
+                        cycles.add(component);
+                    }
+                    stackSize = start;
+                }
+            }
+        }
+        return cycles;
+    }
+
+    private static int find(int[] parent, int v) {
+        while (parent[v] != v) {
+            parent[v] = parent[parent[v]];
+            v = parent[v];
+        }
+        return v;
+    }
+
+    private static void union(int[] parent, int a, int b) {
+        int rootA = find(parent, a);
+        int rootB = find(parent, b);
+        if (rootA != rootB) {
+            parent[Math.max(rootA, rootB)] = Math.min(rootA, rootB);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.importanalyzer.core;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * CPU time and allocated bytes of the current thread from {@link ThreadMXBean}. Only touched when a
+ * {@link MetricsListener} asks for profiling, so ordinary runs never load the management classes.
+ */
+final class ThreadCosts {
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final boolean CPU_SUPPORTED = THREADS.isCurrentThreadCpuTimeSupported();
+    private static final com.sun.management.ThreadMXBean ALLOCATIONS = allocations();
+
+    static {
+        if (CPU_SUPPORTED && !THREADS.isThreadCpuTimeEnabled()) {
+            THREADS.setThreadCpuTimeEnabled(true);
+        }
+    }
+
+    private ThreadCosts() {}
+
+    static long cpuNanos() {
+        return CPU_SUPPORTED ? THREADS.getCurrentThreadCpuTime() : 0;
+    }
+
+    static long allocatedBytes() {
+        return ALLOCATIONS != null ? ALLOCATIONS.getCurrentThreadAllocatedBytes() : 0;
+    }
+
+    private static com.sun.management.ThreadMXBean allocations() {
+        if (THREADS instanceof com.sun.management.ThreadMXBean extended && extended.isThreadAllocatedMemorySupported()) {
+            if (!extended.isThreadAllocatedMemoryEnabled()) {
+                extended.setThreadAllocatedMemoryEnabled(true);
+            }
+            return extended;
+        }
+        return null;
+    }
+}
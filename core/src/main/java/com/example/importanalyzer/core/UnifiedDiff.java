@@ -0,0 +1,78 @@
+package com.example.importanalyzer.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Renders a single-hunk unified diff. Common leading and trailing lines are trimmed before the LCS, so the
+ * quadratic part only ever sees the edited import block.
+ */
+final class UnifiedDiff {
+    private static final int CONTEXT = 2;
+
+    private UnifiedDiff() {}
+
+    static String render(String label, String before, String after) {
+        String[] a = before.split("\\R", -1);
+        String[] b = after.split("\\R", -1);
+        int prefix = 0;
+        while (prefix < a.length && prefix < b.length && a[prefix].equals(b[prefix])) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < a.length - prefix && suffix < b.length - prefix
+                && a[a.length - 1 - suffix].equals(b[b.length - 1 - suffix])) {
+            suffix++;
+        }
+        if (prefix == a.length && prefix == b.length) {
+            return "";
+        }
+
+        int aEnd = a.length - suffix;
+        int bEnd = b.length - suffix;
+        int n = aEnd - prefix;
+        int m = bEnd - prefix;
+        int[][] lcs = new int[n + 1][m + 1];
+        for (int i = n - 1; i >= 0; i--) {
+            for (int j = m - 1; j >= 0; j--) {
+                lcs[i][j] = a[prefix + i].equals(b[prefix + j])
+                        ? lcs[i + 1][j + 1] + 1
+                        : Math.max(lcs[i + 1][j], lcs[i][j + 1]);
+            }
+        }
+
+        int leading = Math.min(CONTEXT, prefix);
+        int trailing = Math.min(CONTEXT, suffix);
+        List<String> hunk = new ArrayList<>();
+        for (int k = prefix - leading; k < prefix; k++) {
+            hunk.add(" " + a[k]);
+        }
+        int i = 0;
+        int j = 0;
+        while (i < n || j < m) {
+            if (i < n && j < m && a[prefix + i].equals(b[prefix + j])) {
+                hunk.add(" " + a[prefix + i]);
+                i++;
+                j++;
+            } else if (j < m && (i == n || lcs[i][j + 1] >= lcs[i + 1][j])) {
+                hunk.add("+" + b[prefix + j]);
+                j++;
+            } else {
+                hunk.add("-" + a[prefix + i]);
+                i++;
+            }
+        }
+        for (int k = aEnd; k < aEnd + trailing; k++) {
+            hunk.add(" " + a[k]);
+        }
+
+        int start = prefix - leading + 1;
+        StringBuilder out = new StringBuilder()
+                .append("--- a/").append(label).append('\n')
+                .append("+++ b/").append(label).append('\n')
+                .append("@@ -").append(start).append(',').append(leading + n + trailing)
+                .append(" +").append(start).append(',').append(leading + m + trailing).append(" @@\n");
+        hunk.forEach(line -> out.append(line).append('\n'));
+        return out.toString();
+    }
+}
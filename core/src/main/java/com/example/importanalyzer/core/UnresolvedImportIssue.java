@@ -1,8 +1,17 @@
 package com.example.importanalyzer.core;
 
 import java.nio.file.Path;
+import java.util.List;
+
+public record UnresolvedImportIssue(Path file, int line, String symbol, String message, List<String> candidates) implements ImportIssue {
+    public UnresolvedImportIssue {
+        candidates = candidates == null ? List.of() : List.copyOf(candidates);
+    }
+
+    public UnresolvedImportIssue(Path file, int line, String symbol, String message) {
+        this(file, line, symbol, message, List.of());
+    }
 
-public record UnresolvedImportIssue(Path file, int line, String symbol, String message) implements ImportIssue {
     @Override
     public IssueType type() {
         return IssueType.UNRESOLVED_IMPORT;
@@ -0,0 +1,70 @@
+package com.example.importanalyzer.core;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hosts background services for many projects in one JVM. Each project keeps its own declarations, while jar and
+ * JDK indexes are {@link IndexSegment}s shared through one {@link SharedIndexSegments} pool, so memory grows with
+ * the number of distinct artifacts rather than with projects times artifacts.
+ */
+public class WorkspaceHost implements AutoCloseable {
+    private final SharedIndexSegments segments = new SharedIndexSegments();
+    private final Map<Path, AsyncImportAnalyzerService> services = new ConcurrentHashMap<>();
+    private volatile boolean closed;
+
+    /**
+     * Returns the service for {@code config}'s project root, creating it and starting its scan on first use.
+     */
+    public synchronized ImportAnalyzerService open(ImportAnalyzerConfig config) {
+        if (closed) {
+            throw new IllegalStateException("Host is closed");
+        }
+        return services.computeIfAbsent(key(config.projectRoot()), root -> {
+            AsyncImportAnalyzerService service = new AsyncImportAnalyzerService(config, segments);
+            service.startScan();
+            return service;
+        });
+    }
+
+    public ImportAnalyzerService service(Path projectRoot) {
+        return services.get(key(projectRoot));
+    }
+
+    public Set<Path> projects() {
+        return Set.copyOf(services.keySet());
+    }
+
+    /**
+     * Closes the project's service and releases its share of the segments.
+     *
+     * @return {@code false} if no service was open for the project
+     */
+    public boolean closeProject(Path projectRoot) {
+        AsyncImportAnalyzerService service = services.remove(key(projectRoot));
+        if (service == null) {
+            return false;
+        }
+        service.close();
+        return true;
+    }
+
+    public SharedIndexSegments segments() {
+        return segments;
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        for (Path root : new ArrayList<>(services.keySet())) {
+            closeProject(root);
+        }
+    }
+
+    private static Path key(Path projectRoot) {
+        return projectRoot.toAbsolutePath().normalize();
+    }
+}
@@ -1,8 +1,17 @@
 package com.example.importanalyzer.core;
 
 import java.nio.file.Path;
+import java.util.List;
+
+public record WrongPackageIssue(Path file, int line, String symbol, String message, List<String> candidates) implements ImportIssue {
+    public WrongPackageIssue {
+        candidates = candidates == null ? List.of() : List.copyOf(candidates);
+    }
+
+    public WrongPackageIssue(Path file, int line, String symbol, String message) {
+        this(file, line, symbol, message, List.of());
+    }
 
-public record WrongPackageIssue(Path file, int line, String symbol, String message) implements ImportIssue {
     @Override
     public IssueType type() {
         return IssueType.WRONG_PACKAGE;
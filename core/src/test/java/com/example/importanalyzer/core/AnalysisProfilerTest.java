@@ -0,0 +1,76 @@
+package com.example.importanalyzer.core;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import javax.tools.ToolProvider;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnalysisProfilerTest {
+    @Test
+    void profilesPhasesFilesArtifactsAndAmbiguousNames() throws Exception {
+        Path root = Files.createTempDirectory("profiler");
+        Path main = root.resolve("src/main/java");
+        Files.createDirectories(main.resolve("demo/model"));
+        Files.writeString(main.resolve("demo/App.java"), "package demo; public class App { Shared s; }");
+        Files.writeString(main.resolve("demo/model/Shared.java"), "package demo.model; public class Shared { }");
+        Files.writeString(main.resolve("demo/model/Big.java"), "package demo.model; public class Big {" + " int f;".repeat(2000) + " }");
+        Path jar = libraryJar(root);
+
+        AnalysisProfiler profiler = new AnalysisProfiler(2);
+        ImportAnalyzer analyzer = new ImportAnalyzerBuilder()
+                .projectRoot(root)
+                .sourceRoot(main)
+                .includeDependencies(true)
+                .cacheEnabled(false)
+                .threads(2)
+                .metricsListener(profiler)
+                .build();
+        Path recorded = root.resolve("run.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("com.example.importanalyzer.FileParse");
+            recording.enable("com.example.importanalyzer.ArtifactScan");
+            recording.start();
+            analyzer.analyze();
+            recording.stop();
+            recording.dump(recorded);
+        }
+
+        PhaseProfile parse = profiler.phases().get(AnalysisPhase.PARSE);
+        assertNotNull(parse);
+        assertTrue(parse.wallNanos() > 0);
+        assertTrue(parse.cpuNanos() > 0 && parse.allocatedBytes() > 0, parse.toString());
+        assertEquals(2, profiler.slowestFiles().size());
+        assertEquals(List.of(new AnalysisProfiler.ArtifactScan(jar, Files.size(jar), 1, profiler.largestArtifacts().get(0).durationNanos())),
+                profiler.largestArtifacts());
+        assertEquals(List.of(new AnalysisProfiler.AmbiguousName("Shared", 2)), profiler.ambiguousNames());
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(recorded);
+        assertEquals(3, events.stream().filter(e -> e.getEventType().getName().equals("com.example.importanalyzer.FileParse")).count());
+        assertEquals(1, events.stream().filter(e -> e.getEventType().getName().equals("com.example.importanalyzer.ArtifactScan")).count());
+    }
+
+    private Path libraryJar(Path root) throws Exception {
+        Path classes = root.resolve("lib-classes");
+        Path source = root.resolve("lib-src/lib/Shared.java");
+        Files.createDirectories(source.getParent());
+        Files.writeString(source, "package lib; public class Shared { }");
+        assertEquals(0, ToolProvider.getSystemJavaCompiler().run(null, null, null, "-d", classes.toString(), source.toString()));
+        Path jar = root.resolve("libs/lib.jar");
+        Files.createDirectories(jar.getParent());
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+            out.putNextEntry(new JarEntry("lib/Shared.class"));
+            out.write(Files.readAllBytes(classes.resolve("lib/Shared.class")));
+            out.closeEntry();
+        }
+        return jar;
+    }
+}
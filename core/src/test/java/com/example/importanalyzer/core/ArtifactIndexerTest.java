@@ -0,0 +1,112 @@
+package com.example.importanalyzer.core;
+
+import org.junit.jupiter.api.Test;
+
+import javax.tools.ToolProvider;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArtifactIndexerTest {
+    private static final Set<String> IMPORTABLE = Set.of("lib.Api", "lib.Api.Builder", "lib.Api.Builder.Step");
+
+    @Test
+    void indexesOnlyImportableClassesUnderCanonicalNames() throws Exception {
+        Path classes = compile(Map.of("lib/Api.java", """
+                package lib;
+                public class Api {
+                    public static class Builder { public interface Step { } }
+                    private static class Secret { public static class Hidden { } }
+                    static class Internal { }
+                    Runnable task() { class Local { } return new Runnable() { public void run() { new Local(); } }; }
+                    enum Mode { ON, OFF }
+                }
+                class Helper { public static class Exposed { } }
+                """, "lib/package-info.java", "package lib;"));
+
+        ClassIndex fromDirectory = new ClassIndex();
+        ArtifactIndexer.scan(fromDirectory, classes, 17);
+        assertEquals(IMPORTABLE, fromDirectory.asFqnMap().keySet());
+        assertEquals("Builder", fromDirectory.getByFqn("lib.Api.Builder").simpleName());
+        assertEquals("lib", fromDirectory.getByFqn("lib.Api.Builder.Step").packageName());
+        assertEquals(3, fromDirectory.byPackage("lib").size());
+        assertTrue(fromDirectory.byPackage("lib.Api").isEmpty());
+
+        ClassIndex fromJar = new ClassIndex();
+        ArtifactIndexer.scan(fromJar, jar(classes, null, false), 17);
+        assertEquals(IMPORTABLE, fromJar.asFqnMap().keySet());
+    }
+
+    @Test
+    void indexesExportedPackagesOfTheTargetRelease() throws Exception {
+        Path base = compile(Map.of(
+                "module-info.java", "module lib { exports lib.api; exports lib.friend to other.module; }",
+                "lib/api/Api.java", "package lib.api; public class Api { }",
+                "lib/friend/Friend.java", "package lib.friend; public class Friend { }",
+                "lib/internal/Impl.java", "package lib.internal; public class Impl { }"));
+        Path versioned = compile(Map.of("lib/api/Api.java", "package lib.api; public class Api { }",
+                "lib/api/Modern.java", "package lib.api; public class Modern { }"));
+        Path jar = jar(base, versioned, true);
+
+        ClassIndex release11 = new ClassIndex();
+        ArtifactIndexer.scan(release11, jar, 11);
+        assertEquals(Set.of("lib.api.Api"), release11.asFqnMap().keySet());
+
+        ClassIndex release21 = new ClassIndex();
+        ArtifactIndexer.scan(release21, jar, 21);
+        assertEquals(Set.of("lib.api.Api", "lib.api.Modern"), release21.asFqnMap().keySet());
+
+        ClassIndex directory = new ClassIndex();
+        ArtifactIndexer.scan(directory, base, 21);
+        assertEquals(Set.of("lib.api.Api"), directory.asFqnMap().keySet());
+    }
+
+    private Path compile(Map<String, String> sources) throws Exception {
+        Path root = Files.createTempDirectory("artifactIndexer");
+        List<String> args = new ArrayList<>(List.of("-Xlint:-module", "-d", root.resolve("classes").toString()));
+        for (Map.Entry<String, String> source : sources.entrySet()) {
+            Path file = root.resolve("src").resolve(source.getKey());
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, source.getValue());
+            args.add(file.toString());
+        }
+        assertEquals(0, ToolProvider.getSystemJavaCompiler().run(null, null, null, args.toArray(String[]::new)));
+        return root.resolve("classes");
+    }
+
+    private Path jar(Path classes, Path release21Classes, boolean multiRelease) throws Exception {
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        if (multiRelease) {
+            manifest.getMainAttributes().put(Attributes.Name.MULTI_RELEASE, "true");
+        }
+        Path jar = classes.resolveSibling("lib.jar");
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar), manifest)) {
+            write(out, classes, "");
+            if (release21Classes != null) {
+                write(out, release21Classes, "META-INF/versions/21/");
+            }
+        }
+        return jar;
+    }
+
+    private void write(JarOutputStream out, Path classes, String prefix) throws Exception {
+        try (Stream<Path> files = Files.walk(classes)) {
+            for (Path file : files.filter(Files::isRegularFile).toList()) {
+                out.putNextEntry(new JarEntry(prefix + classes.relativize(file).toString().replace('\\', '/')));
+                out.write(Files.readAllBytes(file));
+                out.closeEntry();
+            }
+        }
+    }
+}
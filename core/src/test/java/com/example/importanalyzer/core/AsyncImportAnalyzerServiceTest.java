@@ -5,6 +5,12 @@ import org.junit.jupiter.api.Test;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -31,13 +37,8 @@ class AsyncImportAnalyzerServiceTest {
                 .buildConfig();
 
         AsyncImportAnalyzerService service = new AsyncImportAnalyzerService(config);
-        ScanResult result;
-        do {
-            result = service.scan(usage).join();
-            if (result.inProgress()) {
-                Thread.sleep(10);
-            }
-        } while (result.inProgress());
+        service.awaitReady(Duration.ofSeconds(30)).join();
+        ScanResult result = service.scan(usage).join();
 
         System.out.println("Scan result: " + result);
 
@@ -63,13 +64,8 @@ class AsyncImportAnalyzerServiceTest {
                 .buildConfig();
 
         AsyncImportAnalyzerService service = new AsyncImportAnalyzerService(config);
-        ScanResult result;
-        do {
-            result = service.scan(usage).join();
-            if (result.inProgress()) {
-                Thread.sleep(10);
-            }
-        } while (result.inProgress());
+        service.awaitReady(Duration.ofSeconds(30)).join();
+        ScanResult result = service.scan(usage).join();
 
         assertEquals(ImportAction.DELETE, result.action());
         assertEquals(usage, result.file());
@@ -112,8 +108,10 @@ class AsyncImportAnalyzerServiceTest {
 
         assertEquals(fileCount, early.totalFiles());
         if (early.inProgress()) {
-            assertTrue(early.scannedFiles() < fileCount);
+            assertFalse(early.complete());
+            assertTrue(early.scannedFiles() <= fileCount);
         } else {
+            assertTrue(early.complete());
             assertEquals(fileCount, early.scannedFiles());
         }
 
@@ -157,13 +155,8 @@ class AsyncImportAnalyzerServiceTest {
 
         AsyncImportAnalyzerService service = new AsyncImportAnalyzerService(config);
 
-        ScanResult result;
-        do {
-            result = service.scan(usage).join();
-            if (result.inProgress()) {
-                Thread.sleep(10);
-            }
-        } while (result.inProgress());
+        service.awaitReady(Duration.ofSeconds(30)).join();
+        ScanResult result = service.scan(usage).join();
 
         assertEquals(ImportAction.SELECT, result.action());
         assertEquals(usage, result.file());
@@ -171,4 +164,162 @@ class AsyncImportAnalyzerServiceTest {
         assertTrue(result.candidates().contains("demo.two.Helper"));
         assertEquals(ImportSource.UNKNOWN, result.source());
     }
+
+    @Test
+    void pushesPhaseProgressAndReadyEvents() throws Exception {
+        Path project = Files.createTempDirectory("import-analyzer-events");
+        Path src = project.resolve("src/main/java/demo");
+        Files.createDirectories(src);
+        for (int i = 0; i < 5; i++) {
+            Files.writeString(src.resolve("E" + i + ".java"), "package demo; public class E" + i + " {}\n");
+        }
+
+        ImportAnalyzerConfig config = new ImportAnalyzerBuilder()
+                .projectRoot(project)
+                .sourceRoot(project.resolve("src/main/java"))
+                .threads(2)
+                .includeDependencies(false)
+                .progressInterval(Duration.ofHours(1))
+                .buildConfig();
+
+        AsyncImportAnalyzerService service = new AsyncImportAnalyzerService(config);
+        List<AnalysisEvent> events = new CopyOnWriteArrayList<>();
+        service.subscribe(events::add);
+
+        ScanResult ready = service.awaitReady(Duration.ofSeconds(30)).join();
+
+        assertFalse(ready.inProgress());
+        assertEquals(5, ready.scannedFiles());
+        assertTrue(events.contains(new AnalysisEvent.PhaseStarted(AnalysisPhase.PARSE)));
+        assertTrue(events.stream().anyMatch(e -> e instanceof AnalysisEvent.PhaseCompleted completed
+                && completed.phase() == AnalysisPhase.PARSE));
+        List<AnalysisEvent.Progress> ticks = events.stream()
+                .filter(AnalysisEvent.Progress.class::isInstance)
+                .map(AnalysisEvent.Progress.class::cast)
+                .toList();
+        assertEquals(1, ticks.size(), "Progress ticks should be throttled to the final one: " + ticks);
+        assertEquals(5, ticks.get(0).filesDone());
+        assertTrue(ticks.get(0).bytesRead() > 0);
+        assertTrue(events.get(events.size() - 1) instanceof AnalysisEvent.Ready);
+    }
+
+    @Test
+    void answersRequestedFileBeforeTheScanCompletes() throws Exception {
+        Path project = Files.createTempDirectory("import-analyzer-priority");
+        Path src = project.resolve("src/main/java");
+        Files.createDirectories(src.resolve("bulk"));
+        Files.createDirectories(src.resolve("lib"));
+        Files.createDirectories(src.resolve("app"));
+        for (int i = 0; i < 2000; i++) {
+            Files.writeString(src.resolve("bulk/B" + i + ".java"), "package bulk; public class B" + i + " { void m() { int x = " + i + "; } }\n");
+        }
+        Files.writeString(src.resolve("lib/Helper.java"), "package lib; public class Helper {}");
+        Path target = src.resolve("app/Target.java");
+        Files.writeString(target, "package app;\nimport lib.Helper;\nimport lib.Gone;\npublic class Target { Helper h; }\n");
+
+        ImportAnalyzerConfig config = new ImportAnalyzerBuilder()
+                .projectRoot(project)
+                .sourceRoot(src)
+                .threads(1)
+                .includeDependencies(false)
+                .buildConfig();
+
+        try (AsyncImportAnalyzerService service = new AsyncImportAnalyzerService(config)) {
+            ScanResult early = service.scan(target).join();
+            assertEquals(ImportAction.DELETE, early.action());
+            assertEquals(3, early.line());
+            assertFalse(early.complete());
+            assertTrue(early.inProgress());
+            assertTrue(early.scannedFiles() < early.totalFiles(), "answered after " + early.scannedFiles() + " files");
+
+            service.awaitReady(Duration.ofSeconds(60)).join();
+            ScanResult last = service.scan(target).join();
+            assertTrue(last.complete());
+            assertEquals(ImportAction.DELETE, last.action());
+        }
+    }
+
+    @Test
+    void cancelsScanWithoutPublishingPartialIndexAndRejectsWorkAfterClose() throws Exception {
+        Path project = Files.createTempDirectory("import-analyzer-cancel");
+        Path src = project.resolve("src/main/java/demo");
+        Files.createDirectories(src);
+        for (int i = 0; i < 300; i++) {
+            Files.writeString(src.resolve("K" + i + ".java"), "package demo; public class K" + i + " { K0 k; }\n");
+        }
+
+        ImportAnalyzerConfig config = new ImportAnalyzerBuilder()
+                .projectRoot(project)
+                .sourceRoot(project.resolve("src/main/java"))
+                .threads(1)
+                .includeDependencies(false)
+                .buildConfig();
+
+        AsyncImportAnalyzerService service = new AsyncImportAnalyzerService(config);
+        CompletableFuture<ScanResult> first = service.awaitReady(Duration.ofSeconds(30));
+        if (service.cancelScan()) {
+            CompletionException failure = assertThrows(CompletionException.class, first::join);
+            assertTrue(failure.getCause() instanceof CancellationException, String.valueOf(failure.getCause()));
+            assertEquals(ImportAction.UNKNOWN, service.scan(src.resolve("K1.java")).join().action());
+        }
+
+        ScanResult ready = service.awaitReady(Duration.ofSeconds(30)).join();
+        assertEquals(300, ready.scannedFiles());
+
+        service.close();
+        assertThrows(IllegalStateException.class, service::startScan);
+    }
+
+    @Test
+    void restartsRightAfterACancelledScan() throws Exception {
+        Path project = Files.createTempDirectory("import-analyzer-restart");
+        Path src = project.resolve("src/main/java/demo");
+        Files.createDirectories(src);
+        for (int i = 0; i < 300; i++) {
+            Files.writeString(src.resolve("R" + i + ".java"), "package demo; public class R" + i + " { R0 r; }\n");
+        }
+
+        ImportAnalyzerConfig config = new ImportAnalyzerBuilder()
+                .projectRoot(project)
+                .sourceRoot(project.resolve("src/main/java"))
+                .threads(2)
+                .includeDependencies(false)
+                .cacheEnabled(false)
+                .buildConfig();
+
+        try (AsyncImportAnalyzerService service = new AsyncImportAnalyzerService(config)) {
+            for (int round = 0; round < 5; round++) {
+                service.startScan();
+                service.cancelScan();
+                // no join on the cancelled scan: the restart must not share its future, pool or counters
+                ScanResult ready = service.awaitReady(Duration.ofSeconds(60)).join();
+                assertFalse(ready.inProgress());
+                assertEquals(300, ready.scannedFiles());
+                assertEquals(300, ready.totalFiles());
+            }
+        }
+    }
+
+    @Test
+    void fallsBackToDeclarationsWhenParseDeadlineExpires() throws Exception {
+        Path project = Files.createTempDirectory("import-analyzer-deadline");
+        Path src = project.resolve("src/main/java");
+        Files.createDirectories(src.resolve("demo/util"));
+        Files.writeString(src.resolve("demo/util/Helper.java"), "package demo.util; public class Helper {}");
+
+        ImportAnalyzerConfig config = new ImportAnalyzerBuilder()
+                .projectRoot(project)
+                .sourceRoot(src)
+                .threads(1)
+                .includeDependencies(false)
+                .parseTimeout(Duration.ofNanos(1))
+                .cacheEnabled(false)
+                .buildConfig();
+
+        try (AsyncImportAnalyzerService service = new AsyncImportAnalyzerService(config)) {
+            ScanResult ready = service.awaitReady(Duration.ofSeconds(30)).join();
+            assertEquals(1, ready.scannedFiles());
+            assertEquals(1, service.metrics().getParseTimeouts());
+        }
+    }
 }
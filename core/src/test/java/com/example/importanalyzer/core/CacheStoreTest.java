@@ -0,0 +1,91 @@
+package com.example.importanalyzer.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheStoreTest {
+    @Test
+    void detectsCorruptionAndIgnoresOtherVersions() throws Exception {
+        Path path = Files.createTempDirectory("cacheStore").resolve("index.cache");
+        CacheStore store = new CacheStore(path, 1);
+        assertNull(store.read());
+
+        store.write("payload".getBytes(StandardCharsets.UTF_8));
+        assertEquals("payload", new String(store.read(), StandardCharsets.UTF_8));
+        assertNull(new CacheStore(path, 2).read());
+
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(path, bytes);
+        assertThrows(CorruptCacheException.class, store::read);
+
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 3));
+        assertThrows(CorruptCacheException.class, store::read);
+
+        Files.writeString(path, "{\"entries\":[]}");
+        assertThrows(CorruptCacheException.class, store::read);
+    }
+
+    @Test
+    void concurrentWritersNeverExposeTornFiles() throws Exception {
+        Path path = Files.createTempDirectory("cacheStore").resolve("index.cache");
+        CacheStore store = new CacheStore(path, 1);
+        store.write(payload(0));
+        ExecutorService pool = Executors.newFixedThreadPool(5);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int w = 1; w <= 4; w++) {
+                int seed = w;
+                writers.add(pool.submit(() -> {
+                    for (int i = 0; i < 25; i++) {
+                        new CacheStore(path, 1).write(payload(seed * 100 + i));
+                    }
+                    return null;
+                }));
+            }
+            Future<Integer> reader = pool.submit(() -> {
+                int reads = 0;
+                while (writing.get()) {
+                    byte[] read = store.read();
+                    assertArrayEquals(payload(read[0] & 0xff | (read[1] & 0xff) << 8), read);
+                    reads++;
+                }
+                return reads;
+            });
+            for (Future<?> writer : writers) {
+                writer.get(30, TimeUnit.SECONDS);
+            }
+            writing.set(false);
+            assertTrue(reader.get(30, TimeUnit.SECONDS) > 0);
+        } finally {
+            pool.shutdownNow();
+        }
+        try (var files = Files.list(path.getParent())) {
+            assertTrue(files.noneMatch(file -> file.getFileName().toString().endsWith(".tmp")));
+        }
+    }
+
+    private static byte[] payload(int seed) {
+        byte[] bytes = new byte[64 * 1024];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (seed * 31 + i);
+        }
+        bytes[0] = (byte) seed;
+        bytes[1] = (byte) (seed >> 8);
+        return bytes;
+    }
+}
@@ -3,6 +3,7 @@ package com.example.importanalyzer.core;
 import org.junit.jupiter.api.Test;
 
 import java.nio.file.Path;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -16,4 +17,33 @@ class ClassIndexTest {
         assertFalse(index.bySimpleName("Foo").isEmpty());
         assertFalse(index.byPackage("com.example").isEmpty());
     }
+
+    @Test
+    void removesEntriesOfAReparsedSource() {
+        ClassIndex index = new ClassIndex();
+        index.addEntry(new ClassIndexEntry("com.example.Foo", "Foo", ClassOrigin.PROJECT_MAIN, Path.of("Foo.java")));
+        index.addEntry(new ClassIndexEntry("com.example.Bar", "Bar", ClassOrigin.PROJECT_MAIN, Path.of("Bar.java")));
+
+        index.removeByLocation(Path.of("Foo.java"));
+
+        assertNull(index.getByFqn("com.example.Foo"));
+        assertTrue(index.bySimpleName("Foo").isEmpty());
+        assertEquals(1, index.byPackage("com.example").size());
+    }
+
+    @Test
+    void suggestsSimilarNamesWithinTheEditBudget() {
+        ClassIndex index = new ClassIndex();
+        for (String fqn : List.of("com.acme.util.StringUtils", "com.acme.util.StreamUtils", "com.acme.io.Files", "org.other.StringUtils")) {
+            index.addEntry(new ClassIndexEntry(fqn, fqn.substring(fqn.lastIndexOf('.') + 1), ClassOrigin.PROJECT_MAIN, Path.of(fqn + ".java")));
+        }
+
+        assertEquals(List.of("com.acme.util.StringUtils"), index.similarFqns("com.acme.utils.StringUtil", 3));
+        assertEquals(List.of("StringUtils"), index.similarSimpleNames("StringUtil", 3));
+        assertTrue(index.similarFqns("net.unrelated.Thing", 3).isEmpty());
+
+        index.addEntry(new ClassIndexEntry("com.acme.utils.StringUtil", "StringUtil", ClassOrigin.PROJECT_MAIN, Path.of("S.java")));
+        assertEquals(List.of("com.acme.util.StringUtils"), index.similarFqns("com.acme.utils.StringUtil", 3));
+        assertEquals(List.of("com.acme.util.StringUtils", "com.acme.utils.StringUtil"), index.similarFqns("com.acme.utils.StringUtils", 3));
+    }
 }
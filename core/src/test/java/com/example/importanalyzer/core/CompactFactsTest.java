@@ -0,0 +1,45 @@
+package com.example.importanalyzer.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactFactsTest {
+    @Test
+    void keepsTheQuerySurfaceOfTheSourceCollections() {
+        Map<String, Integer> imports = new HashMap<>(Map.of("java.util.List", 3, "a.B", 4, "z.Y", 5));
+        Set<String> used = new HashSet<>(Set.of("List", "B", "Y"));
+        Map<String, Set<String>> calls = new HashMap<>(Map.of("Y", Set.of("of", "copyOf")));
+        SourceFileResult result = new SourceFileResult(Path.of("A.java"), "demo", imports, Map.of(), Map.of(), Map.of(),
+                Set.of("A"), used, Set.of(), calls);
+
+        assertEquals(imports, result.imports());
+        assertEquals(Integer.valueOf(4), result.imports().get("a.B"));
+        assertNull(result.imports().get("a.C"));
+        assertFalse(result.imports().containsKey(42));
+        assertEquals(List.of("a.B", "java.util.List", "z.Y"), List.copyOf(result.imports().keySet()));
+        assertEquals(used, result.usedTypes());
+        assertTrue(result.usedTypes().contains("List"));
+        assertEquals(Set.of("of", "copyOf"), result.methodCallsByType().get("Y"));
+        assertEquals(calls.hashCode(), result.methodCallsByType().hashCode());
+        assertThrows(UnsupportedOperationException.class, () -> result.imports().put("x.Z", 1));
+        assertThrows(UnsupportedOperationException.class, () -> result.usedTypes().remove("List"));
+    }
+
+    @Test
+    void sharesNamesBetweenFiles() {
+        SourceFileResult first = SourceFileAnalyzer.analyze(Path.of("A.java"), "package demo; import java.util.List; class A { List<String> a; }");
+        SourceFileResult second = SourceFileAnalyzer.analyze(Path.of("B.java"), "package demo; import java.util.List; class B { List<String> b; }");
+
+        assertSame(first.packageName(), second.packageName());
+        assertSame(first.imports().keySet().iterator().next(), second.imports().keySet().iterator().next());
+        assertSame(first.imports().keySet().iterator().next(), second.importSpans().get(0).name());
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.importanalyzer.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeadTypeDetectorTest {
+    @Test
+    void reportsUnreferencedTypesExceptRoots() throws Exception {
+        Path root = Files.createTempDirectory("deadTypes");
+        Path main = root.resolve("app/src/main/java");
+        Path test = root.resolve("app/src/test/java");
+        Files.createDirectories(main.resolve("demo"));
+        Files.createDirectories(test.resolve("demo"));
+        Files.writeString(main.resolve("demo/App.java"), "package demo; public class App { public static void main(String[] args) { new Service(); } }");
+        Files.writeString(main.resolve("demo/Service.java"), "package demo; public class Service { }");
+        Files.writeString(main.resolve("demo/Unused.java"), "package demo; public class Unused { }");
+        Files.writeString(main.resolve("demo/Endpoint.java"), "package demo; public class Endpoint { @Route void get() { } }");
+        Files.writeString(main.resolve("demo/OnlyTested.java"), "package demo; public class OnlyTested { }");
+        Files.writeString(test.resolve("demo/OnlyTestedTest.java"), "package demo; public class OnlyTestedTest { OnlyTested subject; }");
+
+        DeadTypeReport report = analyzer(root, main, test, new DeadTypeRoots(true, Set.of("com.acme.Route"), true, Set.of())).deadTypes();
+        assertEquals(5, report.projectTypes());
+        assertEquals(Map.of("app:main", List.of("demo.Unused")), report.unreferenced());
+
+        DeadTypeReport strict = analyzer(root, main, test, new DeadTypeRoots(false, Set.of(), false, Set.of("demo.Unused"))).deadTypes();
+        assertEquals(Map.of("app:main", List.of("demo.App", "demo.Endpoint", "demo.OnlyTested")), strict.unreferenced());
+    }
+
+    private ImportAnalyzer analyzer(Path root, Path main, Path test, DeadTypeRoots roots) {
+        return new ImportAnalyzerBuilder()
+                .projectRoot(root)
+                .sourceRoot(main)
+                .testSourceRoot(test)
+                .includeDependencies(false)
+                .threads(2)
+                .cacheEnabled(false)
+                .deadTypeRoots(roots)
+                .build();
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.importanalyzer.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeclarationExtractorTest {
+    @Test
+    void extractsMemberTypesAndSkipsBodies() {
+        SourceDeclarations declarations = DeclarationExtractor.extract("""
+                package demo.lib; // trailing comment with class Fake
+                import java.util.List;
+                /* interface AlsoFake {} */
+                @Deprecated
+                public final class Outer<T extends Comparable<T>> {
+                    private static final String TEXT = "class InString { }";
+                    private final Class<?> type = Outer.class;
+                    public record Point(int x, int y) {}
+                    enum Mode { A { void go() {} }, B }
+                    sealed interface Shape permits Circle {}
+                    @interface Marker {}
+                    void run() {
+                        class Local {}
+                        Runnable r = new Runnable() { public void run() { char c = '{'; } };
+                    }
+                }
+                final class Circle implements Outer.Shape {}
+                """);
+
+        assertEquals("demo.lib", declarations.packageName());
+        assertEquals(Set.of("Outer", "Point", "Mode", "Shape", "Marker", "Circle"), declarations.declaredTypes());
+    }
+
+    @Test
+    void cachesDeclarationsByContentHash() throws Exception {
+        Path dir = Files.createTempDirectory("declarations");
+        Path first = dir.resolve("A.java");
+        Path copy = dir.resolve("B.java");
+        Files.writeString(first, "package demo; public class A {}");
+        Files.writeString(copy, "package demo; public class A {}");
+
+        DeclarationCache cache = new DeclarationCache();
+        SourceDeclarations a = cache.declarationsFor(first);
+        SourceDeclarations b = cache.declarationsFor(copy);
+
+        assertSame(a, b);
+        assertEquals(1, cache.size());
+
+        DeclarationCache reloaded = new DeclarationCache(cache.snapshot());
+        Files.writeString(copy, "package demo; public class B {}");
+        assertEquals(Set.of("B"), reloaded.declarationsFor(copy).declaredTypes());
+        assertEquals(Map.of(), new DeclarationCache().snapshot());
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.importanalyzer.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DependencyGraphTest {
+    @Test
+    void resolvesImportsAndSamePackageReferencesIntoPackageCycles() throws Exception {
+        Path root = Files.createTempDirectory("dependencyGraph");
+        Path src = root.resolve("app/src/main/java");
+        Files.createDirectories(src.resolve("a"));
+        Files.createDirectories(src.resolve("b"));
+        Files.createDirectories(src.resolve("c"));
+        Files.writeString(src.resolve("a/A.java"), "package a; import b.B; import java.util.List; public class A { B b; List<String> names; Helper helper; }");
+        Files.writeString(src.resolve("a/Helper.java"), "package a; public class Helper { }");
+        Files.writeString(src.resolve("b/B.java"), "package b; import a.*; public class B { Helper helper; }");
+        Files.writeString(src.resolve("c/C.java"), "package c; import a.A; public class C { A a; }");
+
+        DependencyReport report = new ImportAnalyzerBuilder()
+                .projectRoot(root)
+                .sourceRoot(src)
+                .includeDependencies(false)
+                .threads(2)
+                .cacheEnabled(false)
+                .build()
+                .dependencies();
+
+        assertEquals(5, report.fileEdges());
+        assertEquals(List.of(List.of("a", "b")), report.packages().cycles());
+        assertEquals(Map.of("a", List.of("b", "java.util"), "b", List.of("a"), "c", List.of("a")), report.packages().dependencies());
+        assertEquals(Map.of("app:main", List.of("jdk")), report.modules().dependencies());
+        assertTrue(report.modules().cycles().isEmpty());
+    }
+
+    @Test
+    void findsEveryCycleInAChainOfRings() {
+        // 1000 rings of three nodes, each ring linked to the next one by a single edge
+        int rings = 1000;
+        int[] offsets = new int[rings * 3 + 1];
+        int[] targets = new int[rings * 3 + rings - 1];
+        int size = 0;
+        for (int v = 0; v < rings * 3; v++) {
+            int ring = v / 3;
+            targets[size++] = ring * 3 + (v + 1) % 3;
+            if (v % 3 == 2 && ring + 1 < rings) {
+                targets[size++] = (ring + 1) * 3;
+            }
+            offsets[v + 1] = size;
+        }
+
+        List<int[]> cycles = StronglyConnectedComponents.find(rings * 3, offsets, targets);
+        assertEquals(rings, cycles.size());
+        assertTrue(cycles.stream().allMatch(cycle -> cycle.length == 3));
+    }
+}
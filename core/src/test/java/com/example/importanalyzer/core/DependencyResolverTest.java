@@ -5,6 +5,7 @@ import org.junit.jupiter.api.Test;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -38,4 +39,54 @@ class DependencyResolverTest {
 
         assertEquals(root, resolved);
     }
+
+    @Test
+    void resolvesMavenDependenciesFromLocalRepository() throws Exception {
+        Path temp = Files.createTempDirectory("resolver-maven");
+        Path repo = temp.resolve("repository");
+        pom(repo, "parent", "1", "<packaging>pom</packaging><dependencyManagement><dependencies>"
+                + dep("b", "1.5", "") + "</dependencies></dependencyManagement>");
+        pom(repo, "bom", "1", "<dependencyManagement><dependencies>" + dep("c", "3.0", "") + "</dependencies></dependencyManagement>");
+        pom(repo, "a", "2.0", "<dependencies>" + dep("c", "1.0", "") + dep("o", "1", "<optional>true</optional>")
+                + dep("d", "1", "<scope>test</scope>") + "</dependencies>");
+        pom(repo, "b", "1.5", "<dependencies>" + dep("x", "1", "") + dep("c", "2.0", "") + "</dependencies>");
+        pom(repo, "c", "3.0", "");
+        for (String jar : new String[]{"a/2.0/a-2.0", "b/1.5/b-1.5", "c/3.0/c-3.0", "o/1/o-1", "x/1/x-1", "d/1/d-1", "t/1/t-1"}) {
+            Files.createDirectories(repo.resolve("com/acme").resolve(jar).getParent());
+            Files.writeString(repo.resolve("com/acme").resolve(jar + ".jar"), "jar");
+        }
+
+        Path project = temp.resolve("service");
+        Files.createDirectories(project.resolve("target"));
+        String pom = "<project><parent><groupId>com.acme</groupId><artifactId>parent</artifactId><version>1</version></parent>"
+                + "<artifactId>service</artifactId><properties><lib.version>2.0</lib.version></properties>"
+                + "<dependencyManagement><dependencies>" + dep("bom", "1", "<type>pom</type><scope>import</scope>") + "</dependencies></dependencyManagement>"
+                + "<dependencies>" + dep("a", "${lib.version}", "")
+                + dep("b", null, "<exclusions><exclusion><groupId>com.acme</groupId><artifactId>x</artifactId></exclusion></exclusions>")
+                + "%s</dependencies></project>";
+        Files.writeString(project.resolve("pom.xml"), pom.formatted(dep("t", "1", "<scope>test</scope>")));
+
+        DependencyResolver resolver = new DependencyResolver(repo);
+        assertEquals(Set.of("a-2.0.jar", "b-1.5.jar", "c-3.0.jar", "t-1.jar"), names(resolver.findDependencyArtifacts(project)));
+        assertTrue(Files.exists(project.resolve("target/.import-analyzer-classpath")));
+        assertEquals(Set.of("a-2.0.jar", "b-1.5.jar", "c-3.0.jar", "t-1.jar"), names(resolver.findDependencyArtifacts(project)));
+
+        Files.writeString(project.resolve("pom.xml"), pom.formatted(""));
+        assertEquals(Set.of("a-2.0.jar", "b-1.5.jar", "c-3.0.jar"), names(resolver.findDependencyArtifacts(project)));
+    }
+
+    private static void pom(Path repo, String artifactId, String version, String body) throws Exception {
+        Path dir = Files.createDirectories(repo.resolve("com/acme").resolve(artifactId).resolve(version));
+        Files.writeString(dir.resolve(artifactId + "-" + version + ".pom"), "<project><groupId>com.acme</groupId><artifactId>" + artifactId
+                + "</artifactId><version>" + version + "</version>" + body + "</project>");
+    }
+
+    private static String dep(String artifactId, String version, String extra) {
+        return "<dependency><groupId>com.acme</groupId><artifactId>" + artifactId + "</artifactId>"
+                + (version == null ? "" : "<version>" + version + "</version>") + extra + "</dependency>";
+    }
+
+    private static Set<String> names(Set<Path> artifacts) {
+        return artifacts.stream().map(path -> path.getFileName().toString()).collect(Collectors.toSet());
+    }
 }
@@ -0,0 +1,84 @@
+package com.example.importanalyzer.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImpactIndexTest {
+    @Test
+    void answersTransitiveImpactFromThePersistedIndex() throws Exception {
+        Path root = Files.createTempDirectory("impactIndex");
+        Path src = root.resolve("src/main/java");
+        for (String pkg : List.of("a", "b", "c", "d")) {
+            Files.createDirectories(src.resolve(pkg));
+        }
+        Files.writeString(src.resolve("a/A.java"), "package a; public class A { }");
+        Files.writeString(src.resolve("b/B.java"), "package b; import a.A; public class B { A a; }");
+        Files.writeString(src.resolve("b/Uses.java"), "package b; public class Uses { B b; }");
+        Files.writeString(src.resolve("c/C.java"), "package c; import b.Uses; import java.util.List; public class C { Uses uses; List<String> names; }");
+        Files.writeString(src.resolve("d/D.java"), "package d; import java.util.List; public class D { List<String> names; }");
+        Path cache = root.resolve("cache/index.json");
+
+        ImportAnalyzer analyzer = new ImportAnalyzerBuilder()
+                .projectRoot(root)
+                .sourceRoot(src)
+                .includeDependencies(false)
+                .threads(2)
+                .indexCachePath(cache)
+                .build();
+        analyzer.analyze();
+
+        ImpactIndex persisted = ImpactIndex.load(ImpactIndex.pathFor(cache));
+        assertNotNull(persisted);
+        assertEquals(List.of(src.resolve("a/A.java"), src.resolve("b/B.java"), src.resolve("b/Uses.java"), src.resolve("c/C.java")),
+                persisted.affectedBy(List.of("a.A")));
+        assertEquals(List.of(src.resolve("c/C.java"), src.resolve("d/D.java")), persisted.affectedBy(List.of("java.util.List")));
+        assertTrue(persisted.affectedBy(List.of("x.Unknown")).isEmpty());
+
+        // the cached index answers without re-analyzing, so a deleted source does not change the answer
+        Files.delete(src.resolve("c/C.java"));
+        assertEquals(4, analyzer.impactIndex(false).affectedBy(List.of("a.A")).size());
+        assertEquals(3, analyzer.impactIndex(true).affectedBy(List.of("a.A")).size());
+    }
+
+    @Test
+    void rejectsForeignFiles() throws Exception {
+        Path file = Files.createTempFile("impact", ".bin");
+        Files.writeString(file, "not an impact index");
+        assertThrows(CorruptCacheException.class, () -> ImpactIndex.load(file));
+        assertNull(ImpactIndex.load(file.resolveSibling(file.getFileName() + ".missing")));
+    }
+
+    @Test
+    void reportsAndRebuildsADamagedIndex() throws Exception {
+        Path root = Files.createTempDirectory("impactDamaged");
+        Path src = root.resolve("src/main/java/a");
+        Files.createDirectories(src);
+        Files.writeString(src.resolve("A.java"), "package a; public class A { }");
+        Files.writeString(src.resolve("B.java"), "package a; public class B { A a; }");
+        Path cache = root.resolve("cache/index.json");
+        AnalyzerMetrics metrics = new AnalyzerMetrics();
+        ImportAnalyzer analyzer = new ImportAnalyzerBuilder()
+                .projectRoot(root)
+                .sourceRoot(root.resolve("src/main/java"))
+                .includeDependencies(false)
+                .threads(1)
+                .indexCachePath(cache)
+                .metricsListener(metrics)
+                .build();
+        analyzer.analyze();
+
+        Path impact = ImpactIndex.pathFor(cache);
+        byte[] bytes = Files.readAllBytes(impact);
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(impact, bytes);
+        assertThrows(CorruptCacheException.class, () -> ImpactIndex.load(impact));
+
+        assertEquals(2, analyzer.impactIndex(false).affectedBy(List.of("a.A")).size());
+        assertEquals(1, metrics.counter(MetricCounter.INDEX_CACHE_ERRORS));
+    }
+}
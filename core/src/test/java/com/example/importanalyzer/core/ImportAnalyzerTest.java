@@ -4,6 +4,7 @@ import org.junit.jupiter.api.Test;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -178,4 +179,158 @@ class ImportAnalyzerTest {
         assertTrue(issues.stream().noneMatch(i -> i instanceof UnresolvedImportIssue),
                 "Sibling module declarations should satisfy dependent imports");
     }
+
+    @Test
+    void reportsPhaseTimingsAndCountersToMetricsListeners() throws Exception {
+        Path root = Files.createTempDirectory("metrics");
+        Path src = root.resolve("src/main/java/demo");
+        Files.createDirectories(src);
+        Files.writeString(src.resolve("Good.java"), "package demo; public class Good {}");
+        Files.writeString(src.resolve("Other.java"), "package demo; public class Other { Good good; }");
+
+        AnalyzerMetrics metrics = new AnalyzerMetrics();
+        new ImportAnalyzerBuilder()
+                .projectRoot(root)
+                .sourceRoot(root.resolve("src/main/java"))
+                .includeDependencies(false)
+                .threads(2)
+                .cacheEnabled(false)
+                .metricsListener(metrics)
+                .build()
+                .analyze();
+
+        assertEquals(2, metrics.counter(MetricCounter.FILES_PARSED));
+        assertEquals(0, metrics.counter(MetricCounter.PARSE_FAILURES));
+        assertTrue(metrics.counter(MetricCounter.BYTES_READ) > 0);
+        assertEquals(2, metrics.gauge(MetricGauge.FILES_TOTAL));
+        assertTrue(metrics.getIndexSize() >= 2);
+        assertTrue(metrics.phaseNanos(AnalysisPhase.PARSE) > 0);
+        assertTrue(metrics.phaseNanos(AnalysisPhase.EVALUATION) > 0);
+    }
+
+    @Test
+    void quarantinesUnparseableFilesAndAppliesErrorPolicy() throws Exception {
+        Path root = Files.createTempDirectory("quarantine");
+        Path src = root.resolve("src/main/java/demo");
+        Files.createDirectories(src);
+        Files.writeString(src.resolve("Broken.java"), "package demo; public class Broken { void run( }");
+        Files.writeString(src.resolve("Use.java"), "package demo; public class Use { Broken broken; }");
+        Path cachePath = root.resolve("cache/index.json");
+
+        AnalyzerMetrics first = new AnalyzerMetrics();
+        List<ImportIssue> issues = analyzerWithCache(root, cachePath, ParseErrorPolicy.FALLBACK, first).analyze();
+        assertEquals(1, first.counter(MetricCounter.PARSE_FAILURES));
+        assertTrue(issues.stream().noneMatch(issue -> issue.symbol().equals("Broken")), "Fallback should keep Broken resolvable");
+        assertTrue(Files.exists(ParseQuarantine.pathFor(cachePath)));
+
+        AnalyzerMetrics second = new AnalyzerMetrics();
+        analyzerWithCache(root, cachePath, ParseErrorPolicy.FALLBACK, second).analyze();
+        assertEquals(0, second.counter(MetricCounter.PARSE_FAILURES));
+        assertEquals(1, second.counter(MetricCounter.QUARANTINE_HITS));
+
+        Files.writeString(ParseQuarantine.pathFor(cachePath), "not a quarantine\n");
+        AnalyzerMetrics damaged = new AnalyzerMetrics();
+        analyzerWithCache(root, cachePath, ParseErrorPolicy.FALLBACK, damaged).analyze();
+        assertEquals(1, damaged.counter(MetricCounter.INDEX_CACHE_ERRORS));
+        assertEquals(1, damaged.counter(MetricCounter.PARSE_FAILURES));
+        assertEquals(1, new ParseQuarantine(ParseQuarantine.pathFor(cachePath)).load().size());
+
+        List<ImportIssue> skipped = analyzerWithCache(root, cachePath, ParseErrorPolicy.SKIP, new AnalyzerMetrics()).analyze();
+        assertTrue(skipped.stream().anyMatch(issue -> issue instanceof MissingImportIssue && issue.symbol().equals("Broken")));
+
+        assertThrows(RuntimeException.class,
+                () -> analyzerWithCache(root, cachePath, ParseErrorPolicy.FAIL, new AnalyzerMetrics()).analyze());
+    }
+
+    @Test
+    void qualifiedNestedTypesNeedOnlyTheirOuterImport() throws Exception {
+        Path root = Files.createTempDirectory("nested");
+        Path src = root.resolve("src/main/java");
+        for (String pkg : List.of("alpha", "beta")) {
+            Files.createDirectories(src.resolve(pkg));
+            Files.writeString(src.resolve(pkg + "/Outer.java"), "package " + pkg + "; public class Outer { public static class Inner { } }");
+        }
+        Files.createDirectories(src.resolve("demo"));
+        Files.writeString(src.resolve("demo/Use.java"), "package demo; import alpha.Outer; public class Use { Outer.Inner inner; }");
+
+        List<ImportIssue> issues = new ImportAnalyzerBuilder()
+                .projectRoot(root)
+                .sourceRoot(src)
+                .includeDependencies(false)
+                .threads(1)
+                .build()
+                .analyze();
+        assertTrue(issues.stream().noneMatch(issue -> issue.file().endsWith("Use.java")), issues.toString());
+    }
+
+    @Test
+    void retriesFilesThatOnlyHitTheParseDeadline() throws Exception {
+        Path root = Files.createTempDirectory("deadline");
+        Path src = root.resolve("src/main/java/demo");
+        Files.createDirectories(src);
+        Files.writeString(src.resolve("Slow.java"), "package demo; public class Slow { }");
+        Path cachePath = root.resolve("cache/index.json");
+
+        for (int run = 0; run < 2; run++) {
+            AnalyzerMetrics metrics = new AnalyzerMetrics();
+            new ImportAnalyzerBuilder()
+                    .projectRoot(root)
+                    .sourceRoot(root.resolve("src/main/java"))
+                    .includeDependencies(false)
+                    .threads(1)
+                    .indexCachePath(cachePath)
+                    .parseTimeout(Duration.ofNanos(1))
+                    .metricsListener(metrics)
+                    .build()
+                    .analyze();
+            assertEquals(1, metrics.counter(MetricCounter.PARSE_TIMEOUTS));
+            assertEquals(0, metrics.counter(MetricCounter.QUARANTINE_HITS));
+        }
+        assertEquals(0, new ParseQuarantine(ParseQuarantine.pathFor(cachePath)).load().size());
+    }
+
+    @Test
+    void rebuildsWhenTheCachedGraphIsInconsistent() throws Exception {
+        Path root = Files.createTempDirectory("inconsistentGraph");
+        Path src = root.resolve("src/main/java/demo");
+        Files.createDirectories(src);
+        Files.writeString(src.resolve("Use.java"), "package demo; import java.util.List; public class Use { Missing m; }");
+        Path cachePath = root.resolve("cache/index.json");
+        List<ImportIssue> expected = analyzerWithCache(root, cachePath, ParseErrorPolicy.FALLBACK, new AnalyzerMetrics()).analyze();
+
+        IndexCache cache = new IndexCache(cachePath, IndexCache.defaultMapper());
+        IndexCache.SerializedIndex saved = cache.load();
+        ImportGraph.Snapshot graph = saved.graph();
+        int[] targets = graph.fileTargets().clone();
+        targets[0] = graph.types().size();
+        cache.save(new IndexCache.SerializedIndex(saved.entries(), new ImportGraph.Snapshot(graph.files(), graph.types(),
+                graph.fileOffsets(), targets, graph.typeOffsets(), graph.typeSources()), saved.fileTimestamps(), saved.declarations()));
+
+        AnalyzerMetrics metrics = new AnalyzerMetrics();
+        List<ImportIssue> issues = new ImportAnalyzerBuilder()
+                .projectRoot(root)
+                .sourceRoot(root.resolve("src/main/java"))
+                .includeDependencies(false)
+                .threads(2)
+                .indexCachePath(cachePath)
+                .reuseIndex(true)
+                .metricsListener(metrics)
+                .build()
+                .analyze();
+        assertEquals(1, metrics.counter(MetricCounter.INDEX_CACHE_ERRORS));
+        assertEquals(1, metrics.counter(MetricCounter.INDEX_CACHE_MISSES));
+        assertEquals(expected.stream().map(ImportIssue::symbol).toList(), issues.stream().map(ImportIssue::symbol).toList());
+    }
+
+    private ImportAnalyzer analyzerWithCache(Path root, Path cachePath, ParseErrorPolicy policy, AnalyzerMetrics metrics) {
+        return new ImportAnalyzerBuilder()
+                .projectRoot(root)
+                .sourceRoot(root.resolve("src/main/java"))
+                .includeDependencies(false)
+                .threads(2)
+                .indexCachePath(cachePath)
+                .errorPolicy(policy)
+                .metricsListener(metrics)
+                .build();
+    }
 }
@@ -0,0 +1,118 @@
+package com.example.importanalyzer.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImportFixerTest {
+    private static final String USE = """
+            package demo;
+
+            import java.util.List;
+            import java.util.Set;
+
+            public class Use {
+                List<String> names;
+                Map<String, String> map;
+                Path path;
+                Widget widget;
+            }
+            """;
+
+    @Test
+    void dryRunRendersDiffWithoutTouchingFiles() throws Exception {
+        Path root = project();
+        Path use = root.resolve("src/main/java/demo/Use.java");
+
+        FixReport report = analyzer(root).fix(SelectPolicy.PREFER_LOCAL, true);
+
+        assertEquals(USE, Files.readString(use));
+        FileFix fix = report.files().stream().filter(f -> f.file().equals(use)).findFirst().orElseThrow();
+        assertTrue(fix.changed());
+        assertTrue(fix.diff().contains("-import java.util.Set;"), fix.diff());
+        assertTrue(fix.diff().contains("+import java.util.Map;"), fix.diff());
+    }
+
+    @Test
+    void rewritesOnlyTheImportBlock() throws Exception {
+        Path root = project();
+        Path use = root.resolve("src/main/java/demo/Use.java");
+
+        FixReport report = analyzer(root).fix(SelectPolicy.PREFER_LOCAL, false);
+
+        assertEquals("""
+                package demo;
+
+                import java.util.List;
+                import demo.local.Widget;
+                import java.nio.file.Path;
+                import java.util.Map;
+
+                public class Use {
+                    List<String> names;
+                    Map<String, String> map;
+                    Path path;
+                    Widget widget;
+                }
+                """, Files.readString(use));
+        assertEquals(List.of("java.util.Set"), report.files().get(0).removed());
+        assertTrue(analyzer(root).analyze().stream().noneMatch(issue -> issue.file().equals(use)));
+
+        Path inline = root.resolve("src/main/java/demo/Inline.java");
+        Files.writeString(inline, "package demo; import java.util.Set; public class Inline { Map<String, String> map; }");
+        analyzer(root).fix(SelectPolicy.SKIP, false);
+        assertEquals("package demo; import java.util.Map; public class Inline { Map<String, String> map; }", Files.readString(inline));
+    }
+
+    @Test
+    void keepsByteOrderMarkAndCharsetOfTheFile() throws Exception {
+        Path root = project();
+        Path bom = root.resolve("src/main/java/demo/Bom.java");
+        byte[] mark = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+        Files.write(bom, concat(mark, "package demo; public class Bom { Map<String, String> map; }".getBytes(StandardCharsets.UTF_8)));
+        Path legacy = root.resolve("src/main/java/demo/Legacy.java");
+        Files.write(legacy, "package demo; import java.util.Set; public class Legacy { String caf\u00e9; }".getBytes(StandardCharsets.ISO_8859_1));
+
+        analyzer(root).fix(SelectPolicy.PREFER_LOCAL, false);
+
+        assertArrayEquals(concat(mark, "package demo;\n\nimport java.util.Map; public class Bom { Map<String, String> map; }"
+                .getBytes(StandardCharsets.UTF_8)), Files.readAllBytes(bom));
+        assertArrayEquals("package demo; public class Legacy { String caf\u00e9; }".getBytes(StandardCharsets.ISO_8859_1),
+                Files.readAllBytes(legacy));
+    }
+
+    private static byte[] concat(byte[] a, byte[] b) {
+        byte[] out = new byte[a.length + b.length];
+        System.arraycopy(a, 0, out, 0, a.length);
+        System.arraycopy(b, 0, out, a.length, b.length);
+        return out;
+    }
+
+    private static Path project() throws Exception {
+        Path root = Files.createTempDirectory("fixer");
+        Path main = root.resolve("src/main/java");
+        Path test = root.resolve("src/test/java");
+        Files.createDirectories(main.resolve("demo/local"));
+        Files.createDirectories(test.resolve("demo/fixtures"));
+        Files.writeString(main.resolve("demo/local/Widget.java"), "package demo.local; public class Widget {}");
+        Files.writeString(test.resolve("demo/fixtures/Widget.java"), "package demo.fixtures; public class Widget {}");
+        Files.writeString(main.resolve("demo/Use.java"), USE);
+        return root;
+    }
+
+    private static ImportAnalyzer analyzer(Path root) {
+        return new ImportAnalyzerBuilder()
+                .projectRoot(root)
+                .sourceRoot(root.resolve("src/main/java"))
+                .testSourceRoot(root.resolve("src/test/java"))
+                .includeDependencies(false)
+                .threads(2)
+                .cacheEnabled(false)
+                .build();
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.importanalyzer.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImportGraphTest {
+    @Test
+    void freezesConcurrentEdgesIntoBothDirections() {
+        ImportGraph graph = new ImportGraph();
+        IntStream.range(0, 1000).parallel().forEach(i -> {
+            Path file = Path.of("src/F" + i + ".java");
+            graph.recordUsage(file, "List");
+            graph.recordUsage(file, "List");
+            graph.recordUsage(file, "T" + (i % 10));
+        });
+
+        assertEquals(1000, graph.filesForType("List").size());
+        assertEquals(100, graph.filesForType("T3").size());
+        assertTrue(graph.filesForType("T3").contains(Path.of("src/F13.java")));
+        assertEquals(Set.of("List", "T7"), graph.typesForFile(Path.of("src/F7.java")));
+        assertEquals(2000, graph.edgeCount());
+
+        graph.recordUsage(Path.of("src/F7.java"), "Map");
+        assertEquals(Set.of("List", "Map", "T7"), graph.typesForFile(Path.of("src/F7.java")));
+        assertTrue(graph.filesForType("Missing").isEmpty());
+    }
+
+    @Test
+    void restoresFromSnapshotAndMergesNewEdges() {
+        ImportGraph graph = new ImportGraph();
+        graph.recordUsage(Path.of("b/B.java"), "List");
+        graph.recordUsage(Path.of("a/A.java"), "Set");
+
+        ImportGraph restored = new ImportGraph();
+        restored.recordUsage(Path.of("c/C.java"), "List");
+        restored.restore(graph.snapshot());
+
+        assertEquals(Set.of(Path.of("b/B.java"), Path.of("c/C.java")), restored.filesForType("List"));
+        assertEquals(Set.of("Set"), restored.typesForFile(Path.of("a/A.java")));
+        assertEquals(3, restored.fileCount());
+    }
+}
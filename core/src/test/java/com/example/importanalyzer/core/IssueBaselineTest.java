@@ -0,0 +1,61 @@
+package com.example.importanalyzer.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IssueBaselineTest {
+    @Test
+    void reportsOnlyIssuesMissingFromTheBaseline() throws Exception {
+        Path root = Files.createTempDirectory("issueBaseline");
+        Path main = root.resolve("src/main/java");
+        Files.createDirectories(main.resolve("demo"));
+        Path file = main.resolve("demo/A.java");
+        Files.writeString(file, "package demo; import x.y.Gone; import java.util.List; public class A { Missing m; }");
+
+        List<ImportIssue> existing = analyzer(root, main, IssueBaseline.EMPTY).analyze();
+        assertEquals(3, existing.size());
+        IssueBaseline created = IssueBaseline.of(existing.stream().mapToLong(issue -> IssueBaseline.fingerprint(issue, root)).toArray());
+        Path baselineFile = root.resolve(".import-analyzer-baseline");
+        created.write(baselineFile);
+        IssueBaseline baseline = IssueBaseline.read(baselineFile);
+        assertEquals(3, baseline.size());
+        assertTrue(analyzer(root, main, baseline).analyze().isEmpty());
+
+        // known issues move down a few lines, one new issue appears
+        Files.writeString(file, "package demo;\n\n\nimport x.y.Gone;\nimport java.util.List;\npublic class A { Missing m; AlsoMissing n; }");
+        List<ImportIssue> fresh = analyzer(root, main, baseline).analyze();
+        assertEquals(1, fresh.size());
+        assertEquals("AlsoMissing", fresh.get(0).symbol());
+    }
+
+    @Test
+    void rejectsMissingAndDamagedFiles() throws Exception {
+        Path dir = Files.createTempDirectory("issueBaselineFiles");
+        assertThrows(NoSuchFileException.class, () -> IssueBaseline.read(dir.resolve("absent")));
+
+        Path file = dir.resolve("baseline");
+        IssueBaseline.of(new long[]{3, 1, 2, 3}).write(file);
+        assertEquals(3, IssueBaseline.read(file).size());
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(file, bytes);
+        assertThrows(CorruptCacheException.class, () -> IssueBaseline.read(file));
+    }
+
+    private ImportAnalyzer analyzer(Path root, Path main, IssueBaseline baseline) {
+        return new ImportAnalyzerBuilder()
+                .projectRoot(root)
+                .sourceRoot(main)
+                .includeDependencies(false)
+                .cacheEnabled(false)
+                .threads(2)
+                .baseline(baseline)
+                .build();
+    }
+}
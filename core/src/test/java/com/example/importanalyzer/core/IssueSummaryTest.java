@@ -0,0 +1,44 @@
+package com.example.importanalyzer.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IssueSummaryTest {
+    @Test
+    void countsStreamedIssuesAndKeepsTheWorstFiles() throws Exception {
+        Path root = Files.createTempDirectory("issueSummary");
+        Path main = root.resolve("src/main/java");
+        Path test = root.resolve("src/test/java");
+        Files.createDirectories(main.resolve("demo/api"));
+        Files.createDirectories(test.resolve("demo"));
+        Files.writeString(main.resolve("demo/A.java"), "package demo; import x.y.Gone; import java.util.List; public class A { Missing m; }");
+        Files.writeString(main.resolve("demo/api/B.java"), "package demo.api; import java.util.List; public class B { }");
+        Files.writeString(test.resolve("demo/ATest.java"), "package demo; public class ATest { Unknown u; Other o; Third t; }");
+
+        ImportAnalyzer analyzer = new ImportAnalyzerBuilder()
+                .projectRoot(root)
+                .sourceRoot(main)
+                .testSourceRoot(test)
+                .includeDependencies(false)
+                .cacheEnabled(false)
+                .threads(2)
+                .build();
+        IssueSummary summary = new IssueSummary(List.of(main, test), 2);
+        analyzer.analyze(summary);
+        List<ImportIssue> issues = analyzer.analyze();
+
+        assertEquals(issues.size(), summary.total());
+        assertEquals(7, summary.total());
+        assertEquals(Map.of(IssueType.UNRESOLVED_IMPORT, 1, IssueType.UNUSED_IMPORT, 2, IssueType.MISSING_IMPORT, 4), summary.byType());
+        assertEquals(Map.of("demo", 6, "demo.api", 1), summary.byPackage());
+        assertEquals(Map.of(main, 4, test, 3), summary.bySourceRoot());
+        assertEquals(List.of(new IssueSummary.FileCount(main.resolve("demo/A.java"), 3), new IssueSummary.FileCount(test.resolve("demo/ATest.java"), 3)),
+                summary.topFiles());
+    }
+}
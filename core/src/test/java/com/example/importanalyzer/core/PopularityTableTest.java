@@ -0,0 +1,50 @@
+package com.example.importanalyzer.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PopularityTableTest {
+    @Test
+    void ranksCandidatesByPackageThenProjectWideImports() throws Exception {
+        Path root = Files.createTempDirectory("popularity");
+        Path src = root.resolve("src/main/java");
+        write(src, "a/Widget.java", "package a; public class Widget { }");
+        write(src, "b/Widget.java", "package b; public class Widget { }");
+        write(src, "x/X1.java", "package x; import b.Widget; public class X1 { Widget w; }");
+        write(src, "x/X2.java", "package x; import b.Widget; public class X2 { Widget w; }");
+        write(src, "y/Y.java", "package y; public class Y { Widget w; }");
+        write(src, "z/Z1.java", "package z; import a.Widget; public class Z1 { Widget w; }");
+        write(src, "z/Z2.java", "package z; public class Z2 { Widget w; }");
+
+        List<ImportIssue> issues = new ImportAnalyzerBuilder()
+                .projectRoot(root)
+                .sourceRoot(src)
+                .includeDependencies(false)
+                .threads(2)
+                .cacheEnabled(false)
+                .build()
+                .analyze();
+
+        assertEquals(List.of("b.Widget", "a.Widget"), candidatesFor(issues, "Y.java"));
+        assertEquals(List.of("a.Widget", "b.Widget"), candidatesFor(issues, "Z2.java"));
+    }
+
+    private static List<String> candidatesFor(List<ImportIssue> issues, String fileName) {
+        return issues.stream()
+                .filter(issue -> issue instanceof AmbiguousImportIssue && issue.file().getFileName().toString().equals(fileName))
+                .findFirst()
+                .orElseThrow()
+                .candidates();
+    }
+
+    private static void write(Path src, String relative, String content) throws Exception {
+        Path file = src.resolve(relative);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content);
+    }
+}
@@ -5,6 +5,7 @@ import org.junit.jupiter.api.Test;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -21,6 +22,16 @@ class SourceFileAnalyzerTest {
         Files.deleteIfExists(temp);
     }
 
+    @Test
+    void recordsOnlyTheOutermostNameOfAQualifiedType() throws IOException {
+        Path temp = Files.createTempFile("Qualified", ".java");
+        Files.writeString(temp, "package demo; import java.util.Map; public class Qualified { Map.Entry<String, String> entry; }");
+        SourceFileResult result = SourceFileAnalyzer.analyze(temp);
+        assertTrue(result.usedTypes().contains("Map"));
+        assertFalse(result.usedTypes().contains("Entry"));
+        Files.deleteIfExists(temp);
+    }
+
     @Test
     void capturesStaticMembersAndIdentifiers() throws IOException {
         Path temp = Files.createTempFile("StaticSample", ".java");
@@ -53,4 +64,19 @@ class SourceFileAnalyzerTest {
         assertTrue(result.usedIdentifiers().contains("Test"));
         Files.deleteIfExists(temp);
     }
+
+    @Test
+    void abortsParsingOnceDeadlineExpires() {
+        Path file = Path.of("Generated.java");
+        StringBuilder content = new StringBuilder("package demo; public class Generated {");
+        for (int i = 0; i < 2000; i++) {
+            content.append(" int f").append(i).append(" = ").append(i).append(";");
+        }
+        content.append(" }");
+
+        ParseTimeoutException timeout = assertThrows(ParseTimeoutException.class,
+                () -> SourceFileAnalyzer.analyze(file, content.toString(), Duration.ofNanos(1)));
+        assertEquals(file, timeout.file());
+        assertEquals("demo", SourceFileAnalyzer.analyze(file, content.toString(), Duration.ZERO).packageName());
+    }
 }
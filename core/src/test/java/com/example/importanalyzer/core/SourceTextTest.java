@@ -0,0 +1,61 @@
+package com.example.importanalyzer.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SourceTextTest {
+    @Test
+    void detectsByteOrderMarksAndFallsBackToLatin1() throws Exception {
+        Path dir = Files.createTempDirectory("sourceText");
+
+        byte[] utf8 = concat(new byte[] {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF}, "class Caf\u00e9 {}".getBytes(StandardCharsets.UTF_8));
+        SourceText withBom = read(dir.resolve("Utf8.java"), utf8);
+        assertEquals("class Caf\u00e9 {}", withBom.toString());
+        assertEquals(StandardCharsets.UTF_8, withBom.charset());
+        assertEquals(ContentHash.of(utf8), withBom.hash());
+        assertEquals(utf8.length, withBom.byteLength());
+
+        byte[] utf16 = concat(new byte[] {(byte) 0xFF, (byte) 0xFE}, "class A {}".getBytes(StandardCharsets.UTF_16LE));
+        SourceText littleEndian = read(dir.resolve("Utf16.java"), utf16);
+        assertEquals("class A {}", littleEndian.toString());
+        assertEquals(StandardCharsets.UTF_16LE, littleEndian.charset());
+
+        // a lone 0xE9 is not valid UTF-8
+        byte[] legacy = "class Caf\u00e9 {}".getBytes(StandardCharsets.ISO_8859_1);
+        SourceText latin1 = read(dir.resolve("Legacy.java"), legacy);
+        assertEquals("class Caf\u00e9 {}", latin1.toString());
+        assertEquals(StandardCharsets.ISO_8859_1, latin1.charset());
+    }
+
+    @Test
+    void sharesOneStringAndReadsLargeFilesOutsideThePool() throws Exception {
+        Path dir = Files.createTempDirectory("sourceTextLarge");
+        SourceText small = read(dir.resolve("A.java"), "class A {}".getBytes(StandardCharsets.UTF_8));
+        assertSame(small.toString(), small.toString());
+        assertEquals("class A {}", small.chars().toString());
+
+        String body = "class Big {\n" + "    int field;\n".repeat(200_000) + "}\n";
+        byte[] large = body.getBytes(StandardCharsets.UTF_8);
+        SourceText big = read(dir.resolve("Big.java"), large);
+        assertEquals(body, big.toString());
+        assertEquals(ContentHash.of(large), big.hash());
+        assertEquals("Big", SourceFileAnalyzer.analyze(dir.resolve("Big.java")).declaredTypes().iterator().next());
+    }
+
+    private static SourceText read(Path file, byte[] bytes) throws Exception {
+        Files.write(file, bytes);
+        return SourceText.read(file);
+    }
+
+    private static byte[] concat(byte[] a, byte[] b) {
+        byte[] out = new byte[a.length + b.length];
+        System.arraycopy(a, 0, out, 0, a.length);
+        System.arraycopy(b, 0, out, a.length, b.length);
+        return out;
+    }
+}
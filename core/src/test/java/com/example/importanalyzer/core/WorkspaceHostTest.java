@@ -0,0 +1,101 @@
+package com.example.importanalyzer.core;
+
+import org.junit.jupiter.api.Test;
+
+import javax.tools.ToolProvider;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkspaceHostTest {
+    @Test
+    void sharesIdenticalJarsBetweenProjects() throws Exception {
+        byte[] classFile = compileLibrary();
+        Path first = project("workspaceA", classFile);
+        Path second = project("workspaceB", classFile);
+
+        try (WorkspaceHost host = new WorkspaceHost()) {
+            ImportAnalyzerService a = host.open(config(first));
+            ImportAnalyzerService b = host.open(config(second));
+            assertSame(a, host.open(config(first)));
+            a.awaitReady(Duration.ofSeconds(30)).join();
+            b.awaitReady(Duration.ofSeconds(30)).join();
+
+            // one JDK segment and one segment for the jar both projects ship under different paths
+            assertEquals(2, host.segments().segmentCount());
+            for (Path root : new Path[]{first, second}) {
+                ScanResult result = host.service(root).scan(root.resolve("src/main/java/app/Main.java")).join();
+                assertEquals(ImportAction.ADD, result.action());
+                assertTrue(result.candidates().contains("lib.Shared"), result.toString());
+            }
+
+            assertTrue(host.closeProject(first));
+            assertEquals(2, host.segments().segmentCount());
+            assertFalse(host.closeProject(first));
+        }
+    }
+
+    @Test
+    void releasesSegmentsWhenTheHostCloses() throws Exception {
+        WorkspaceHost host = new WorkspaceHost();
+        host.open(config(project("workspaceC", compileLibrary()))).awaitReady(Duration.ofSeconds(30)).join();
+        assertEquals(2, host.segments().segmentCount());
+
+        host.close();
+        assertEquals(0, host.segments().segmentCount());
+        assertTrue(host.projects().isEmpty());
+        assertThrows(IllegalStateException.class, () -> host.open(config(Files.createTempDirectory("workspaceD"))));
+    }
+
+    @Test
+    void dropsSegmentsWhoseBuildFailed() {
+        SharedIndexSegments segments = new SharedIndexSegments();
+        assertThrows(IllegalStateException.class, () -> segments.acquireJdk(index -> {
+            throw new IllegalStateException("corrupt");
+        }));
+        assertEquals(0, segments.segmentCount());
+
+        IndexSegment jdk = segments.acquireJdk(index -> index.addEntry(
+                new ClassIndexEntry("java.util.List", "List", ClassOrigin.JDK, Path.of("<jdk>"))));
+        assertEquals(1, jdk.size());
+        segments.release(jdk);
+        assertEquals(0, segments.segmentCount());
+    }
+
+    private ImportAnalyzerConfig config(Path root) {
+        return new ImportAnalyzerBuilder()
+                .projectRoot(root)
+                .sourceRoot(root.resolve("src/main/java"))
+                .includeDependencies(true)
+                .threads(2)
+                .cacheEnabled(false)
+                .buildConfig();
+    }
+
+    private Path project(String name, byte[] classFile) throws Exception {
+        Path root = Files.createTempDirectory(name);
+        Path app = root.resolve("src/main/java/app");
+        Files.createDirectories(app);
+        Files.writeString(app.resolve("Main.java"), "package app; public class Main { Shared shared; }");
+        Files.createDirectories(root.resolve("libs"));
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(root.resolve("libs/" + name + ".jar")))) {
+            out.putNextEntry(new JarEntry("lib/Shared.class"));
+            out.write(classFile);
+            out.closeEntry();
+        }
+        return root;
+    }
+
+    private byte[] compileLibrary() throws Exception {
+        Path root = Files.createTempDirectory("workspaceLib");
+        Path source = root.resolve("lib/Shared.java");
+        Files.createDirectories(source.getParent());
+        Files.writeString(source, "package lib; public class Shared { }");
+        assertEquals(0, ToolProvider.getSystemJavaCompiler().run(null, null, null, "-d", root.toString(), source.toString()));
+        return Files.readAllBytes(root.resolve("lib/Shared.class"));
+    }
+}
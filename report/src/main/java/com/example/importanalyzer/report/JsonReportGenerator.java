@@ -1,5 +1,6 @@
 package com.example.importanalyzer.report;
 
+import com.example.importanalyzer.core.DependencyReport;
 import com.example.importanalyzer.core.ImportIssue;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -18,8 +19,16 @@ public class JsonReportGenerator {
     }
 
     public String toJson(List<ImportIssue> issues) {
+        return write(issues);
+    }
+
+    public String toJson(DependencyReport report) {
+        return write(report);
+    }
+
+    private String write(Object value) {
         try {
-            return mapper.writeValueAsString(issues);
+            return mapper.writeValueAsString(value);
         } catch (JsonProcessingException e) {
             throw new IllegalStateException("Unable to render JSON", e);
         }